@@ -0,0 +1,220 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.pass.support.client.adapter.AggregatedDepositStatusAdapter;
+import org.eclipse.pass.support.client.adapter.AwardStatusAdapter;
+import org.eclipse.pass.support.client.adapter.ContributorRoleAdapter;
+import org.eclipse.pass.support.client.adapter.CopyStatusAdapter;
+import org.eclipse.pass.support.client.adapter.DepositStatusAdapter;
+import org.eclipse.pass.support.client.adapter.EventTypeAdapter;
+import org.eclipse.pass.support.client.adapter.FileRoleAdapter;
+import org.eclipse.pass.support.client.adapter.IntegrationTypeAdapter;
+import org.eclipse.pass.support.client.adapter.PerformerRoleAdapter;
+import org.eclipse.pass.support.client.adapter.SourceAdapter;
+import org.eclipse.pass.support.client.adapter.SubmissionStatusAdapter;
+import org.eclipse.pass.support.client.adapter.UserRoleAdapter;
+import org.eclipse.pass.support.client.adapter.ZonedDateTimeAdapter;
+import org.eclipse.pass.support.client.model.AggregatedDepositStatus;
+import org.eclipse.pass.support.client.model.AwardStatus;
+import org.eclipse.pass.support.client.model.ContributorRole;
+import org.eclipse.pass.support.client.model.CopyStatus;
+import org.eclipse.pass.support.client.model.DepositStatus;
+import org.eclipse.pass.support.client.model.EventType;
+import org.eclipse.pass.support.client.model.FileRole;
+import org.eclipse.pass.support.client.model.IntegrationType;
+import org.eclipse.pass.support.client.model.PerformerRole;
+import org.eclipse.pass.support.client.model.Source;
+import org.eclipse.pass.support.client.model.SubmissionStatus;
+import org.eclipse.pass.support.client.model.UserRole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Convert every value of the enum types of the model and a set of timestamps with the Moshi adapters
+ * used by JsonApiPassClient.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdapterBenchmark {
+    private static final int DATE_TIMES = 100;
+
+    private final AggregatedDepositStatusAdapter aggregated_status_adapter = new AggregatedDepositStatusAdapter();
+    private final AwardStatusAdapter award_status_adapter = new AwardStatusAdapter();
+    private final ContributorRoleAdapter contributor_role_adapter = new ContributorRoleAdapter();
+    private final CopyStatusAdapter copy_status_adapter = new CopyStatusAdapter();
+    private final DepositStatusAdapter deposit_status_adapter = new DepositStatusAdapter();
+    private final EventTypeAdapter event_type_adapter = new EventTypeAdapter();
+    private final FileRoleAdapter file_role_adapter = new FileRoleAdapter();
+    private final IntegrationTypeAdapter integration_type_adapter = new IntegrationTypeAdapter();
+    private final PerformerRoleAdapter performer_role_adapter = new PerformerRoleAdapter();
+    private final SourceAdapter source_adapter = new SourceAdapter();
+    private final SubmissionStatusAdapter submission_status_adapter = new SubmissionStatusAdapter();
+    private final UserRoleAdapter user_role_adapter = new UserRoleAdapter();
+    private final ZonedDateTimeAdapter date_time_adapter = new ZonedDateTimeAdapter();
+
+    private List<ZonedDateTime> date_times;
+    private List<String> date_time_strings;
+
+    /**
+     * Create timestamps to convert.
+     */
+    @Setup
+    public void setup() {
+        date_times = new ArrayList<>();
+        date_time_strings = new ArrayList<>();
+
+        ZonedDateTime date_time = ZonedDateTime.parse("2023-03-14T15:09:26.535Z");
+
+        for (int i = 0; i < DATE_TIMES; i++) {
+            date_times.add(date_time);
+            date_time_strings.add(date_time_adapter.toJson(date_time));
+            date_time = date_time.minusMinutes(i * 7919L);
+        }
+    }
+
+    /**
+     * Convert every enum value to JSON.
+     *
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void enumToJson(Blackhole bh) {
+        for (AggregatedDepositStatus v : AggregatedDepositStatus.values()) {
+            bh.consume(aggregated_status_adapter.toJson(v));
+        }
+        for (AwardStatus v : AwardStatus.values()) {
+            bh.consume(award_status_adapter.toJson(v));
+        }
+        for (ContributorRole v : ContributorRole.values()) {
+            bh.consume(contributor_role_adapter.toJson(v));
+        }
+        for (CopyStatus v : CopyStatus.values()) {
+            bh.consume(copy_status_adapter.toJson(v));
+        }
+        for (DepositStatus v : DepositStatus.values()) {
+            bh.consume(deposit_status_adapter.toJson(v));
+        }
+        for (EventType v : EventType.values()) {
+            bh.consume(event_type_adapter.toJson(v));
+        }
+        for (FileRole v : FileRole.values()) {
+            bh.consume(file_role_adapter.toJson(v));
+        }
+        for (IntegrationType v : IntegrationType.values()) {
+            bh.consume(integration_type_adapter.toJson(v));
+        }
+        for (PerformerRole v : PerformerRole.values()) {
+            bh.consume(performer_role_adapter.toJson(v));
+        }
+        for (Source v : Source.values()) {
+            bh.consume(source_adapter.toJson(v));
+        }
+        for (SubmissionStatus v : SubmissionStatus.values()) {
+            bh.consume(submission_status_adapter.toJson(v));
+        }
+        for (UserRole v : UserRole.values()) {
+            bh.consume(user_role_adapter.toJson(v));
+        }
+    }
+
+    /**
+     * Convert every enum value from JSON.
+     *
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void enumFromJson(Blackhole bh) {
+        for (AggregatedDepositStatus v : AggregatedDepositStatus.values()) {
+            bh.consume(aggregated_status_adapter.fromJson(v.getValue()));
+        }
+        for (AwardStatus v : AwardStatus.values()) {
+            bh.consume(award_status_adapter.fromJson(v.getValue()));
+        }
+        for (ContributorRole v : ContributorRole.values()) {
+            bh.consume(contributor_role_adapter.fromJson(v.getValue()));
+        }
+        for (CopyStatus v : CopyStatus.values()) {
+            bh.consume(copy_status_adapter.fromJson(v.getValue()));
+        }
+        for (DepositStatus v : DepositStatus.values()) {
+            bh.consume(deposit_status_adapter.fromJson(v.getValue()));
+        }
+        for (EventType v : EventType.values()) {
+            bh.consume(event_type_adapter.fromJson(v.getValue()));
+        }
+        for (FileRole v : FileRole.values()) {
+            bh.consume(file_role_adapter.fromJson(v.getValue()));
+        }
+        for (IntegrationType v : IntegrationType.values()) {
+            bh.consume(integration_type_adapter.fromJson(v.getValue()));
+        }
+        for (PerformerRole v : PerformerRole.values()) {
+            bh.consume(performer_role_adapter.fromJson(v.getValue()));
+        }
+        for (Source v : Source.values()) {
+            bh.consume(source_adapter.fromJson(v.getValue()));
+        }
+        for (SubmissionStatus v : SubmissionStatus.values()) {
+            bh.consume(submission_status_adapter.fromJson(v.getValue()));
+        }
+        for (UserRole v : UserRole.values()) {
+            bh.consume(user_role_adapter.fromJson(v.getValue()));
+        }
+    }
+
+    /**
+     * Convert timestamps to JSON.
+     *
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void dateTimeToJson(Blackhole bh) {
+        for (ZonedDateTime date_time : date_times) {
+            bh.consume(date_time_adapter.toJson(date_time));
+        }
+    }
+
+    /**
+     * Convert timestamps from JSON.
+     *
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void dateTimeFromJson(Blackhole bh) {
+        for (String s : date_time_strings) {
+            bh.consume(date_time_adapter.fromJson(s));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.squareup.moshi.JsonReader;
+import okio.Buffer;
+import org.eclipse.pass.support.client.model.PassEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decode responses for every model type the way JsonApiPassClient does when getting one object and
+ * selecting a page of 500 objects, with and without the relationship targets included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecodeBenchmark {
+    private static final int PAGE_SIZE = 500;
+    private static final String BASE_URL = "http://localhost:8080/";
+
+    /**
+     * JSON API type to decode.
+     */
+    @Param({"contributor", "deposit", "file", "funder", "grant", "journal", "policy", "publication", "publisher",
+        "repository", "repositoryCopy", "submission", "submissionEvent", "user"})
+    public String type;
+
+    /**
+     * Whether relationship targets are included in the documents.
+     */
+    @Param({"false", "true"})
+    public boolean included;
+
+    private JsonApiPassClient client;
+    private Class<? extends PassEntity> type_class;
+    private String id;
+    private String object_url;
+    private String page_url;
+    private byte[] object;
+    private byte[] page;
+
+    /**
+     * Load the documents to decode.
+     *
+     * @throws IOException on failure
+     */
+    @Setup
+    public void setup() throws IOException {
+        client = new JsonApiPassClient(BASE_URL);
+
+        // Fixtures have no validators, but make sure decoded objects are not kept
+        client.setRevalidationStoreSize(0);
+
+        type_class = EntityMetadata.of(type).getType();
+        id = Fixtures.id(type);
+        object_url = BASE_URL + "data/" + type + "/" + id;
+        page_url = BASE_URL + "data/" + type;
+        object = Fixtures.object(type, included);
+        page = Fixtures.page(type, PAGE_SIZE, included);
+    }
+
+    /**
+     * Decode the response to getting one object.
+     *
+     * @return decoded object
+     * @throws IOException on failure
+     */
+    @Benchmark
+    public PassEntity decodeObject() throws IOException {
+        return client.handle_get(type_class, id, null, Fixtures.response(object_url, object));
+    }
+
+    /**
+     * Decode the response to selecting a page of objects.
+     *
+     * @return decoded page
+     * @throws IOException on failure
+     */
+    @Benchmark
+    public PassClientResult<PassEntity> decodePage() throws IOException {
+        return client.handle_select(type_class, Fixtures.response(page_url, page));
+    }
+
+    /**
+     * Gather the relationships of one object.
+     *
+     * @return relationships
+     * @throws IOException on failure
+     */
+    @Benchmark
+    public Object getRelationshipsObject() throws IOException {
+        try (JsonReader reader = JsonReader.of(new Buffer().write(object))) {
+            return client.get_relationships(reader);
+        }
+    }
+
+    /**
+     * Gather the relationships of a page of objects.
+     *
+     * @return relationships
+     * @throws IOException on failure
+     */
+    @Benchmark
+    public Object getRelationshipsPage() throws IOException {
+        try (JsonReader reader = JsonReader.of(new Buffer().write(page))) {
+            return client.get_relationships(reader);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import okio.Buffer;
+import org.eclipse.pass.support.client.model.PassEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Encode objects of every model type the way JsonApiPassClient does when creating and updating them.
+ * The objects are decoded from the fixtures, one object and a page of 500 objects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncodeBenchmark {
+    private static final int PAGE_SIZE = 500;
+    private static final String BASE_URL = "http://localhost:8080/";
+
+    /**
+     * JSON API type to encode.
+     */
+    @Param({"contributor", "deposit", "file", "funder", "grant", "journal", "policy", "publication", "publisher",
+        "repository", "repositoryCopy", "submission", "submissionEvent", "user"})
+    public String type;
+
+    private JsonApiPassClient client;
+    private PassEntity object;
+    private List<PassEntity> page;
+    private String object_json;
+    private List<String> object_null_rels;
+
+    /**
+     * Decode the objects to encode.
+     *
+     * @throws IOException on failure
+     */
+    @Setup
+    public void setup() throws IOException {
+        client = new JsonApiPassClient(BASE_URL);
+        client.setRevalidationStoreSize(0);
+
+        Class<? extends PassEntity> type_class = EntityMetadata.of(type).getType();
+        String id = Fixtures.id(type);
+
+        object = client.handle_get(type_class, id, null,
+                Fixtures.response(BASE_URL + "data/" + type + "/" + id, Fixtures.object(type, false)));
+        page = client.<PassEntity>handle_select(type_class,
+                Fixtures.response(BASE_URL + "data/" + type, Fixtures.page(type, PAGE_SIZE, false))).getObjects();
+
+        // Document as serialized before missing to one relationships are added
+        try (Buffer buf = new Buffer()) {
+            client.create_request(object).body().writeTo(buf);
+            object_json = buf.readUtf8();
+        }
+
+        // Treat every to one relationship as null so that all of them are added
+        object_null_rels = EntityMetadata.of(type_class).getToOneRelationships().stream()
+                .map(EntityMetadata.Property::getName).collect(Collectors.toList());
+    }
+
+    /**
+     * Create the request to create one object.
+     *
+     * @return request body length
+     * @throws IOException on failure
+     */
+    @Benchmark
+    public long createObject() throws IOException {
+        return client.create_request(object).body().contentLength();
+    }
+
+    /**
+     * Create the requests to create a page of objects.
+     *
+     * @param bh blackhole
+     * @throws IOException on failure
+     */
+    @Benchmark
+    public void createPage(Blackhole bh) throws IOException {
+        for (PassEntity obj : page) {
+            bh.consume(client.create_request(obj).body().contentLength());
+        }
+    }
+
+    /**
+     * Create the resource object sent to update one object.
+     *
+     * @return resource object
+     * @throws IOException on failure
+     */
+    @Benchmark
+    public Object updateObject() throws IOException {
+        return client.get_update_resource_object(object);
+    }
+
+    /**
+     * Create the resource objects sent to update a page of objects.
+     *
+     * @param bh blackhole
+     * @throws IOException on failure
+     */
+    @Benchmark
+    public void updatePage(Blackhole bh) throws IOException {
+        for (PassEntity obj : page) {
+            bh.consume(client.get_update_resource_object(obj));
+        }
+    }
+
+    /**
+     * Find the null to one relationships of one object.
+     *
+     * @return names of relationships
+     */
+    @Benchmark
+    public List<String> getNullRelationships() {
+        return client.get_null_relationships(object);
+    }
+
+    /**
+     * Add all the to one relationships of one object as null to its document.
+     *
+     * @return document
+     * @throws IOException on failure
+     */
+    @Benchmark
+    public String addNullRelationships() throws IOException {
+        return client.add_null_relationships(object_json, object_null_rels);
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.Okio;
+
+/**
+ * JSON API documents used by the benchmarks. Each model type has a fixture with one resource object and the
+ * resource objects of its relationship targets as they are returned by PASS. Pages are built from a fixture
+ * by copying the resource object with different ids and varying the ids of the relationship targets.
+ */
+final class Fixtures {
+    // Number of distinct targets of each relationship on a page
+    private static final int PAGE_TARGETS = 50;
+
+    private static final MediaType JSON_API_MEDIA_TYPE = MediaType.parse("application/vnd.api+json");
+
+    private Fixtures() {
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> load(String json_type) throws IOException {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + json_type + ".json")) {
+            if (in == null) {
+                throw new IOException("No fixture for: " + json_type);
+            }
+
+            return (Map<String, Object>) JsonReader.of(Okio.buffer(Okio.source(in))).readJsonValue();
+        }
+    }
+
+    private static byte[] write(Map<String, Object> doc) throws IOException {
+        try (Buffer buf = new Buffer(); JsonWriter out = JsonWriter.of(buf)) {
+            out.setSerializeNulls(true);
+            out.jsonValue(doc);
+            out.flush();
+
+            return buf.readByteArray();
+        }
+    }
+
+    /**
+     * @param json_type JSON API type
+     * @return id of the resource object in the fixture
+     * @throws IOException on failure
+     */
+    @SuppressWarnings("unchecked")
+    static String id(String json_type) throws IOException {
+        return (String) ((Map<String, Object>) load(json_type).get("data")).get("id");
+    }
+
+    /**
+     * @param json_type JSON API type
+     * @param included whether the document includes the relationship targets
+     * @return document with one resource object
+     * @throws IOException on failure
+     */
+    static byte[] object(String json_type, boolean included) throws IOException {
+        Map<String, Object> doc = load(json_type);
+
+        if (!included) {
+            doc.remove("included");
+        }
+
+        return write(doc);
+    }
+
+    /**
+     * @param json_type JSON API type
+     * @param size number of resource objects
+     * @param included whether the document includes the relationship targets
+     * @return document with a page of resource objects
+     * @throws IOException on failure
+     */
+    @SuppressWarnings("unchecked")
+    static byte[] page(String json_type, int size, boolean included) throws IOException {
+        Map<String, Object> fixture = load(json_type);
+        Map<String, Object> data = (Map<String, Object>) fixture.get("data");
+        List<Map<String, Object>> fixture_included = (List<Map<String, Object>>) fixture.get("included");
+
+        List<Object> page_data = new ArrayList<>();
+        Map<String, Object> page_included = new LinkedHashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> obj = new LinkedHashMap<>(data);
+            obj.put("id", vary(data.get("id"), i));
+
+            Map<String, Object> rels = (Map<String, Object>) data.get("relationships");
+
+            if (rels != null) {
+                Map<String, Object> obj_rels = new LinkedHashMap<>();
+
+                for (Map.Entry<String, Object> rel : rels.entrySet()) {
+                    Map<String, Object> obj_rel = new LinkedHashMap<>((Map<String, Object>) rel.getValue());
+                    Object target = obj_rel.get("data");
+
+                    if (target instanceof List) {
+                        List<Object> targets = new ArrayList<>();
+
+                        for (Object t : (List<Object>) target) {
+                            targets.add(vary_target((Map<String, Object>) t, i));
+                        }
+
+                        obj_rel.put("data", targets);
+                    } else if (target != null) {
+                        obj_rel.put("data", vary_target((Map<String, Object>) target, i));
+                    }
+
+                    obj_rels.put(rel.getKey(), obj_rel);
+                }
+
+                obj.put("relationships", obj_rels);
+            }
+
+            page_data.add(obj);
+
+            if (included && fixture_included != null) {
+                for (Map<String, Object> inc : fixture_included) {
+                    String id = vary(inc.get("id"), i % PAGE_TARGETS);
+                    Map<String, Object> page_inc = new LinkedHashMap<>(inc);
+                    page_inc.put("id", id);
+                    page_included.put(inc.get("type") + "_" + id, page_inc);
+                }
+            }
+        }
+
+        Map<String, Object> doc = new LinkedHashMap<>();
+        doc.put("data", page_data);
+
+        if (included && !page_included.isEmpty()) {
+            doc.put("included", new ArrayList<>(page_included.values()));
+        }
+
+        doc.put("meta", Map.of("page", Map.of("number", 1, "limit", size, "totalPages", 10,
+                "totalRecords", size * 10)));
+
+        return write(doc);
+    }
+
+    private static String vary(Object id, int i) {
+        return String.valueOf(Integer.parseInt(id.toString()) * 1000 + i);
+    }
+
+    private static Map<String, Object> vary_target(Map<String, Object> target, int i) {
+        return Map.of("type", target.get("type"), "id", vary(target.get("id"), i % PAGE_TARGETS));
+    }
+
+    /**
+     * @param url request URL
+     * @param body response body
+     * @return successful response with the body
+     */
+    static Response response(String url, byte[] body) {
+        return new Response.Builder().request(new Request.Builder().url(url).build()).protocol(Protocol.HTTP_1_1)
+                .code(200).message("OK").body(ResponseBody.create(body, JSON_API_MEDIA_TYPE)).build();
+    }
+}
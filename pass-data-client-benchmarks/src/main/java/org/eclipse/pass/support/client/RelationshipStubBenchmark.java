@@ -0,0 +1,169 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.pass.support.client.model.Grant;
+import org.eclipse.pass.support.client.model.PassEntity;
+import org.eclipse.pass.support.client.model.Submission;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compare creating a relationship stub for every reference against sharing stubs through a StubTable
+ * when wiring pages of 500 Submissions and 500 Grants. Run with -prof gc to compare allocation per page.
+ * Target ids are distributed as in a typical PASS instance where many objects share a few repositories,
+ * policies, funders, and users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RelationshipStubBenchmark {
+    private static final int PAGE_SIZE = 500;
+
+    // Relationship of an object in a page: name, target type, target ids
+    private static class Rel {
+        final EntityMetadata.Property prop;
+        final EntityMetadata target;
+        final List<String> targets;
+
+        Rel(EntityMetadata md, String name, String... targets) {
+            this.prop = md.getRelationships().get(name);
+            this.target = EntityMetadata.of(prop.getTargetType());
+            this.targets = List.of(targets);
+        }
+    }
+
+    private List<PassEntity> submissions;
+    private List<List<Rel>> submission_rels;
+    private List<PassEntity> grants;
+    private List<List<Rel>> grant_rels;
+
+    /**
+     * Create pages of Submissions and Grants and their relationships.
+     */
+    @Setup
+    public void setup() {
+        EntityMetadata sub_md = EntityMetadata.of(Submission.class);
+        EntityMetadata grant_md = EntityMetadata.of(Grant.class);
+
+        submissions = new ArrayList<>();
+        submission_rels = new ArrayList<>();
+        grants = new ArrayList<>();
+        grant_rels = new ArrayList<>();
+
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            submissions.add(new Submission("" + i));
+            submission_rels.add(List.of(
+                    new Rel(sub_md, "publication", "" + (i + 10000)),
+                    new Rel(sub_md, "submitter", "" + (i % 50)),
+                    new Rel(sub_md, "preparers", "" + (i % 50), "" + (i % 7 + 50)),
+                    new Rel(sub_md, "repositories", "1", "2", "3"),
+                    new Rel(sub_md, "grants", "" + (i % 20), "" + (i % 30 + 100)),
+                    new Rel(sub_md, "effectivePolicies", "1", "2")));
+
+            grants.add(new Grant("" + i));
+            grant_rels.add(List.of(
+                    new Rel(grant_md, "primaryFunder", "" + (i % 10)),
+                    new Rel(grant_md, "directFunder", "" + (i % 12)),
+                    new Rel(grant_md, "pi", "" + (i % 200)),
+                    new Rel(grant_md, "coPis", "" + (i % 150 + 200), "" + (i % 90 + 200))));
+        }
+    }
+
+    private static PassEntity stub(StubTable stubs, EntityMetadata md, String id) {
+        return stubs == null ? md.newInstance(id) : stubs.get(md, id);
+    }
+
+    private static void wire(List<PassEntity> page, List<List<Rel>> page_rels, StubTable stubs, Blackhole bh) {
+        for (int i = 0; i < page.size(); i++) {
+            PassEntity obj = page.get(i);
+
+            for (Rel rel : page_rels.get(i)) {
+                Object target;
+
+                if (rel.prop.isToMany()) {
+                    List<PassEntity> list = new ArrayList<>(rel.targets.size());
+                    for (String id : rel.targets) {
+                        list.add(stub(stubs, rel.target, id));
+                    }
+                    target = list;
+                } else {
+                    target = stub(stubs, rel.target, rel.targets.get(0));
+                }
+
+                rel.prop.set(obj, target);
+            }
+
+            bh.consume(obj);
+        }
+    }
+
+    /**
+     * Create a stub for every reference on a page of Submissions.
+     *
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void submissionStubPerReference(Blackhole bh) {
+        wire(submissions, submission_rels, null, bh);
+    }
+
+    /**
+     * Share stubs on a page of Submissions.
+     *
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void submissionSharedStubs(Blackhole bh) {
+        wire(submissions, submission_rels, new StubTable(), bh);
+    }
+
+    /**
+     * Create a stub for every reference on a page of Grants.
+     *
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void grantStubPerReference(Blackhole bh) {
+        wire(grants, grant_rels, null, bh);
+    }
+
+    /**
+     * Share stubs on a page of Grants.
+     *
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void grantSharedStubs(Blackhole bh) {
+        wire(grants, grant_rels, new StubTable(), bh);
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+import org.eclipse.pass.support.client.model.Submission;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compare wiring relationship stubs onto a page of 500 Submissions and finding their null to one
+ * relationships using reflective lookups, as the client used to, against the precomputed
+ * EntityMetadata accessors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RelationshipWiringBenchmark {
+    private static final int PAGE_SIZE = 500;
+
+    // Relationship of a Submission in a page: name, target type, target ids
+    private static class Rel {
+        final String name;
+        final String target_type;
+        final List<String> targets;
+        final boolean to_many;
+
+        Rel(String name, String target_type, boolean to_many, String... targets) {
+            this.name = name;
+            this.target_type = target_type;
+            this.to_many = to_many;
+            this.targets = List.of(targets);
+        }
+    }
+
+    private List<Submission> page;
+    private List<List<Rel>> page_rels;
+
+    /**
+     * Create a page of Submissions and their relationships.
+     */
+    @Setup
+    public void setup() {
+        page = new ArrayList<>();
+        page_rels = new ArrayList<>();
+
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            page.add(new Submission("" + i));
+            page_rels.add(List.of(
+                    new Rel("publication", "publication", false, "" + (i + 10000)),
+                    new Rel("submitter", "user", false, "" + (i % 50)),
+                    new Rel("repositories", "repository", true, "1", "2", "3"),
+                    new Rel("grants", "grant", true, "" + (i % 20), "" + (i % 30 + 100)),
+                    new Rel("effectivePolicies", "policy", true, "1", "2")));
+        }
+    }
+
+    private static String capitalize(String s) {
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+
+    private static Object reflective_create(String id, String class_name) throws ReflectiveOperationException {
+        return Class.forName(class_name).getConstructor(String.class).newInstance(id);
+    }
+
+    /**
+     * Set relationship stubs by looking up constructors and set methods reflectively.
+     *
+     * @param bh blackhole
+     * @throws Exception on failure
+     */
+    @Benchmark
+    public void reflectiveWiring(Blackhole bh) throws Exception {
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Submission sub = page.get(i);
+
+            for (Rel rel : page_rels.get(i)) {
+                String class_name = "org.eclipse.pass.support.client.model." + capitalize(rel.target_type);
+                Object target;
+
+                if (rel.to_many) {
+                    List<Object> list = new ArrayList<>();
+                    for (String id : rel.targets) {
+                        list.add(reflective_create(id, class_name));
+                    }
+                    target = list;
+                } else {
+                    target = reflective_create(rel.targets.get(0), class_name);
+                }
+
+                Class<?> value_class = target instanceof List ? List.class : target.getClass();
+                sub.getClass().getMethod("set" + capitalize(rel.name), value_class).invoke(sub, target);
+            }
+
+            bh.consume(sub);
+        }
+    }
+
+    /**
+     * Set relationship stubs using EntityMetadata.
+     *
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void metadataWiring(Blackhole bh) {
+        EntityMetadata md = EntityMetadata.of(Submission.class);
+
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Submission sub = page.get(i);
+
+            for (Rel rel : page_rels.get(i)) {
+                EntityMetadata target_md = EntityMetadata.of(rel.target_type);
+                Object target;
+
+                if (rel.to_many) {
+                    List<PassEntity> list = new ArrayList<>(rel.targets.size());
+                    for (String id : rel.targets) {
+                        list.add(target_md.newInstance(id));
+                    }
+                    target = list;
+                } else {
+                    target = target_md.newInstance(rel.targets.get(0));
+                }
+
+                md.getRelationships().get(rel.name).set(sub, target);
+            }
+
+            bh.consume(sub);
+        }
+    }
+
+    /**
+     * Find null to one relationships by reflectively invoking every get method.
+     *
+     * @param bh blackhole
+     * @throws Exception on failure
+     */
+    @Benchmark
+    public void reflectiveNullRelationships(Blackhole bh) throws Exception {
+        for (Submission sub : page) {
+            List<String> rels = new ArrayList<>();
+
+            for (Method m : sub.getClass().getMethods()) {
+                if (m.getName().startsWith("get") && PassEntity.class.isAssignableFrom(m.getReturnType())) {
+                    try {
+                        if (m.invoke(sub) == null) {
+                            rels.add(Character.toLowerCase(m.getName().charAt(3)) + m.getName().substring(4));
+                        }
+                    } catch (InvocationTargetException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }
+
+            bh.consume(rels);
+        }
+    }
+
+    /**
+     * Find null to one relationships using EntityMetadata.
+     *
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void metadataNullRelationships(Blackhole bh) {
+        for (Submission sub : page) {
+            List<String> rels = new ArrayList<>();
+
+            for (EntityMetadata.Property prop : EntityMetadata.of(sub.getClass()).getToOneRelationships()) {
+                if (prop.get(sub) == null) {
+                    rels.add(prop.getName());
+                }
+            }
+
+            bh.consume(rels);
+        }
+    }
+}
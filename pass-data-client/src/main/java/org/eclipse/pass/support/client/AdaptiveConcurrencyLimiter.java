@@ -0,0 +1,205 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Limit the number of requests in flight using additive increase, multiplicative decrease (AIMD).
+ * The latency of each kind of request, such as a retrieval of one type or a selection of pages of one size,
+ * is compared to a long term average of that kind so that a mix of small and large requests does not
+ * look like overload. While latency stays close to its average, the limit grows by about one each time a
+ * full limit of requests completes. When latency rises well above the average or the server responds with
+ * 429 Too Many Requests or 503 Service Unavailable, or a request fails, the limit is cut. The limit is cut at
+ * most once per window: requests which were already in flight when it was cut do not cut it again, so a burst
+ * of concurrent failures counts as a single overload.
+ * <p>
+ * Callers wait for a permit before a request is handed to OkHttp, so that asynchronous requests over the
+ * limit queue without occupying a thread. The limit only grows while enough requests are in flight to make
+ * use of it. A single shared instance is used by default so all clients in the JVM are limited together.
+ * See {@link PassClientConfig.Builder#concurrencyLimiter(AdaptiveConcurrencyLimiter)} to use another
+ * instance or none.
+ * </p>
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final AdaptiveConcurrencyLimiter SHARED = new AdaptiveConcurrencyLimiter(20, 1, 200);
+
+    // Weight of a sample in the long term latency average
+    private static final double LATENCY_SMOOTHING = 0.05;
+
+    // Latency above this multiple of the average is treated as overload
+    private static final double LATENCY_TOLERANCE = 2.0;
+
+    // Multiplier of the limit on overload
+    private static final double BACKOFF_RATIO = 0.9;
+
+    // Maximum number of kinds of request whose average latency is kept
+    private static final int MAX_KINDS = 1000;
+
+    private final int min_limit;
+    private final int max_limit;
+    private final Map<String, Double> average_latency;
+    private final Deque<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+    private double limit;
+    private int in_flight = 0;
+    // Number of requests released and the number after which the limit may be cut again
+    private long completed = 0;
+    private long recovering_until = 0;
+
+    /**
+     * @param initial_limit initial number of requests allowed in flight
+     * @param min_limit minimum number of requests allowed in flight
+     * @param max_limit maximum number of requests allowed in flight
+     */
+    public AdaptiveConcurrencyLimiter(int initial_limit, int min_limit, int max_limit) {
+        if (min_limit < 1 || max_limit < min_limit || initial_limit < min_limit || initial_limit > max_limit) {
+            throw new IllegalArgumentException("Invalid limits: initial " + initial_limit + " min " + min_limit
+                    + " max " + max_limit);
+        }
+
+        this.limit = initial_limit;
+        this.min_limit = min_limit;
+        this.max_limit = max_limit;
+        this.average_latency = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Double> eldest) {
+                return size() > MAX_KINDS;
+            }
+        };
+    }
+
+    /**
+     * @return limiter shared by all clients in the JVM which use the default
+     */
+    public static AdaptiveConcurrencyLimiter shared() {
+        return SHARED;
+    }
+
+    /**
+     * @return current number of requests allowed in flight
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return number of requests in flight
+     */
+    public synchronized int getInFlight() {
+        return in_flight;
+    }
+
+    /**
+     * Wait until a request may be sent and count it as in flight.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void acquire() throws InterruptedException {
+        CompletableFuture<Void> permit = acquire_async();
+
+        try {
+            permit.get();
+        } catch (InterruptedException e) {
+            // The permit may have been granted while being interrupted
+            if (!permit.cancel(false)) {
+                release(null, -1, false);
+            }
+
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Return a future which completes when a request may be sent, at which point the request is
+     * counted as in flight. Cancelling the future before it completes gives up the place in the queue.
+     *
+     * @return future which completes when a request may be sent
+     */
+    synchronized CompletableFuture<Void> acquire_async() {
+        if (waiting.isEmpty() && in_flight < (int) limit) {
+            in_flight++;
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        waiting.add(permit);
+
+        return permit;
+    }
+
+    /**
+     * Record the result of a request in flight and adjust the limit. A request which was not sent is
+     * released with no latency and not overloaded.
+     *
+     * @param kind kind of request whose latency is compared to the average of that kind
+     * @param latency_nanos time taken by the exchange with the server or -1 if not known
+     * @param overloaded whether the server indicated it was overloaded or the request failed
+     */
+    void release(String kind, long latency_nanos, boolean overloaded) {
+        List<CompletableFuture<Void>> granted = new ArrayList<>();
+
+        synchronized (this) {
+            // Whether the limit was in use when the request completed
+            boolean saturated = in_flight * 2 >= (int) limit;
+
+            in_flight--;
+            completed++;
+
+            Double average = latency_nanos < 0 ? null : average_latency.get(kind);
+
+            if (overloaded || (average != null && latency_nanos > LATENCY_TOLERANCE * average)) {
+                if (completed > recovering_until) {
+                    limit = Math.max(min_limit, limit * BACKOFF_RATIO);
+                    recovering_until = completed + in_flight;
+                }
+            } else if (saturated && latency_nanos >= 0) {
+                limit = Math.min(max_limit, limit + 1.0 / limit);
+            }
+
+            // Keep slow responses from raising the average they are compared to
+            if (!overloaded && latency_nanos >= 0) {
+                average_latency.put(kind, average == null ? latency_nanos
+                        : average + LATENCY_SMOOTHING * (Math.min(latency_nanos, LATENCY_TOLERANCE * average)
+                        - average));
+            }
+
+            while (!waiting.isEmpty() && in_flight < (int) limit) {
+                CompletableFuture<Void> permit = waiting.remove();
+
+                if (!permit.isDone()) {
+                    in_flight++;
+                    granted.add(permit);
+                }
+            }
+        }
+
+        // Complete outside the lock as completion runs the waiting requests
+        for (CompletableFuture<Void> permit : granted) {
+            if (!permit.complete(null)) {
+                release(null, -1, false);
+            }
+        }
+    }
+}
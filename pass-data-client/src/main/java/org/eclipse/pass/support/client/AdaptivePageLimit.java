@@ -0,0 +1,210 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.time.Duration;
+
+/**
+ * Adjusts the page limit used to stream objects so that each page fits a budget of response size, latency,
+ * or both. The cost of a single object is estimated from the pages retrieved so far and the next page is
+ * limited to the number of objects which fit the budget, kept between a minimum and a maximum.
+ * The limit at most doubles from one page to the next so that a few small objects do not cause a huge page.
+ * <p>
+ * The latency of a page is the response time reported by the client with
+ * {@link PassClientResult#getResponseNanos()}, which does not include time spent waiting to send the request.
+ * Queueing behind other requests therefore does not shrink pages. Pages whose response time is not known do
+ * not change the latency estimate.
+ * </p>
+ * <p>
+ * The first page of a stream uses the limit of the selector. Each stream adapts independently.
+ * The maximum must not exceed the largest page size the server allows.
+ * </p>
+ */
+public class AdaptivePageLimit {
+    // Weight of the latest page in the estimated cost of an object
+    private static final double SMOOTHING = 0.5;
+
+    // Maximum multiplier of the limit from one page to the next
+    private static final int MAX_GROWTH = 2;
+
+    private final int min_limit;
+    private final int max_limit;
+    private final long target_bytes;
+    private final Duration target_latency;
+
+    /**
+     * @param min_limit minimum number of objects in a page
+     * @param max_limit maximum number of objects in a page
+     * @param target_bytes target size of a response body in bytes or 0 for no target
+     * @param target_latency target time to retrieve a page or null for no target
+     */
+    public AdaptivePageLimit(int min_limit, int max_limit, long target_bytes, Duration target_latency) {
+        if (min_limit < 1 || max_limit < min_limit) {
+            throw new IllegalArgumentException("Invalid limits: min " + min_limit + " max " + max_limit);
+        }
+
+        if (target_bytes < 0 || (target_latency != null && (target_latency.isNegative()
+                || target_latency.isZero()))) {
+            throw new IllegalArgumentException("Invalid targets: bytes " + target_bytes + " latency "
+                    + target_latency);
+        }
+
+        if (target_bytes == 0 && target_latency == null) {
+            throw new IllegalArgumentException("A target response size or latency is required");
+        }
+
+        this.min_limit = min_limit;
+        this.max_limit = max_limit;
+        this.target_bytes = target_bytes;
+        this.target_latency = target_latency;
+    }
+
+    /**
+     * @param min_limit minimum number of objects in a page
+     * @param max_limit maximum number of objects in a page
+     * @param target_bytes target size of a response body in bytes
+     * @return page limit targeting a response size
+     */
+    public static AdaptivePageLimit responseSize(int min_limit, int max_limit, long target_bytes) {
+        return new AdaptivePageLimit(min_limit, max_limit, target_bytes, null);
+    }
+
+    /**
+     * @param min_limit minimum number of objects in a page
+     * @param max_limit maximum number of objects in a page
+     * @param target_latency target time to retrieve a page
+     * @return page limit targeting a latency
+     */
+    public static AdaptivePageLimit latency(int min_limit, int max_limit, Duration target_latency) {
+        return new AdaptivePageLimit(min_limit, max_limit, 0, target_latency);
+    }
+
+    /**
+     * @return minimum number of objects in a page
+     */
+    public int getMinLimit() {
+        return min_limit;
+    }
+
+    /**
+     * @return maximum number of objects in a page
+     */
+    public int getMaxLimit() {
+        return max_limit;
+    }
+
+    /**
+     * @return target size of a response body in bytes or 0 for no target
+     */
+    public long getTargetBytes() {
+        return target_bytes;
+    }
+
+    /**
+     * @return target time to retrieve a page or null for no target
+     */
+    public Duration getTargetLatency() {
+        return target_latency;
+    }
+
+    /**
+     * @param limit limit of the first page
+     * @return new state of a single stream
+     */
+    State start(int limit) {
+        return new State(limit);
+    }
+
+    private int clamp(long limit) {
+        return (int) Math.max(min_limit, Math.min(max_limit, limit));
+    }
+
+    /**
+     * Estimated cost of an object and the current limit of a single stream.
+     */
+    final class State {
+        private int limit;
+        private double bytes_per_object = -1;
+        private double nanos_per_object = -1;
+
+        private State(int limit) {
+            this.limit = clamp(limit);
+        }
+
+        /**
+         * @return limit of the next page
+         */
+        int getLimit() {
+            return limit;
+        }
+
+        /**
+         * Update the estimated cost of an object from a retrieved page.
+         *
+         * @param objects number of objects in the page
+         * @param bytes size of the response body or -1 if not known
+         * @param nanos response time of the page or -1 if not known
+         * @return limit of the next page, unchanged if the page is empty or its cost against a target is not known
+         */
+        int update(int objects, long bytes, long nanos) {
+            if (objects == 0) {
+                return limit;
+            }
+
+            if (bytes >= 0) {
+                bytes_per_object = smooth(bytes_per_object, (double) bytes / objects);
+            }
+
+            if (nanos >= 0) {
+                nanos_per_object = smooth(nanos_per_object, (double) nanos / objects);
+            }
+
+            long fit = Long.MAX_VALUE;
+
+            if (target_bytes > 0 && bytes_per_object > 0) {
+                fit = Math.min(fit, (long) (target_bytes / bytes_per_object));
+            }
+
+            if (target_latency != null && nanos_per_object > 0) {
+                fit = Math.min(fit, (long) (target_latency.toNanos() / nanos_per_object));
+            }
+
+            // Keep the limit until the cost of an object against a target is known
+            if (fit == Long.MAX_VALUE) {
+                return limit;
+            }
+
+            limit = clamp(Math.min(fit, (long) limit * MAX_GROWTH));
+
+            return limit;
+        }
+
+        private double smooth(double estimate, double sample) {
+            return estimate < 0 ? sample : SMOOTHING * sample + (1 - SMOOTHING) * estimate;
+        }
+
+        /**
+         * @return independent copy of this state
+         */
+        State copy() {
+            State result = new State(limit);
+            result.bytes_per_object = bytes_per_object;
+            result.nanos_per_object = nanos_per_object;
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,396 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+
+/**
+ * PassClient which keeps objects retrieved by {@link #getObject(Class, String, String...)} in an identity map
+ * and delegates everything else to another PassClient. Repeated retrievals of the same type, id, and included
+ * relationships return the same object without a call to the delegate until the entry expires or is evicted.
+ * Updating or deleting an object through this client removes its entries once the operation completes.
+ * Changes made in other ways, including changes to included objects, are not seen until the entries expire.
+ * A retrieval which was in flight when its object was invalidated is returned but not cached.
+ * <p>
+ * Each type has a time to live and a maximum number of entries, after which the least recently used entry
+ * is evicted. A type with a maximum of zero is not cached.
+ * </p>
+ */
+public class CachingPassClient implements PassClient {
+    private static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(10);
+    private static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final PassClient client;
+    private final LongSupplier clock;
+    private final Map<Class<?>, Duration> time_to_live = new HashMap<>();
+    private final Map<Class<?>, Integer> max_size = new HashMap<>();
+    private final Map<Class<?>, LinkedHashMap<Key, Entry>> caches = new HashMap<>();
+    private final Map<Class<?>, Map<String, Fetch>> fetches = new HashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private Duration default_time_to_live = DEFAULT_TIME_TO_LIVE;
+    private int default_max_size = DEFAULT_MAX_SIZE;
+
+    /**
+     * @param client PassClient to delegate to
+     */
+    public CachingPassClient(PassClient client) {
+        this(client, System::nanoTime);
+    }
+
+    /**
+     * @param client PassClient to delegate to
+     * @param clock source of time in nanoseconds
+     */
+    CachingPassClient(PassClient client, LongSupplier clock) {
+        this.client = client;
+        this.clock = clock;
+    }
+
+    private static class Key {
+        private final String id;
+        private final String include;
+
+        Key(String id, String... include) {
+            this.id = id;
+
+            if (include == null || include.length == 0) {
+                this.include = "";
+            } else {
+                String[] sorted = include.clone();
+                Arrays.sort(sorted);
+                this.include = String.join(",", sorted);
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+
+            return id.equals(other.id) && include.equals(other.include);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * id.hashCode() + include.hashCode();
+        }
+    }
+
+    private static class Entry {
+        private final PassEntity object;
+        private final long expires;
+
+        Entry(PassEntity object, long expires) {
+            this.object = object;
+            this.expires = expires;
+        }
+    }
+
+    // Retrievals of an object in flight and the number of times the object was invalidated since the first
+    private static class Fetch {
+        private int count;
+        private long generation;
+    }
+
+    /**
+     * Set the time to live of types without their own time to live.
+     *
+     * @param ttl how long an entry is kept after retrieval
+     */
+    public synchronized void setDefaultTimeToLive(Duration ttl) {
+        this.default_time_to_live = ttl;
+    }
+
+    /**
+     * Set the maximum number of entries of types without their own maximum.
+     *
+     * @param size maximum number of entries per type
+     */
+    public synchronized void setDefaultMaxSize(int size) {
+        this.default_max_size = size;
+    }
+
+    /**
+     * @param type type of object
+     * @param ttl how long an entry of the type is kept after retrieval
+     */
+    public synchronized void setTimeToLive(Class<? extends PassEntity> type, Duration ttl) {
+        time_to_live.put(type, ttl);
+    }
+
+    /**
+     * @param type type of object
+     * @param size maximum number of entries of the type, zero to not cache the type
+     */
+    public synchronized void setMaxSize(Class<? extends PassEntity> type, int size) {
+        max_size.put(type, size);
+        trim(type);
+    }
+
+    /**
+     * @return number of retrievals answered from the cache
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of retrievals passed to the delegate
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return number of objects currently cached
+     */
+    public synchronized int size() {
+        return caches.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public synchronized void clear() {
+        caches.clear();
+        fetches.values().forEach(m -> m.values().forEach(f -> f.generation++));
+    }
+
+    /**
+     * Remove all entries of an object.
+     *
+     * @param type type of the object
+     * @param id identifier of the object
+     */
+    public synchronized void invalidate(Class<?> type, String id) {
+        LinkedHashMap<Key, Entry> cache = caches.get(type);
+
+        if (cache != null && id != null) {
+            cache.keySet().removeIf(k -> k.id.equals(id));
+        }
+
+        Map<String, Fetch> fetching = fetches.get(type);
+        Fetch fetch = fetching == null || id == null ? null : fetching.get(id);
+
+        if (fetch != null) {
+            fetch.generation++;
+        }
+    }
+
+    private int get_max_size(Class<?> type) {
+        return max_size.getOrDefault(type, default_max_size);
+    }
+
+    private LinkedHashMap<Key, Entry> get_cache(Class<?> type) {
+        // Access order so the eldest entry is the least recently used
+        return caches.computeIfAbsent(type, t -> new LinkedHashMap<>(16, 0.75f, true));
+    }
+
+    private void trim(Class<?> type) {
+        LinkedHashMap<Key, Entry> cache = caches.get(type);
+        int max = get_max_size(type);
+
+        if (cache != null) {
+            while (cache.size() > max) {
+                cache.remove(cache.keySet().iterator().next());
+            }
+        }
+    }
+
+    private synchronized <T extends PassEntity> T lookup(Class<T> type, Key key) {
+        LinkedHashMap<Key, Entry> cache = caches.get(type);
+        Entry entry = cache == null ? null : cache.get(key);
+
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        if (clock.getAsLong() - entry.expires >= 0) {
+            cache.remove(key);
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        return type.cast(entry.object);
+    }
+
+    // Record a retrieval in flight and return the generation to pass to store
+    private synchronized long start_fetch(Class<?> type, String id) {
+        Fetch fetch = fetches.computeIfAbsent(type, t -> new HashMap<>()).computeIfAbsent(id, i -> new Fetch());
+        fetch.count++;
+
+        return fetch.generation;
+    }
+
+    private synchronized void end_fetch(Class<?> type, String id) {
+        Map<String, Fetch> fetching = fetches.get(type);
+        Fetch fetch = fetching.get(id);
+
+        if (--fetch.count == 0) {
+            fetching.remove(id);
+
+            if (fetching.isEmpty()) {
+                fetches.remove(type);
+            }
+        }
+    }
+
+    // Store a retrieved object unless it was invalidated since the retrieval started
+    private synchronized void store(Class<?> type, Key key, PassEntity obj, long generation) {
+        if (obj == null || get_max_size(type) <= 0 || fetches.get(type).get(key.id).generation != generation) {
+            return;
+        }
+
+        Duration ttl = time_to_live.getOrDefault(type, default_time_to_live);
+
+        get_cache(type).put(key, new Entry(obj, clock.getAsLong() + ttl.toNanos()));
+        trim(type);
+    }
+
+    @Override
+    public <T extends PassEntity> void createObject(T obj) throws IOException {
+        client.createObject(obj);
+    }
+
+    @Override
+    public <T extends PassEntity> void updateObject(T obj) throws IOException {
+        try {
+            client.updateObject(obj);
+        } finally {
+            invalidate(obj.getClass(), obj.getId());
+        }
+    }
+
+    @Override
+    public <T extends PassEntity> T getObject(Class<T> type, String id, String... include) throws IOException {
+        Key key = new Key(id, include);
+        T result = lookup(type, key);
+
+        if (result == null) {
+            long generation = start_fetch(type, id);
+
+            try {
+                result = client.getObject(type, id, include);
+                store(type, key, result, generation);
+            } finally {
+                end_fetch(type, id);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public <T extends PassEntity> T getObject(PassClientSelector<T> selector, String id) throws IOException {
+        // Objects with sparse fields are not cached
+        return client.getObject(selector, id);
+    }
+
+    @Override
+    public <T extends PassEntity> void deleteObject(Class<T> type, String id) throws IOException {
+        try {
+            client.deleteObject(type, id);
+        } finally {
+            invalidate(type, id);
+        }
+    }
+
+    @Override
+    public <T extends PassEntity> PassClientResult<T> selectObjects(PassClientSelector<T> selector)
+            throws IOException {
+        return client.selectObjects(selector);
+    }
+
+    @Override
+    public List<String> executeBatch(List<PassClientOperation> operations) throws IOException {
+        try {
+            return client.executeBatch(operations);
+        } finally {
+            operations.forEach(op -> invalidate(op.getType(), op.getId()));
+        }
+    }
+
+    @Override
+    public <T extends PassEntity> CompletableFuture<Void> createObjectAsync(T obj) {
+        return client.createObjectAsync(obj);
+    }
+
+    @Override
+    public <T extends PassEntity> CompletableFuture<Void> updateObjectAsync(T obj) {
+        return client.updateObjectAsync(obj).whenComplete((r, e) -> invalidate(obj.getClass(), obj.getId()));
+    }
+
+    @Override
+    public <T extends PassEntity> CompletableFuture<T> getObjectAsync(Class<T> type, String id,
+            String... include) {
+        Key key = new Key(id, include);
+        T result = lookup(type, key);
+
+        if (result != null) {
+            return CompletableFuture.completedFuture(result);
+        }
+
+        long generation = start_fetch(type, id);
+        CompletableFuture<T> fetch;
+
+        try {
+            fetch = client.getObjectAsync(type, id, include);
+        } catch (RuntimeException e) {
+            end_fetch(type, id);
+            throw e;
+        }
+
+        return fetch.whenComplete((o, e) -> {
+            if (e == null) {
+                store(type, key, o, generation);
+            }
+
+            end_fetch(type, id);
+        });
+    }
+
+    @Override
+    public <T extends PassEntity> CompletableFuture<Void> deleteObjectAsync(Class<T> type, String id) {
+        return client.deleteObjectAsync(type, id).whenComplete((r, e) -> invalidate(type, id));
+    }
+
+    @Override
+    public <T extends PassEntity> CompletableFuture<PassClientResult<T>> selectObjectsAsync(
+            PassClientSelector<T> selector) {
+        return client.selectObjectsAsync(selector);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+
+/**
+ * Bounded store of the last known persisted state of objects, used to find what has changed
+ * when an object is updated. The state of an object is its JSON API resource object as sent in an
+ * update. The least recently used state is evicted when full, after which the next update of that
+ * object sends every field.
+ */
+class ChangeTracker {
+    private final LinkedHashMap<String, Map<String, ?>> states;
+    private final int max_size;
+
+    /**
+     * @param max_size maximum number of objects tracked
+     */
+    ChangeTracker(int max_size) {
+        this.max_size = max_size;
+        this.states = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    private static String key(PassEntity obj) {
+        return obj.getClass().getName() + "_" + obj.getId();
+    }
+
+    /**
+     * Record the persisted state of an object.
+     *
+     * @param obj object
+     * @param resource resource object of obj
+     */
+    synchronized void track(PassEntity obj, Map<String, ?> resource) {
+        if (obj.getId() == null) {
+            return;
+        }
+
+        states.put(key(obj), resource);
+
+        while (states.size() > max_size) {
+            states.remove(states.keySet().iterator().next());
+        }
+    }
+
+    /**
+     * @param obj object
+     * @return last known resource object of obj or null if not known
+     */
+    synchronized Map<String, ?> get(PassEntity obj) {
+        return obj.getId() == null ? null : states.get(key(obj));
+    }
+
+    /**
+     * @param type type of object
+     * @param id identifier of object
+     */
+    synchronized void remove(Class<?> type, String id) {
+        states.remove(type.getName() + "_" + id);
+    }
+
+    /**
+     * @return number of objects tracked
+     */
+    synchronized int size() {
+        return states.size();
+    }
+
+    /**
+     * Return a resource object with only the attributes and relationships of the current resource object
+     * which differ from the previous one.
+     *
+     * @param previous previous resource object
+     * @param current current resource object
+     * @return resource object with the changes or null if nothing changed
+     */
+    static Map<String, Object> diff(Map<String, ?> previous, Map<String, ?> current) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        boolean changed = false;
+
+        for (Map.Entry<String, ?> entry : current.entrySet()) {
+            String name = entry.getKey();
+
+            if (name.equals("attributes") || name.equals("relationships")) {
+                Map<String, Object> members = diff_members(get_members(previous, name), get_members(current, name));
+
+                if (!members.isEmpty()) {
+                    result.put(name, members);
+                    changed = true;
+                }
+            } else {
+                result.put(name, entry.getValue());
+            }
+        }
+
+        return changed ? result : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, ?> get_members(Map<String, ?> resource, String name) {
+        Object members = resource.get(name);
+        return members == null ? Map.of() : (Map<String, ?>) members;
+    }
+
+    private static Map<String, Object> diff_members(Map<String, ?> previous, Map<String, ?> current) {
+        Map<String, Object> result = new LinkedHashMap<>();
+
+        current.forEach((name, value) -> {
+            if (!previous.containsKey(name) || !Objects.equals(previous.get(name), value)) {
+                result.put(name, value);
+            }
+        });
+
+        return result;
+    }
+}
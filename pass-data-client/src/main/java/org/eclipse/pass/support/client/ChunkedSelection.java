@@ -0,0 +1,329 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+
+/**
+ * Selects objects matching a filter whose =in= expression has too many values to send in one request, or
+ * which is a disjunction too large to send in one request. The values or branches are split into chunks
+ * and a selection for each chunk is made, all in flight at once. Alternatively the chunks are streamed one
+ * after another. The matches are merged in the order of the chunks, and in the order returned within each
+ * chunk, with any object matched by more than one chunk kept once. The offset and limit of the original
+ * selector apply to the merged matches. Sorting applies within each chunk.
+ */
+final class ChunkedSelection {
+    // Keep the filter well under common URL length limits
+    private static final int MAX_VALUES = 100;
+    private static final int MAX_VALUES_LENGTH = 2000;
+
+    private ChunkedSelection() {
+    }
+
+    /**
+     * Split a selector whose filter is an =in= expression, a disjunction, or a conjunction with either,
+     * into selectors for chunks of the values or branches. The selectors start at offset 0 and have the limit
+     * of the given selector.
+     *
+     * @param <T> type of the objects
+     * @param selector selector to split
+     * @return selectors for each chunk or null if the filter does not need to be split
+     */
+    static <T extends PassEntity> List<PassClientSelector<T>> split(PassClientSelector<T> selector) {
+        List<PassClientSelector<T>> result = new ArrayList<>();
+
+        if (selector.getFilterExpression() != null) {
+            List<RSQLExpression> parts = selector.getFilterExpression().split_in(MAX_VALUES, MAX_VALUES_LENGTH);
+
+            if (parts == null) {
+                return null;
+            }
+
+            for (RSQLExpression part : parts) {
+                PassClientSelector<T> chunk = chunk_selector(selector);
+                chunk.setFilterExpression(part);
+                result.add(chunk);
+            }
+        } else if (selector.getFilter() != null) {
+            List<String> parts = RSQL.split_in(selector.getFilter(), MAX_VALUES, MAX_VALUES_LENGTH);
+
+            if (parts == null) {
+                return null;
+            }
+
+            for (String part : parts) {
+                PassClientSelector<T> chunk = chunk_selector(selector);
+                chunk.setFilter(part);
+                result.add(chunk);
+            }
+        } else {
+            return null;
+        }
+
+        return result;
+    }
+
+    private static <T extends PassEntity> PassClientSelector<T> chunk_selector(PassClientSelector<T> selector) {
+        PassClientSelector<T> result = new PassClientSelector<>(selector);
+        result.setOffset(0);
+        result.setPrefetch(0);
+        result.setKeysetOn(null);
+
+        return result;
+    }
+
+    /**
+     * Select the matches of the chunk selectors and merge them.
+     *
+     * @param <T> type of the objects
+     * @param client client used to select each chunk
+     * @param offset offset into the merged matches
+     * @param limit maximum number of merged matches to return
+     * @param chunks selectors of each chunk
+     * @return future of the merged matches from the offset with the total number of merged matches, which is
+     *         an upper bound if a chunk was not selected in full and so some duplicates may not have been seen
+     */
+    static <T extends PassEntity> CompletableFuture<PassClientResult<T>> select(PassClient client, int offset,
+            int limit, List<PassClientSelector<T>> chunks) {
+        // No chunk needs to contribute more than this many objects
+        int needed = (int) Math.min(Integer.MAX_VALUE, (long) offset + limit);
+
+        List<CompletableFuture<ChunkResult<T>>> futures = new ArrayList<>(chunks.size());
+        chunks.forEach(chunk -> futures.add(select_chunk(client, chunk, needed, new ChunkResult<>())));
+
+        CompletableFuture<PassClientResult<T>> result = CompletableFuture.allOf(futures.toArray(
+                new CompletableFuture<?>[0])).thenApply(v -> {
+                    Map<String, T> merged = new LinkedHashMap<>();
+                    long total = 0;
+                    long bytes = 0;
+                    long nanos = 0;
+
+                    boolean total_known = true;
+
+                    for (CompletableFuture<ChunkResult<T>> future : futures) {
+                        ChunkResult<T> chunk = future.join();
+                        total += chunk.total;
+                        total_known &= chunk.total >= 0;
+                        bytes = bytes < 0 || chunk.bytes < 0 ? -1 : bytes + chunk.bytes;
+
+                        // Chunks are selected concurrently
+                        nanos = nanos < 0 || chunk.nanos < 0 ? -1 : Math.max(nanos, chunk.nanos);
+
+                        for (T obj : chunk.objects) {
+                            if (merged.putIfAbsent(obj.getId(), obj) != null) {
+                                total--;
+                            }
+                        }
+                    }
+
+                    List<T> objects = new ArrayList<>(merged.values());
+                    int from = Math.min(offset, objects.size());
+                    int to = (int) Math.min(objects.size(), (long) from + limit);
+
+                    return new PassClientResult<>(new ArrayList<>(objects.subList(from, to)),
+                            total_known ? total : -1, bytes, nanos);
+                });
+
+        result.whenComplete((r, e) -> {
+            if (e != null) {
+                futures.forEach(f -> f.cancel(true));
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Select and merge the matches of the chunk selectors, waiting for the result.
+     *
+     * @param <T> type of the objects
+     * @param client client used to select each chunk
+     * @param offset offset into the merged matches
+     * @param limit maximum number of merged matches to return
+     * @param chunks selectors of each chunk
+     * @return merged matches from the offset with the total number of merged matches, which is an upper bound
+     *         if a chunk was not selected in full
+     * @throws IOException if any selection fails
+     */
+    static <T extends PassEntity> PassClientResult<T> select_wait(PassClient client, int offset, int limit,
+            List<PassClientSelector<T>> chunks) throws IOException {
+        try {
+            return select(client, offset, limit, chunks).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+
+            throw new IOException("Failed to select objects", e.getCause());
+        }
+    }
+
+    /**
+     * Stream the matches of the chunk selectors one chunk after another. Each chunk is streamed with
+     * {@link PassClient#streamObjects(PassClientSelector)} using the keyset field, prefetch count and adaptive
+     * limit of the original selector, so only the pages of the current chunk are retrieved at a time.
+     * The ids of streamed objects are kept to skip objects matched by an earlier chunk. Closing the stream
+     * closes the stream of the current chunk.
+     *
+     * @param <T> type of the objects
+     * @param client client used to stream each chunk
+     * @param selector original selector whose offset applies to the merged matches
+     * @param chunks selectors of each chunk
+     * @return stream of the merged matches from the offset
+     */
+    static <T extends PassEntity> Stream<T> stream(PassClient client, PassClientSelector<T> selector,
+            List<PassClientSelector<T>> chunks) {
+        List<PassClientSelector<T>> streamed = new ArrayList<>(chunks.size());
+
+        for (PassClientSelector<T> chunk : chunks) {
+            PassClientSelector<T> sel = new PassClientSelector<>(chunk);
+            sel.setPrefetch(selector.getPrefetch());
+            sel.setKeysetOn(selector.getKeysetOn());
+            streamed.add(sel);
+        }
+
+        ChunkedSpliterator<T> iter = new ChunkedSpliterator<>(client, selector.getOffset(), streamed);
+
+        return StreamSupport.stream(iter, false).onClose(iter::close);
+    }
+
+    private static class ChunkedSpliterator<T extends PassEntity> implements Spliterator<T> {
+        private final PassClient client;
+        private final Iterator<PassClientSelector<T>> chunks;
+        private final Set<String> seen = new HashSet<>();
+        private int skip;
+        private Stream<T> stream;
+        private Spliterator<T> current;
+        private T next;
+
+        ChunkedSpliterator(PassClient client, int offset, List<PassClientSelector<T>> chunks) {
+            this.client = client;
+            this.chunks = chunks.iterator();
+            this.skip = offset;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> consumer) {
+            while (true) {
+                if (current == null) {
+                    if (!chunks.hasNext()) {
+                        return false;
+                    }
+
+                    try {
+                        stream = client.streamObjects(chunks.next());
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+
+                    current = stream.spliterator();
+                }
+
+                if (!current.tryAdvance(obj -> next = obj)) {
+                    close();
+                    continue;
+                }
+
+                T obj = next;
+                next = null;
+
+                if (seen.add(obj.getId())) {
+                    if (skip == 0) {
+                        consumer.accept(obj);
+                        return true;
+                    }
+
+                    skip--;
+                }
+            }
+        }
+
+        void close() {
+            if (stream != null) {
+                stream.close();
+            }
+
+            stream = null;
+            current = null;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return NONNULL | ORDERED;
+        }
+    }
+
+    private static class ChunkResult<T> {
+        final List<T> objects = new ArrayList<>();
+        long total;
+        long bytes;
+        long nanos;
+    }
+
+    // Select pages of a chunk until it is exhausted or enough objects are selected
+    private static <T extends PassEntity> CompletableFuture<ChunkResult<T>> select_chunk(PassClient client,
+            PassClientSelector<T> selector, int needed, ChunkResult<T> acc) {
+        return client.selectObjectsAsync(selector).thenCompose(page -> {
+            // A selection which was not found is empty
+            if (page == null) {
+                return CompletableFuture.completedFuture(acc);
+            }
+
+            acc.objects.addAll(page.getObjects());
+            acc.total = page.getTotal();
+            acc.bytes = acc.bytes < 0 || page.getResponseBytes() < 0 ? -1 : acc.bytes + page.getResponseBytes();
+            acc.nanos = acc.nanos < 0 || page.getResponseNanos() < 0 ? -1 : acc.nanos + page.getResponseNanos();
+
+            // Without a total, a page which is not full is the last
+            boolean more = page.getTotal() < 0 ? page.getObjects().size() == selector.getLimit()
+                    : acc.objects.size() < page.getTotal();
+
+            if (page.getObjects().isEmpty() || !more || acc.objects.size() >= needed) {
+                return CompletableFuture.completedFuture(acc);
+            }
+
+            PassClientSelector<T> next = new PassClientSelector<>(selector);
+            next.setOffset(selector.getOffset() + page.getObjects().size());
+
+            return select_chunk(client, next, needed, acc);
+        });
+    }
+}
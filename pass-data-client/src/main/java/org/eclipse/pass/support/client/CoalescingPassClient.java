@@ -0,0 +1,282 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+
+/**
+ * PassClient which merges concurrent identical reads into a single call to another PassClient.
+ * A retrieval or selection which matches one already in flight waits for that call and shares its result
+ * instead of making its own call. Requests match when they have the same type, id or selector, and included
+ * relationships. Callers therefore may be given the same object instances and should not modify them unless
+ * they are not shared. Writes are always passed to the delegate.
+ * <p>
+ * This can be combined with {@link CachingPassClient} by wrapping this client.
+ * </p>
+ */
+public class CoalescingPassClient implements PassClient {
+    private final PassClient client;
+    private final Map<List<String>, CompletableFuture<?>> in_flight = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * @param client PassClient to delegate to
+     */
+    public CoalescingPassClient(PassClient client) {
+        this.client = client;
+    }
+
+    // Perform a read which may throw an IOException
+    @FunctionalInterface
+    private interface Read<R> {
+        R read() throws IOException;
+    }
+
+    /**
+     * @return number of reads requested
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * @return number of reads which shared a call already in flight
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * Publish the number of reads and the coalescing ratio of this client as gauges.
+     *
+     * @param metrics where to publish the gauges
+     */
+    public void setMetrics(PassClientMetrics metrics) {
+        metrics.registerCoalescing(this);
+    }
+
+    /**
+     * @return fraction of reads which shared a call already in flight or 0 if there have been no reads
+     */
+    public double getCoalescingRatio() {
+        long total = requests.get();
+        return total == 0 ? 0 : (double) coalesced.get() / total;
+    }
+
+    private static String join(String... values) {
+        if (values == null || values.length == 0) {
+            return "";
+        }
+
+        String[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        return String.join(",", sorted);
+    }
+
+    private static List<String> get_key(Class<?> type, String id, String... include) {
+        return List.of("get", type.getName(), String.valueOf(id), join(include));
+    }
+
+    private static List<String> get_key(PassClientSelector<?> selector, String id) {
+        List<String> key = new ArrayList<>(get_key(selector.getType(), id, selector.getInclude()));
+        key.add(get_fields(selector));
+
+        return key;
+    }
+
+    private static List<String> select_key(PassClientSelector<?> selector) {
+        return List.of("select", selector.getType().getName(), "" + selector.getOffset(), "" + selector.getLimit(),
+                String.valueOf(selector.getFilter()), String.valueOf(selector.getSorting()),
+                join(selector.getInclude()), get_fields(selector));
+    }
+
+    private static String get_fields(PassClientSelector<?> selector) {
+        StringBuilder result = new StringBuilder();
+
+        selector.getFields().forEach((type, names) -> {
+            result.append(type.getName()).append('=').append(join(names)).append(';');
+        });
+
+        return result.toString();
+    }
+
+    // Make the read unless an identical one is in flight, in which case wait for its result
+    @SuppressWarnings("unchecked")
+    private <R> R coalesce(List<String> key, Read<R> read) throws IOException {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        CompletableFuture<R> existing = (CompletableFuture<R>) in_flight.putIfAbsent(key, future);
+
+        requests.incrementAndGet();
+
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return await(existing);
+        }
+
+        try {
+            R result = read.read();
+            future.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // Waiters must be released whatever the read throws
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            in_flight.remove(key, future);
+        }
+    }
+
+    // Wait for a read made by another caller
+    private static <R> R await(CompletableFuture<R> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for read", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // Start the read unless an identical one is in flight and return a future of the result
+    @SuppressWarnings("unchecked")
+    private <R> CompletableFuture<R> coalesce_async(List<String> key, Supplier<CompletableFuture<R>> read) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        CompletableFuture<R> existing = (CompletableFuture<R>) in_flight.putIfAbsent(key, future);
+
+        requests.incrementAndGet();
+
+        if (existing != null) {
+            coalesced.incrementAndGet();
+        } else {
+            CompletableFuture<R> started;
+
+            try {
+                started = read.get();
+            } catch (Throwable e) {
+                // Later identical reads must not wait for a read which never started
+                in_flight.remove(key, future);
+                future.completeExceptionally(e);
+                return future.thenApply(Function.identity());
+            }
+
+            started.whenComplete((result, error) -> {
+                in_flight.remove(key, future);
+
+                if (error == null) {
+                    future.complete(result);
+                } else {
+                    future.completeExceptionally(error);
+                }
+            });
+
+            existing = future;
+        }
+
+        // Cancelling the returned future must not affect other callers
+        return existing.thenApply(Function.identity());
+    }
+
+    @Override
+    public <T extends PassEntity> void createObject(T obj) throws IOException {
+        client.createObject(obj);
+    }
+
+    @Override
+    public <T extends PassEntity> void updateObject(T obj) throws IOException {
+        client.updateObject(obj);
+    }
+
+    @Override
+    public <T extends PassEntity> T getObject(Class<T> type, String id, String... include) throws IOException {
+        return coalesce(get_key(type, id, include), () -> client.getObject(type, id, include));
+    }
+
+    @Override
+    public <T extends PassEntity> T getObject(PassClientSelector<T> selector, String id) throws IOException {
+        return coalesce(get_key(selector, id), () -> client.getObject(selector, id));
+    }
+
+    @Override
+    public <T extends PassEntity> void deleteObject(Class<T> type, String id) throws IOException {
+        client.deleteObject(type, id);
+    }
+
+    @Override
+    public <T extends PassEntity> PassClientResult<T> selectObjects(PassClientSelector<T> selector)
+            throws IOException {
+        // Copy the selector so that changes made by the caller after the call starts do not affect it
+        PassClientSelector<T> copy = new PassClientSelector<>(selector);
+
+        return coalesce(select_key(copy), () -> client.selectObjects(copy));
+    }
+
+    @Override
+    public List<String> executeBatch(List<PassClientOperation> operations) throws IOException {
+        return client.executeBatch(operations);
+    }
+
+    @Override
+    public <T extends PassEntity> CompletableFuture<Void> createObjectAsync(T obj) {
+        return client.createObjectAsync(obj);
+    }
+
+    @Override
+    public <T extends PassEntity> CompletableFuture<Void> updateObjectAsync(T obj) {
+        return client.updateObjectAsync(obj);
+    }
+
+    @Override
+    public <T extends PassEntity> CompletableFuture<T> getObjectAsync(Class<T> type, String id,
+            String... include) {
+        return coalesce_async(get_key(type, id, include), () -> client.getObjectAsync(type, id, include));
+    }
+
+    @Override
+    public <T extends PassEntity> CompletableFuture<Void> deleteObjectAsync(Class<T> type, String id) {
+        return client.deleteObjectAsync(type, id);
+    }
+
+    @Override
+    public <T extends PassEntity> CompletableFuture<PassClientResult<T>> selectObjectsAsync(
+            PassClientSelector<T> selector) {
+        PassClientSelector<T> copy = new PassClientSelector<>(selector);
+
+        return coalesce_async(select_key(copy), () -> client.selectObjectsAsync(copy));
+    }
+}
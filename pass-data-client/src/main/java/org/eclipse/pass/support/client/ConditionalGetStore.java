@@ -0,0 +1,181 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+
+/**
+ * Bounded store of objects retrieved by URL along with the validators needed to revalidate them.
+ * When a conditional request for a URL returns 304 Not Modified, the stored object is used instead of
+ * downloading and decoding the response again. The least recently used entry is evicted when full.
+ * Callers are given copies made by the copy constructor so changes to them do not affect the store.
+ * Targets of relationships are shared between copies.
+ */
+class ConditionalGetStore {
+    private final LinkedHashMap<String, Entry> entries;
+    private final AtomicLong not_modified = new AtomicLong();
+    private final AtomicLong bytes_saved = new AtomicLong();
+    private volatile int max_size;
+
+    /**
+     * A stored object and its validators.
+     */
+    static final class Entry {
+        private final String etag;
+        private final String last_modified;
+        private final PassEntity object;
+        private final long size;
+
+        Entry(String etag, String last_modified, PassEntity object, long size) {
+            this.etag = etag;
+            this.last_modified = last_modified;
+            this.object = object;
+            this.size = size;
+        }
+
+        /**
+         * @return value for If-None-Match or null
+         */
+        String getETag() {
+            return etag;
+        }
+
+        /**
+         * @return value for If-Modified-Since or null
+         */
+        String getLastModified() {
+            return last_modified;
+        }
+    }
+
+    /**
+     * @param max_size maximum number of entries
+     */
+    ConditionalGetStore(int max_size) {
+        this.max_size = max_size;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * @param max_size maximum number of entries, zero disables the store
+     */
+    synchronized void setMaxSize(int max_size) {
+        this.max_size = max_size;
+        trim();
+    }
+
+    /**
+     * @return whether objects may be stored
+     */
+    boolean isEnabled() {
+        return max_size > 0;
+    }
+
+    private void trim() {
+        while (entries.size() > max_size) {
+            entries.remove(entries.keySet().iterator().next());
+        }
+    }
+
+    /**
+     * @param url URL of the object
+     * @return entry or null if there is none
+     */
+    synchronized Entry get(String url) {
+        return entries.get(url);
+    }
+
+    /**
+     * Store an object unless it has no validators.
+     *
+     * @param url URL of the object
+     * @param etag ETag of the response or null
+     * @param last_modified Last-Modified of the response or null
+     * @param object decoded object
+     * @param size number of bytes in the response body
+     */
+    synchronized void put(String url, String etag, String last_modified, PassEntity object, long size) {
+        if (!isEnabled() || object == null || (etag == null && last_modified == null)) {
+            entries.remove(url);
+            return;
+        }
+
+        entries.put(url, new Entry(etag, last_modified, copy(object), size));
+        trim();
+    }
+
+    /**
+     * @param url URL of the object
+     */
+    synchronized void remove(String url) {
+        entries.remove(url);
+    }
+
+    /**
+     * Remove the entries of an object retrieved with or without query parameters.
+     *
+     * @param url URL of the object without query parameters
+     */
+    synchronized void removeObject(String url) {
+        String prefix = url + "?";
+
+        entries.keySet().removeIf(key -> key.equals(url) || key.startsWith(prefix));
+    }
+
+    /**
+     * Record that an entry was not modified and return a copy of its object.
+     *
+     * @param <T> type of the object
+     * @param type type of the object
+     * @param entry entry which was revalidated
+     * @return copy of the stored object
+     */
+    <T extends PassEntity> T revalidated(Class<T> type, Entry entry) {
+        not_modified.incrementAndGet();
+        bytes_saved.addAndGet(entry.size);
+
+        return type.cast(copy(entry.object));
+    }
+
+    /**
+     * @return number of stored objects
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return number of responses which were not modified and so were not downloaded and decoded
+     */
+    long getNotModifiedCount() {
+        return not_modified.get();
+    }
+
+    /**
+     * @return number of response body bytes which were not downloaded
+     */
+    long getBytesSaved() {
+        return bytes_saved.get();
+    }
+
+    private static PassEntity copy(PassEntity obj) {
+        return EntityMetadata.of(obj.getClass()).copy(obj);
+    }
+}
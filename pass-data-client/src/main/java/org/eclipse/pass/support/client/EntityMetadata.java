@@ -0,0 +1,329 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jsonapi.Id;
+import jsonapi.Resource;
+import jsonapi.ToMany;
+import jsonapi.ToOne;
+import org.eclipse.pass.support.client.model.Contributor;
+import org.eclipse.pass.support.client.model.Deposit;
+import org.eclipse.pass.support.client.model.File;
+import org.eclipse.pass.support.client.model.Funder;
+import org.eclipse.pass.support.client.model.Grant;
+import org.eclipse.pass.support.client.model.Journal;
+import org.eclipse.pass.support.client.model.PassEntity;
+import org.eclipse.pass.support.client.model.Policy;
+import org.eclipse.pass.support.client.model.Publication;
+import org.eclipse.pass.support.client.model.Publisher;
+import org.eclipse.pass.support.client.model.Repository;
+import org.eclipse.pass.support.client.model.RepositoryCopy;
+import org.eclipse.pass.support.client.model.Submission;
+import org.eclipse.pass.support.client.model.SubmissionEvent;
+import org.eclipse.pass.support.client.model.User;
+
+/**
+ * Metadata about a type in the PASS model. The metadata for every type is computed once
+ * and provides method handles to construct objects and access their attributes and
+ * relationships without reflective lookups.
+ */
+final class EntityMetadata {
+    private static final List<Class<? extends PassEntity>> TYPES = List.of(Contributor.class, Deposit.class,
+            File.class, Funder.class, Grant.class, Journal.class, Policy.class, Publication.class, Publisher.class,
+            Repository.class, RepositoryCopy.class, Submission.class, SubmissionEvent.class, User.class);
+
+    private static final Map<Class<?>, EntityMetadata> BY_CLASS = new HashMap<>();
+    private static final Map<String, EntityMetadata> BY_JSON_TYPE = new HashMap<>();
+
+    static {
+        TYPES.forEach(type -> {
+            EntityMetadata md = new EntityMetadata(type);
+
+            BY_CLASS.put(type, md);
+            BY_JSON_TYPE.put(md.json_type, md);
+        });
+    }
+
+    /**
+     * An attribute or relationship of a type.
+     */
+    static final class Property {
+        private final String name;
+        private final Class<?> value_type;
+        private final Class<? extends PassEntity> target_type;
+        private final boolean to_many;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private Property(String name, Class<?> value_type, Class<? extends PassEntity> target_type,
+                boolean to_many, MethodHandle getter, MethodHandle setter) {
+            this.name = name;
+            this.value_type = value_type;
+            this.target_type = target_type;
+            this.to_many = to_many;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        /**
+         * @return name of the attribute or relationship in a JSON API document
+         */
+        String getName() {
+            return name;
+        }
+
+        /**
+         * @return declared type of the value
+         */
+        Class<?> getValueType() {
+            return value_type;
+        }
+
+        /**
+         * @return whether this property is a relationship
+         */
+        boolean isRelationship() {
+            return target_type != null;
+        }
+
+        /**
+         * @return type of relationship targets or null if the property is an attribute
+         */
+        Class<? extends PassEntity> getTargetType() {
+            return target_type;
+        }
+
+        /**
+         * @return whether this property is a to many relationship
+         */
+        boolean isToMany() {
+            return to_many;
+        }
+
+        /**
+         * @param obj object
+         * @return value of the property of the object
+         */
+        Object get(PassEntity obj) {
+            try {
+                return (Object) getter.invokeExact(obj);
+            } catch (Throwable e) {
+                throw new RuntimeException("Failed to get: " + name, e);
+            }
+        }
+
+        /**
+         * @param obj object
+         * @param value value to set on the object
+         */
+        void set(PassEntity obj, Object value) {
+            try {
+                setter.invokeExact(obj, value);
+            } catch (Throwable e) {
+                throw new RuntimeException("Failed to set: " + name, e);
+            }
+        }
+    }
+
+    private final Class<? extends PassEntity> type;
+    private final String json_type;
+    private final MethodHandle id_constructor;
+    private final MethodHandle copy_constructor;
+    private final Map<String, Property> attributes;
+    private final Map<String, Property> relationships;
+    private final List<Property> to_one_relationships;
+
+    private EntityMetadata(Class<? extends PassEntity> type) {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+        this.type = type;
+        this.attributes = new LinkedHashMap<>();
+        this.relationships = new LinkedHashMap<>();
+        this.to_one_relationships = new ArrayList<>();
+
+        Resource resource = type.getAnnotation(Resource.class);
+        this.json_type = resource == null ? Character.toLowerCase(type.getSimpleName().charAt(0))
+                + type.getSimpleName().substring(1) : resource.type();
+
+        try {
+            this.id_constructor = lookup.findConstructor(type, MethodType.methodType(void.class, String.class))
+                    .asType(MethodType.methodType(PassEntity.class, String.class));
+            this.copy_constructor = lookup.findConstructor(type, MethodType.methodType(void.class, type))
+                    .asType(MethodType.methodType(PassEntity.class, PassEntity.class));
+
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isAnnotationPresent(Id.class)) {
+                    continue;
+                }
+
+                String cap = Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+                MethodHandle getter = lookup.findVirtual(type, "get" + cap, MethodType.methodType(field.getType()))
+                        .asType(MethodType.methodType(Object.class, PassEntity.class));
+                MethodHandle setter = lookup.findVirtual(type, "set" + cap,
+                        MethodType.methodType(void.class, field.getType()))
+                        .asType(MethodType.methodType(void.class, PassEntity.class, Object.class));
+
+                ToOne to_one = field.getAnnotation(ToOne.class);
+                ToMany to_many = field.getAnnotation(ToMany.class);
+
+                if (to_one != null) {
+                    Property prop = new Property(to_one.name(), field.getType(),
+                            field.getType().asSubclass(PassEntity.class), false, getter, setter);
+
+                    relationships.put(prop.name, prop);
+                    to_one_relationships.add(prop);
+                } else if (to_many != null) {
+                    Class<?> target = (Class<?>) ((ParameterizedType) field.getGenericType())
+                            .getActualTypeArguments()[0];
+
+                    relationships.put(to_many.name(), new Property(to_many.name(), field.getType(),
+                            target.asSubclass(PassEntity.class), true, getter, setter));
+                } else {
+                    attributes.put(field.getName(), new Property(field.getName(), field.getType(), null, false,
+                            getter, setter));
+                }
+            }
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Failed to gather metadata for: " + type, e);
+        }
+    }
+
+    /**
+     * @return all types in the PASS model
+     */
+    static List<Class<? extends PassEntity>> types() {
+        return TYPES;
+    }
+
+    /**
+     * @return all types in the PASS model as an array
+     */
+    static Class<?>[] typeArray() {
+        return TYPES.toArray(new Class<?>[0]);
+    }
+
+    /**
+     * @param type class of a type in the PASS model
+     * @return metadata for the type
+     * @throws IllegalArgumentException if the type is not part of the model
+     */
+    static EntityMetadata of(Class<?> type) {
+        EntityMetadata md = BY_CLASS.get(type);
+
+        if (md == null) {
+            throw new IllegalArgumentException("Unknown type: " + type);
+        }
+
+        return md;
+    }
+
+    /**
+     * @param json_type type of a resource in a JSON API document
+     * @return metadata for the type
+     * @throws IllegalArgumentException if the type is not part of the model
+     */
+    static EntityMetadata of(String json_type) {
+        EntityMetadata md = BY_JSON_TYPE.get(json_type);
+
+        if (md == null) {
+            throw new IllegalArgumentException("Unknown type: " + json_type);
+        }
+
+        return md;
+    }
+
+    /**
+     * @return class of the type
+     */
+    Class<? extends PassEntity> getType() {
+        return type;
+    }
+
+    /**
+     * @return type of the resource in a JSON API document
+     */
+    String getJsonType() {
+        return json_type;
+    }
+
+    /**
+     * @param id identifier
+     * @return new object with only the identifier set
+     */
+    PassEntity newInstance(String id) {
+        try {
+            return (PassEntity) id_constructor.invokeExact(id);
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to create: " + type.getName(), e);
+        }
+    }
+
+    /**
+     * @param obj object to copy
+     * @return copy made by the copy constructor of the type
+     */
+    PassEntity copy(PassEntity obj) {
+        try {
+            return (PassEntity) copy_constructor.invokeExact(obj);
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to copy: " + type.getName(), e);
+        }
+    }
+
+    /**
+     * @return attributes by name
+     */
+    Map<String, Property> getAttributes() {
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    /**
+     * @return relationships by name
+     */
+    Map<String, Property> getRelationships() {
+        return Collections.unmodifiableMap(relationships);
+    }
+
+    /**
+     * @return to one relationships
+     */
+    Collection<Property> getToOneRelationships() {
+        return Collections.unmodifiableList(to_one_relationships);
+    }
+
+    /**
+     * @param name name of an attribute or relationship
+     * @return property or null if there is no such attribute or relationship
+     */
+    Property getProperty(String name) {
+        Property prop = attributes.get(name);
+        return prop == null ? relationships.get(name) : prop;
+    }
+}
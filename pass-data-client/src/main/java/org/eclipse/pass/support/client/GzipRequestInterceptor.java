@@ -0,0 +1,82 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+/**
+ * Compress the bodies of POST and PATCH requests of at least a threshold size with gzip.
+ * The compressed body is buffered so its length is known. The original body is sent when
+ * compression does not make it smaller.
+ */
+class GzipRequestInterceptor implements Interceptor {
+    private final long threshold;
+
+    /**
+     * @param threshold minimum size in bytes of a compressed body
+     */
+    GzipRequestInterceptor(long threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        return chain.proceed(compress(chain.request()));
+    }
+
+    /**
+     * @param request request to compress
+     * @return request with a compressed body or the given request if it should not be compressed
+     * @throws IOException if the body cannot be written
+     */
+    Request compress(Request request) throws IOException {
+        RequestBody body = request.body();
+
+        if (body == null || request.header("Content-Encoding") != null
+                || !(request.method().equals("POST") || request.method().equals("PATCH"))) {
+            return request;
+        }
+
+        long length = body.contentLength();
+
+        if (length < threshold) {
+            return request;
+        }
+
+        Buffer compressed = new Buffer();
+
+        try (BufferedSink sink = Okio.buffer(new GzipSink(compressed))) {
+            body.writeTo(sink);
+        }
+
+        if (length != -1 && compressed.size() >= length) {
+            return request;
+        }
+
+        RequestBody gzip_body = RequestBody.create(compressed.readByteString(), body.contentType());
+
+        return request.newBuilder().header("Content-Encoding", "gzip").method(request.method(), gzip_body).build();
+    }
+}
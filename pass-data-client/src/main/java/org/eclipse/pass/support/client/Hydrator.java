@@ -0,0 +1,293 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+
+/**
+ * Replaces relationship targets of objects with the persisted objects. The objects may be of different types,
+ * in which case relationships are only followed on objects which have them. Targets are retrieved with
+ * id=in= selections, one set of selections per type and relationship path level, all in flight at once.
+ * An identity map ensures each persisted object is represented by a single instance.
+ */
+class Hydrator {
+    // Keep the filter well under common URL length limits and the page limit within the server maximum
+    private static final int MAX_IDS = 100;
+    private static final int MAX_IDS_LENGTH = 2000;
+
+    private final PassClient client;
+    private final Map<String, PassEntity> identities = new HashMap<>();
+
+    /**
+     * @param client client used to retrieve targets
+     */
+    Hydrator(PassClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Start selecting the objects with the given ids in chunks.
+     *
+     * @param <T> type of the objects
+     * @param client client used to select objects
+     * @param type type of the objects
+     * @param ids distinct identifiers of the objects
+     * @param include relationships whose targets will be included
+     * @return future of each chunk
+     */
+    static <T extends PassEntity> List<CompletableFuture<PassClientResult<T>>> select_ids(PassClient client,
+            Class<T> type, Collection<String> ids, String... include) {
+        List<CompletableFuture<PassClientResult<T>>> result = new ArrayList<>();
+
+        for (List<String> chunk : RSQL.chunk_values(ids, MAX_IDS, MAX_IDS_LENGTH)) {
+            PassClientSelector<T> selector = new PassClientSelector<>(type, 0, chunk.size(),
+                    RSQL.in("id", chunk.toArray(String[]::new)), null, include);
+
+            result.add(client.selectObjectsAsync(selector));
+        }
+
+        return result;
+    }
+
+    /**
+     * Wait for all the futures. If any fail, the rest are cancelled.
+     *
+     * @param <R> type of result
+     * @param futures futures to wait for
+     * @return results in order
+     * @throws IOException if any future failed
+     */
+    static <R> List<R> join(List<CompletableFuture<R>> futures) throws IOException {
+        List<R> result = new ArrayList<>(futures.size());
+
+        try {
+            for (CompletableFuture<R> future : futures) {
+                result.add(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(f -> f.cancel(true));
+
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+
+            throw new IOException("Failed to select objects", e.getCause());
+        }
+
+        return result;
+    }
+
+    private static String key(Class<?> type, String id) {
+        return type.getName() + "_" + id;
+    }
+
+    // Return the single instance representing an object, recording it if it is the first
+    private PassEntity identify(PassEntity obj) {
+        PassEntity existing = identities.putIfAbsent(key(obj.getClass(), obj.getId()), obj);
+        return existing == null ? obj : existing;
+    }
+
+    // Parse relationship paths into a tree of relationship names
+    private static Map<String, Object> parse(String... paths) {
+        Map<String, Object> root = new LinkedHashMap<>();
+
+        for (String path : paths) {
+            Map<String, Object> node = root;
+
+            for (String name : path.split("\\.")) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> child = (Map<String, Object>) node.computeIfAbsent(name,
+                        n -> new LinkedHashMap<String, Object>());
+                node = child;
+            }
+        }
+
+        return root;
+    }
+
+    /**
+     * Replace the targets of the relationships on the paths with persisted objects.
+     *
+     * @param entities objects whose relationships are hydrated
+     * @param paths dot separated relationship paths
+     * @throws IOException if retrieving targets fails
+     */
+    void hydrate(Collection<? extends PassEntity> entities, String... paths) throws IOException {
+        List<PassEntity> level = new ArrayList<>();
+
+        for (PassEntity obj : entities) {
+            if (obj != null && obj.getId() != null) {
+                identify(obj);
+            }
+
+            level.add(obj);
+        }
+
+        hydrate(level, parse(paths));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void hydrate(List<PassEntity> entities, Map<String, Object> tree) throws IOException {
+        if (tree.isEmpty() || entities.isEmpty()) {
+            return;
+        }
+
+        // Gather the ids of unresolved targets by type
+        Map<Class<? extends PassEntity>, Set<String>> ids = new LinkedHashMap<>();
+
+        for (String name : tree.keySet()) {
+            check_relationship(entities, name);
+
+            for (PassEntity obj : entities) {
+                for (PassEntity target : get_targets(obj, name)) {
+                    if (!identities.containsKey(key(target.getClass(), target.getId()))) {
+                        ids.computeIfAbsent(target.getClass(), t -> new LinkedHashSet<>()).add(target.getId());
+                    }
+                }
+            }
+        }
+
+        // Start all selections before waiting for any
+        List<CompletableFuture<PassClientResult<PassEntity>>> futures = new ArrayList<>();
+
+        ids.forEach((type, type_ids) -> {
+            futures.addAll(select_ids(client, (Class<PassEntity>) type, type_ids));
+        });
+
+        for (PassClientResult<PassEntity> result : join(futures)) {
+            if (result != null) {
+                result.getObjects().forEach(this::identify);
+            }
+        }
+
+        // Replace targets and hydrate the next level of each path
+        for (Map.Entry<String, Object> entry : tree.entrySet()) {
+            List<PassEntity> next = new ArrayList<>();
+
+            for (PassEntity obj : entities) {
+                next.addAll(replace_targets(obj, entry.getKey()));
+            }
+
+            hydrate(next, (Map<String, Object>) entry.getValue());
+        }
+    }
+
+    // Return the relationship or null if the object does not have it
+    private static EntityMetadata.Property get_relationship(PassEntity obj, String name) {
+        return EntityMetadata.of(obj.getClass()).getRelationships().get(name);
+    }
+
+    // Objects of different types may be hydrated together, but each relationship must belong to one of them
+    private static void check_relationship(List<PassEntity> entities, String name) {
+        for (PassEntity obj : entities) {
+            if (obj == null || get_relationship(obj, name) != null) {
+                return;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown relationship: " + name);
+    }
+
+    // Return the targets of a relationship which have ids
+    @SuppressWarnings("unchecked")
+    private static List<PassEntity> get_targets(PassEntity obj, String name) {
+        List<PassEntity> result = new ArrayList<>();
+        EntityMetadata.Property prop = obj == null ? null : get_relationship(obj, name);
+
+        if (prop == null) {
+            return result;
+        }
+
+        Object value = prop.get(obj);
+
+        if (prop.isToMany()) {
+            if (value != null) {
+                result.addAll((List<PassEntity>) value);
+            }
+        } else if (value != null) {
+            result.add((PassEntity) value);
+        }
+
+        result.removeIf(target -> target == null || target.getId() == null);
+
+        return result;
+    }
+
+    // Replace targets of a relationship with their identities and return the new targets.
+    // Targets which were not found are kept. Targets of a to-many relationship are replaced in its list,
+    // which keeps the order and any null or unidentified entries.
+    @SuppressWarnings("unchecked")
+    private List<PassEntity> replace_targets(PassEntity obj, String name) {
+        EntityMetadata.Property prop = obj == null ? null : get_relationship(obj, name);
+
+        if (prop == null) {
+            return List.of();
+        }
+
+        List<PassEntity> result = new ArrayList<>();
+        Object value = prop.get(obj);
+
+        if (prop.isToMany()) {
+            if (value != null) {
+                List<PassEntity> targets = (List<PassEntity>) value;
+                List<PassEntity> replaced = new ArrayList<>(targets);
+                boolean changed = false;
+
+                for (int i = 0; i < replaced.size(); i++) {
+                    PassEntity target = replaced.get(i);
+
+                    if (target != null && target.getId() != null) {
+                        PassEntity identity = identify(target);
+
+                        changed |= identity != target;
+                        replaced.set(i, identity);
+                        result.add(identity);
+                    }
+                }
+
+                if (changed) {
+                    try {
+                        for (int i = 0; i < replaced.size(); i++) {
+                            targets.set(i, replaced.get(i));
+                        }
+                    } catch (UnsupportedOperationException e) {
+                        // The list cannot be modified so it is replaced by a copy
+                        prop.set(obj, replaced);
+                    }
+                }
+            }
+        } else if (value != null && ((PassEntity) value).getId() != null) {
+            PassEntity identity = identify((PassEntity) value);
+
+            prop.set(obj, identity);
+            result.add(identity);
+        }
+
+        return result;
+    }
+}
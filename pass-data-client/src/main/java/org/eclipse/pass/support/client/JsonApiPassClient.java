@@ -1,9 +1,8 @@
 package org.eclipse.pass.support.client;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -11,6 +10,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import com.squareup.moshi.JsonAdapter;
 import com.squareup.moshi.JsonAdapter.Factory;
@@ -22,13 +23,23 @@ import com.squareup.moshi.Types;
 import jsonapi.Document;
 import jsonapi.Document.IncludedSerialization;
 import jsonapi.JsonApiFactory;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
 import org.eclipse.pass.support.client.adapter.AggregatedDepositStatusAdapter;
 import org.eclipse.pass.support.client.adapter.AwardStatusAdapter;
 import org.eclipse.pass.support.client.adapter.ContributorRoleAdapter;
@@ -43,33 +54,37 @@ import org.eclipse.pass.support.client.adapter.SubmissionStatusAdapter;
 import org.eclipse.pass.support.client.adapter.UriAdapter;
 import org.eclipse.pass.support.client.adapter.UserRoleAdapter;
 import org.eclipse.pass.support.client.adapter.ZonedDateTimeAdapter;
-import org.eclipse.pass.support.client.model.Contributor;
-import org.eclipse.pass.support.client.model.Deposit;
-import org.eclipse.pass.support.client.model.File;
-import org.eclipse.pass.support.client.model.Funder;
-import org.eclipse.pass.support.client.model.Grant;
-import org.eclipse.pass.support.client.model.Journal;
 import org.eclipse.pass.support.client.model.PassEntity;
-import org.eclipse.pass.support.client.model.Policy;
-import org.eclipse.pass.support.client.model.Publication;
-import org.eclipse.pass.support.client.model.Publisher;
-import org.eclipse.pass.support.client.model.Repository;
-import org.eclipse.pass.support.client.model.RepositoryCopy;
-import org.eclipse.pass.support.client.model.Submission;
-import org.eclipse.pass.support.client.model.SubmissionEvent;
-import org.eclipse.pass.support.client.model.User;
 
 /**
  * PassClient implementation using https://github.com/MarkoMilos/jsonapi.
+ * By default the number of requests in flight is limited by the JVM wide {@link AdaptiveConcurrencyLimiter#shared()}.
  */
 public class JsonApiPassClient implements PassClient {
     private final static String JSON_API_CONTENT_TYPE = "application/vnd.api+json";
     private final static MediaType JSON_API_MEDIA_TYPE = MediaType.parse("application/vnd.api+json; charset=utf-8");
+    private final static String JSON_API_ATOMIC_CONTENT_TYPE =
+            "application/vnd.api+json; ext=\"https://jsonapi.org/ext/atomic\"";
+    private final static MediaType JSON_API_ATOMIC_MEDIA_TYPE = MediaType.parse(JSON_API_ATOMIC_CONTENT_TYPE);
+
+    // Maximum number of operations sent in one atomic operations request
+    private final static int MAX_ATOMIC_OPERATIONS = 100;
+
+    // Default maximum number of objects kept for revalidation
+    private final static int DEFAULT_REVALIDATION_STORE_SIZE = 1000;
+
+    // Maximum number of objects whose persisted state is tracked
+    private final static int MAX_TRACKED_OBJECTS = 10000;
 
     private final Moshi moshi;
     private final Moshi update_moshi;
     private final String baseUrl;
     private final OkHttpClient client;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ConditionalGetStore get_store = new ConditionalGetStore(DEFAULT_REVALIDATION_STORE_SIZE);
+    private volatile boolean atomic_supported = true;
+    private volatile ChangeTracker change_tracker = null;
+    private volatile PassClientMetrics metrics = null;
 
     /**
      * Create a JsonApiClient.
@@ -88,25 +103,101 @@ public class JsonApiPassClient implements PassClient {
      * @param pass    password of user
      */
     public JsonApiPassClient(String baseUrl, String user, String pass) {
-        this.baseUrl = (baseUrl.endsWith("/") ? baseUrl : baseUrl + "/") + "data/";
+        this(baseUrl, user, pass, null);
+    }
+
+    /**
+     * Create a JsonApiClient which uses HTTP basic auth and the given dispatcher
+     * to execute asynchronous requests. The dispatcher controls how many requests
+     * may be in flight at once, in total and per host. A dispatcher given here replaces
+     * the concurrency limiter, which is only used when the dispatcher is null.
+     *
+     * @param baseUrl    base url of PASS API
+     * @param user       user to connect as
+     * @param pass       password of user
+     * @param dispatcher dispatcher for asynchronous calls or null for the default
+     */
+    public JsonApiPassClient(String baseUrl, String user, String pass, Dispatcher dispatcher) {
+        this(PassClientConfig.builder(baseUrl).credentials(user, pass)
+                .concurrencyLimiter(dispatcher == null ? AdaptiveConcurrencyLimiter.shared() : null).build(),
+                dispatcher);
+    }
+
+    /**
+     * Create a JsonApiClient whose HTTP transport is tuned by the given configuration.
+     *
+     * @param config configuration of the client
+     */
+    public JsonApiPassClient(PassClientConfig config) {
+        this(config, null);
+    }
+
+    private JsonApiPassClient(PassClientConfig config, Dispatcher dispatcher) {
+        String url = config.getUrl();
+        this.baseUrl = (url.endsWith("/") ? url : url + "/") + "data/";
 
         OkHttpClient.Builder client_builder = new OkHttpClient.Builder();
 
-        if (user != null && pass != null) {
-            client_builder.addInterceptor(new OkHttpBasicAuthInterceptor(user, pass));
+        if (config.getUser() != null && config.getPassword() != null) {
+            client_builder.addInterceptor(new OkHttpBasicAuthInterceptor(config.getUser(), config.getPassword()));
+        }
+
+        if (dispatcher == null) {
+            dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(config.getMaxRequests());
+            dispatcher.setMaxRequestsPerHost(config.getMaxRequestsPerHost());
         }
 
+        client_builder.dispatcher(dispatcher);
+        client_builder.connectionPool(new ConnectionPool(config.getMaxIdleConnections(),
+                config.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS));
+        client_builder.connectTimeout(config.getConnectTimeout());
+        client_builder.readTimeout(config.getReadTimeout());
+        client_builder.writeTimeout(config.getWriteTimeout());
+        client_builder.callTimeout(config.getCallTimeout());
+
+        if (config.isHttp2PriorKnowledge()) {
+            client_builder.protocols(List.of(Protocol.H2_PRIOR_KNOWLEDGE));
+        }
+
+        if (config.getGzipRequestThreshold() >= 0) {
+            client_builder.addInterceptor(new GzipRequestInterceptor(config.getGzipRequestThreshold()));
+        }
+
+        client_builder.addNetworkInterceptor(chain -> {
+            long start = System.nanoTime();
+            Response response = chain.proceed(chain.request());
+            Exchange exchange = chain.request().tag(Exchange.class);
+
+            if (exchange != null) {
+                exchange.request_start = start;
+                exchange.response_start = System.nanoTime();
+            }
+
+            return response;
+        });
+        client_builder.eventListenerFactory(call -> {
+            PassClientMetrics m = metrics;
+            return m == null ? EventListener.NONE : m.newEventListener();
+        });
+
         client = client_builder.build();
+        limiter = config.getConcurrencyLimiter();
         moshi = create_moshi(false);
 
         // Serialize null value of attributes for the JSON API document
         update_moshi = create_moshi(true);
     }
 
+    /**
+     * @return underlying HTTP client
+     */
+    OkHttpClient get_http_client() {
+        return client;
+    }
+
     private Moshi create_moshi(boolean serialize_nulls) {
-        Factory factory = new JsonApiFactory.Builder().addTypes(Contributor.class, Deposit.class, File.class,
-                Funder.class, Grant.class, Journal.class, Policy.class, Publication.class, Publisher.class,
-                Repository.class, RepositoryCopy.class, Submission.class, SubmissionEvent.class, User.class).build();
+        Factory factory = new JsonApiFactory.Builder().addTypes(EntityMetadata.typeArray()).build();
 
         Moshi.Builder builder = new Moshi.Builder().add(factory);
 
@@ -134,6 +225,60 @@ public class JsonApiPassClient implements PassClient {
         return builder.build();
     }
 
+    /**
+     * Set the maximum number of retrieved objects kept for revalidation. When the server returns an ETag
+     * or Last-Modified header for an object, later retrievals of the same URL are conditional requests.
+     * If the server responds that the object is not modified, a copy of the kept object is returned.
+     * Targets of relationships are shared between copies. Objects updated or deleted through this client are
+     * no longer kept. The default is 1000.
+     *
+     * @param size maximum number of objects, zero to disable conditional requests
+     */
+    public void setRevalidationStoreSize(int size) {
+        get_store.setMaxSize(size);
+    }
+
+    /**
+     * @return number of retrievals answered by a kept object because the server reported it was not modified
+     */
+    public long getNotModifiedCount() {
+        return get_store.getNotModifiedCount();
+    }
+
+    /**
+     * @return number of response body bytes not downloaded because the server reported an object was not modified
+     */
+    public long getNotModifiedBytesSaved() {
+        return get_store.getBytesSaved();
+    }
+
+    /**
+     * Enable or disable change tracking. When enabled, the state of objects retrieved or updated by this
+     * client is remembered. Updating one of those objects sends only the attributes and relationships
+     * which have changed and sends nothing at all if nothing has changed. Objects retrieved with sparse fields
+     * may then be updated safely as fields which were not retrieved are not sent unless set to a value.
+     * The state of at most 10000 objects is remembered. Other objects are updated in full.
+     *
+     * @param enabled whether to track changes
+     */
+    public void setChangeTracking(boolean enabled) {
+        change_tracker = enabled ? new ChangeTracker(MAX_TRACKED_OBJECTS) : null;
+    }
+
+    /**
+     * Record metrics about requests made by this client. Gauges of the concurrency limiter of this client,
+     * if it has one, are registered with the metrics.
+     *
+     * @param metrics where to record metrics or null to stop recording
+     */
+    public void setMetrics(PassClientMetrics metrics) {
+        this.metrics = metrics;
+
+        if (metrics != null && limiter != null) {
+            metrics.registerLimiter(limiter);
+        }
+    }
+
     private String get_url(PassEntity obj) {
         return get_url(obj.getClass(), obj.getId());
     }
@@ -149,23 +294,180 @@ public class JsonApiPassClient implements PassClient {
     }
 
     private String get_json_type(Class<?> type) {
-        String name = type.getSimpleName();
+        return EntityMetadata.of(type).getJsonType();
+    }
+
+    // Handle the response to a request and return the result of the operation
+    @FunctionalInterface
+    private interface ResponseHandler<R> {
+        R handle(Response response) throws IOException;
+    }
 
-        char[] chars = name.toCharArray();
-        chars[0] = Character.toLowerCase(chars[0]);
+    // Name and JSON API type of the operation a request performs, attached to requests as a tag
+    private static final class Operation {
+        final String name;
+        final String type;
 
-        return new String(chars);
+        Operation(String name, Class<?> type) {
+            this.name = name;
+            this.type = type == null ? null : EntityMetadata.of(type).getJsonType();
+        }
     }
 
-    private String get_java_type(String json_type) {
-        char[] chars = json_type.toCharArray();
-        chars[0] = Character.toUpperCase(chars[0]);
+    // Times of the exchange with the server of the last attempt of a call, attached to requests as a tag.
+    // Waiting for the concurrency limiter, the dispatcher, and a connection are not included.
+    private static final class Exchange {
+        volatile long request_start = -1;
+        volatile long response_start = -1;
+
+        // Time from sending the request to receiving the response headers or -1 if there was no response
+        long latency() {
+            return request_start < 0 || response_start < 0 ? -1 : response_start - request_start;
+        }
 
-        return new String(chars);
+        // Time from sending the request until now or -1 if the request was not sent
+        long elapsed() {
+            return request_start < 0 ? -1 : System.nanoTime() - request_start;
+        }
     }
 
-    @Override
-    public <T extends PassEntity> void createObject(T obj) throws IOException {
+    // Kind of request whose latency is comparable, pages are compared to pages of similar size
+    private static String limiter_kind(Request request) {
+        Operation op = request.tag(Operation.class);
+        String kind = op == null ? request.method() : op.name + ":" + op.type;
+        String limit = request.url().queryParameter("page[limit]");
+
+        return limit == null ? kind : kind + ":" + Integer.highestOneBit(Integer.parseInt(limit));
+    }
+
+    // Wait for the concurrency limiter if there is one
+    private void acquire() throws IOException {
+        if (limiter != null) {
+            try {
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting to send request");
+            }
+        }
+    }
+
+    private void release(Request request, Exchange exchange, boolean overloaded) {
+        if (limiter != null) {
+            limiter.release(limiter_kind(request), exchange.latency(), overloaded);
+        }
+    }
+
+    private static boolean is_overloaded(int status) {
+        return status == 429 || status == 503;
+    }
+
+    private void record_request(Request request, int status, long start) {
+        PassClientMetrics m = metrics;
+        Operation op = request.tag(Operation.class);
+
+        if (m != null && op != null) {
+            m.recordRequest(op.name, op.type, status, System.nanoTime() - start);
+        }
+    }
+
+    private void record_response(Response response, long bytes, long start) {
+        PassClientMetrics m = metrics;
+        Operation op = response.request().tag(Operation.class);
+
+        if (m != null && op != null) {
+            m.recordResponse(op.name, op.type, bytes, System.nanoTime() - start);
+        }
+    }
+
+    // Execute a request on the calling thread
+    private <R> R execute(Request request, ResponseHandler<R> handler) throws IOException {
+        long start = System.nanoTime();
+        int status = -1;
+
+        acquire();
+
+        Exchange exchange = new Exchange();
+        Request tagged = request.newBuilder().tag(Exchange.class, exchange).build();
+
+        try (Response response = client.newCall(tagged).execute()) {
+            status = response.code();
+            return handler.handle(response);
+        } finally {
+            record_request(request, status, start);
+            release(request, exchange, status == -1 || is_overloaded(status));
+        }
+    }
+
+    // Enqueue a request once the concurrency limiter allows and complete the returned future on an
+    // OkHttp dispatcher thread. No thread waits for the limiter. Cancelling the future cancels the call.
+    private <R> CompletableFuture<R> enqueue(Request request, ResponseHandler<R> handler) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        long start = System.nanoTime();
+        CompletableFuture<Void> permit = limiter == null ? CompletableFuture.completedFuture(null)
+                : limiter.acquire_async();
+
+        permit.thenRun(() -> {
+            try {
+                start_call(request, handler, future, start);
+            } catch (RuntimeException e) {
+                release(request, new Exchange(), false);
+                future.completeExceptionally(e);
+            }
+        });
+
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                permit.cancel(false);
+            }
+        });
+
+        return future;
+    }
+
+    private <R> void start_call(Request request, ResponseHandler<R> handler, CompletableFuture<R> future,
+            long start) {
+        Exchange exchange = new Exchange();
+
+        // Cancelled while waiting for the limiter
+        if (future.isDone()) {
+            release(request, exchange, false);
+            return;
+        }
+
+        Call call = client.newCall(request.newBuilder().tag(Exchange.class, exchange).build());
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                record_request(request, -1, start);
+                release(request, exchange, !call.isCanceled());
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    R result = handler.handle(response);
+                    record_request(request, response.code(), start);
+                    release(request, exchange, is_overloaded(response.code()));
+                    future.complete(result);
+                } catch (IOException | RuntimeException e) {
+                    record_request(request, response.code(), start);
+                    release(request, exchange, is_overloaded(response.code()));
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+    }
+
+    <T extends PassEntity> Request create_request(T obj) {
         JsonAdapter<Document<T>> adapter = moshi.adapter(Types.newParameterizedType(Document.class, obj.getClass()));
 
         Document<T> doc = Document.with(obj).includedSerialization(IncludedSerialization.NONE).build();
@@ -174,59 +476,133 @@ public class JsonApiPassClient implements PassClient {
 
         String url = get_url(obj);
         RequestBody body = RequestBody.create(json, JSON_API_MEDIA_TYPE);
-        Request request = new Request.Builder().url(url).header("Accept", JSON_API_CONTENT_TYPE)
-                .addHeader("Content-Type", JSON_API_CONTENT_TYPE).post(body).build();
 
-        Response response = client.newCall(request).execute();
+        return new Request.Builder().url(url).header("Accept", JSON_API_CONTENT_TYPE)
+                .addHeader("Content-Type", JSON_API_CONTENT_TYPE)
+                .tag(Operation.class, new Operation("create", obj.getClass())).post(body).build();
+    }
 
+    private <T extends PassEntity> Void handle_create(T obj, Response response) throws IOException {
         if (!response.isSuccessful()) {
-            throw new IOException(
-                    "Create failed: " + url + " returned " + response.code() + " " + response.body().string());
+            throw new IOException("Create failed: " + response.request().url() + " returned " + response.code()
+                    + " " + response.body().string());
         }
 
-        Document<T> result_doc = adapter.fromJson(response.body().string());
+        JsonAdapter<Document<T>> adapter = moshi.adapter(Types.newParameterizedType(Document.class, obj.getClass()));
+        Document<T> result_doc = adapter.fromJson(response.body().source());
         obj.setId(result_doc.requireData().getId());
+
+        return null;
     }
 
     @Override
-    public <T extends PassEntity> void updateObject(T obj) throws IOException {
+    public <T extends PassEntity> void createObject(T obj) throws IOException {
+        execute(create_request(obj), response -> handle_create(obj, response));
+    }
+
+    @Override
+    public <T extends PassEntity> CompletableFuture<Void> createObjectAsync(T obj) {
+        return enqueue(create_request(obj), response -> handle_create(obj, response));
+    }
+
+    // Return the resource object of an object as sent in an update
+    Map<String, ?> get_update_resource_object(PassEntity obj) throws IOException {
         // Use adapters that will serialize null values for attributes
         JsonAdapter<Object> adapter = update_moshi.adapter(Types.newParameterizedType(Document.class, obj.getClass()));
-        Document<T> doc = Document.with(obj).includedSerialization(IncludedSerialization.NONE).build();
-
-        String json = adapter.toJson(doc);
+        Document<PassEntity> doc = Document.with(obj).includedSerialization(IncludedSerialization.NONE).build();
 
         // Null relationships are not serialized. Add any missing null to one relationships
-        json = add_null_relationships(json, get_null_relationships(obj));
+        return get_resource_object(add_null_relationships(adapter.toJson(doc), get_null_relationships(obj)));
+    }
 
-        String url = get_url(obj);
-        RequestBody body = RequestBody.create(json, JSON_API_MEDIA_TYPE);
-        Request request = new Request.Builder().url(url).header("Accept", JSON_API_CONTENT_TYPE)
-                .addHeader("Content-Type", JSON_API_CONTENT_TYPE).patch(body).build();
+    // Remember the persisted state of objects if tracking changes
+    private void track(PassEntity obj) throws IOException {
+        ChangeTracker tracker = change_tracker;
+
+        if (tracker != null && obj != null) {
+            tracker.track(obj, get_update_resource_object(obj));
+        }
+    }
+
+    // Return the part of a resource object to send in an update or null if nothing changed
+    private Map<String, ?> get_changes(PassEntity obj, Map<String, ?> resource) {
+        ChangeTracker tracker = change_tracker;
+        Map<String, ?> previous = tracker == null ? null : tracker.get(obj);
+
+        return previous == null ? resource : ChangeTracker.diff(previous, resource);
+    }
 
-        Response response = client.newCall(request).execute();
+    private Request update_request(PassEntity obj, Map<String, ?> resource) throws IOException {
+        try (Buffer buf = new Buffer(); JsonWriter out = JsonWriter.of(buf)) {
+            out.setSerializeNulls(true);
+            out.beginObject();
+            out.name("data").jsonValue(resource);
+            out.endObject();
+            out.flush();
+
+            String url = get_url(obj);
+            RequestBody body = RequestBody.create(buf.readByteArray(), JSON_API_MEDIA_TYPE);
+
+            return new Request.Builder().url(url).header("Accept", JSON_API_CONTENT_TYPE)
+                    .addHeader("Content-Type", JSON_API_CONTENT_TYPE)
+                    .tag(Operation.class, new Operation("update", obj.getClass())).patch(body).build();
+        }
+    }
 
+    private Void handle_update(PassEntity obj, Map<String, ?> resource, Response response) throws IOException {
         if (!response.isSuccessful()) {
-            throw new IOException(
-                    "Update failed: " + url + " returned " + response.code() + " " + response.body().string());
+            throw new IOException("Update failed: " + response.request().url() + " returned " + response.code()
+                    + " " + response.body().string());
+        }
+
+        // A revalidation by a Last-Modified of the same second could otherwise return the object before the update
+        get_store.removeObject(response.request().url().toString());
+
+        ChangeTracker tracker = change_tracker;
+
+        if (tracker != null) {
+            tracker.track(obj, resource);
+        }
+
+        return null;
+    }
+
+    /**
+     * Update an existing object. If change tracking is enabled, only changes are sent.
+     */
+    @Override
+    public <T extends PassEntity> void updateObject(T obj) throws IOException {
+        Map<String, ?> resource = get_update_resource_object(obj);
+        Map<String, ?> changes = get_changes(obj, resource);
+
+        if (changes != null) {
+            execute(update_request(obj, changes), response -> handle_update(obj, resource, response));
+        }
+    }
+
+    @Override
+    public <T extends PassEntity> CompletableFuture<Void> updateObjectAsync(T obj) {
+        try {
+            Map<String, ?> resource = get_update_resource_object(obj);
+            Map<String, ?> changes = get_changes(obj, resource);
+
+            if (changes == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            return enqueue(update_request(obj, changes), response -> handle_update(obj, resource, response));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
         }
     }
 
     // Return all to one relationships that have a null value.
-    private List<String> get_null_relationships(PassEntity entity) {
+    List<String> get_null_relationships(PassEntity entity) {
         List<String> rels = new ArrayList<>();
 
-        for (Method m : entity.getClass().getMethods()) {
-            if (m.getName().startsWith("get") && PassEntity.class.isAssignableFrom(m.getReturnType())) {
-                try {
-                    if (m.invoke(entity) == null) {
-                        String rel = m.getName();
-                        rel = Character.toLowerCase(rel.charAt(3)) + rel.substring(4);
-                        rels.add(rel);
-                    }
-                } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                    throw new RuntimeException("Failed to invoke: " + m.getName(), e);
-                }
+        for (EntityMetadata.Property prop : EntityMetadata.of(entity.getClass()).getToOneRelationships()) {
+            if (prop.get(entity) == null) {
+                rels.add(prop.getName());
             }
         }
 
@@ -235,7 +611,7 @@ public class JsonApiPassClient implements PassClient {
 
     // Add the missing to one relationships with null values to the document
     @SuppressWarnings("unchecked")
-    private String add_null_relationships(String json, List<String> null_rels) throws IOException {
+    String add_null_relationships(String json, List<String> null_rels) throws IOException {
         try (Buffer in_buf = new Buffer();
                 Buffer out_buf = new Buffer();
                 JsonReader in = JsonReader.of(in_buf.writeUtf8(json));
@@ -287,7 +663,7 @@ public class JsonApiPassClient implements PassClient {
         }
     }
 
-    private static class Relationship {
+    static class Relationship {
         String name;
         List<String> targets;
         String target_type;
@@ -299,73 +675,71 @@ public class JsonApiPassClient implements PassClient {
         }
     }
 
-    // Return map of source object id to object relationships.
+    // Return map of source object id to object relationships read from a JSON API document.
     // Ignore any relationships whose target is included
-    private Map<String, List<Relationship>> get_relationships(String json_api_doc) throws IOException {
+    Map<String, List<Relationship>> get_relationships(JsonReader reader) throws IOException {
         Map<String, List<Relationship>> result = new HashMap<>();
 
         // Contains type_id for objects which are included in the document
         Set<String> included = new HashSet<>();
 
-        try (Buffer buffer = new Buffer(); JsonReader reader = JsonReader.of(buffer.writeUtf8(json_api_doc))) {
-            reader.beginObject();
+        reader.beginObject();
 
-            while (reader.hasNext()) {
-                String top_name = reader.nextName();
+        while (reader.hasNext()) {
+            String top_name = reader.nextName();
 
-                if (top_name.equals("data")) {
-                    Token next = reader.peek();
+            if (top_name.equals("data")) {
+                Token next = reader.peek();
 
-                    if (next == Token.BEGIN_ARRAY) {
-                        reader.beginArray();
-                        while (reader.hasNext()) {
-                            gather_relationships_from_data(result, reader, included);
-                        }
-                        reader.endArray();
-                    } else if (next == Token.BEGIN_OBJECT) {
-                        gather_relationships_from_data(result, reader, included);
-                    } else {
-                        reader.skipValue();
-                    }
-                } else if (top_name.equals("included")) {
+                if (next == Token.BEGIN_ARRAY) {
                     reader.beginArray();
-
                     while (reader.hasNext()) {
-                        String id = null;
-                        String type = null;
+                        gather_relationships_from_data(result, reader, included);
+                    }
+                    reader.endArray();
+                } else if (next == Token.BEGIN_OBJECT) {
+                    gather_relationships_from_data(result, reader, included);
+                } else {
+                    reader.skipValue();
+                }
+            } else if (top_name.equals("included")) {
+                reader.beginArray();
 
-                        reader.beginObject();
-                        while (reader.hasNext()) {
-                            switch (reader.nextName()) {
-                                case "id":
-                                    id = reader.nextString();
-                                    break;
-
-                                case "type":
-                                    type = reader.nextString();
-                                    break;
-
-                                default:
-                                    reader.skipValue();
-                                    break;
-                            }
-                        }
-                        reader.endObject();
+                while (reader.hasNext()) {
+                    String id = null;
+                    String type = null;
 
-                        if (id != null && type != null) {
-                            included.add(type + "_" + id);
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "id":
+                                id = reader.nextString();
+                                break;
+
+                            case "type":
+                                type = reader.nextString();
+                                break;
+
+                            default:
+                                reader.skipValue();
+                                break;
                         }
                     }
+                    reader.endObject();
 
-                    reader.endArray();
-                } else {
-                    reader.skipValue();
+                    if (id != null && type != null) {
+                        included.add(type + "_" + id);
+                    }
                 }
-            }
 
-            reader.endObject();
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
         }
 
+        reader.endObject();
+
         // Prune relationship targets that are included in the document
         if (included.size() > 0) {
             result.forEach((id, rels) -> {
@@ -477,114 +851,417 @@ public class JsonApiPassClient implements PassClient {
         reader.endObject();
     }
 
-    // Create a PassEntity and set the id. It must have an appropriate constructor.
-    private Object create_target(String target_id, String class_name) {
-        try {
-            return Class.forName(class_name).getConstructor(String.class).newInstance(target_id);
-        } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException
-                | NoSuchMethodException | SecurityException | ClassNotFoundException e) {
-            throw new RuntimeException("Failed to create: " + class_name, e);
-        }
-    }
-
-    // Set a value on an object using a set method.
-    private void set_value(Object obj, String set_method, Object value) {
-        try {
-            Class<?> value_class = value.getClass();
-
-            // Handle the set method taking a List instead of a List implementation
-            if (value instanceof List) {
-                value_class = List.class;
-            }
-
-            obj.getClass().getMethod(set_method, value_class).invoke(obj, value);
-        } catch (NoSuchMethodException | SecurityException | IllegalAccessException | IllegalArgumentException
-                | InvocationTargetException e) {
-            throw new RuntimeException("Failed to invoke: " + set_method, e);
-        }
-    }
-
-    // Set a relationship on a matched object
-    private void set_relationship(Object obj, Relationship rel) {
+    // Set a relationship on a matched object. Targets are stubs shared through the table.
+    private void set_relationship(PassEntity obj, Relationship rel, StubTable stubs) {
         // Targets may have been pruned
         if (rel.targets.size() == 0) {
             return;
         }
 
-        String target_class_name = "org.eclipse.pass.support.client.model." + get_java_type(rel.target_type);
+        EntityMetadata.Property prop = EntityMetadata.of(obj.getClass()).getRelationships().get(rel.name);
+
+        if (prop == null) {
+            throw new RuntimeException("Unknown relationship: " + rel.name);
+        }
+
+        EntityMetadata target_md = EntityMetadata.of(rel.target_type);
         Object target;
 
         if (rel.to_many) {
-            List<Object> list = new ArrayList<>();
+            List<PassEntity> list = new ArrayList<>(rel.targets.size());
             rel.targets.forEach(id -> {
-                list.add(create_target(id, target_class_name));
+                list.add(stubs.get(target_md, id));
             });
             target = list;
         } else {
-            target = create_target(rel.targets.get(0), target_class_name);
+            target = stubs.get(target_md, rel.targets.get(0));
         }
 
-        set_value(obj, "set" + get_java_type(rel.name), target);
+        prop.set(obj, target);
     }
 
-    private void set_relationships(Object obj, List<Relationship> rels) {
+    private void set_relationships(PassEntity obj, List<Relationship> rels, StubTable stubs) {
         if (rels != null) {
             rels.forEach(rel -> {
-                set_relationship(obj, rel);
+                set_relationship(obj, rel, stubs);
             });
         }
     }
 
+    // Return the resource object of an object serialized as a JSON API document
+    @SuppressWarnings("unchecked")
+    private Map<String, ?> get_resource_object(String json) throws IOException {
+        try (Buffer buf = new Buffer(); JsonReader reader = JsonReader.of(buf.writeUtf8(json))) {
+            Map<String, ?> doc = (Map<String, ?>) reader.readJsonValue();
+            return (Map<String, ?>) doc.get("data");
+        }
+    }
+
+    private Request atomic_request(List<PassClientOperation> ops) throws IOException {
+        try (Buffer buf = new Buffer(); JsonWriter out = JsonWriter.of(buf)) {
+            out.setSerializeNulls(true);
+            out.beginObject();
+            out.name("atomic:operations");
+            out.beginArray();
+
+            for (PassClientOperation op : ops) {
+                PassEntity obj = op.getEntity();
+
+                out.beginObject();
+
+                switch (op.getAction()) {
+                    case CREATE: {
+                        JsonAdapter<Object> adapter = moshi.adapter(
+                                Types.newParameterizedType(Document.class, obj.getClass()));
+                        Document<PassEntity> doc = Document.with(obj)
+                                .includedSerialization(IncludedSerialization.NONE).build();
+
+                        out.name("op").value("add");
+                        out.name("data").jsonValue(get_resource_object(adapter.toJson(doc)));
+                        break;
+                    }
+
+                    case UPDATE:
+                        out.name("op").value("update");
+                        out.name("data").jsonValue(get_update_resource_object(obj));
+                        break;
+
+                    case DELETE:
+                        out.name("op").value("remove");
+                        out.name("ref");
+                        out.beginObject();
+                        out.name("type").value(get_json_type(op.getType()));
+                        out.name("id").value(op.getId());
+                        out.endObject();
+                        break;
+
+                    default:
+                        throw new IllegalArgumentException("Unknown operation: " + op.getAction());
+                }
+
+                out.endObject();
+            }
+
+            out.endArray();
+            out.endObject();
+            out.flush();
+
+            RequestBody body = RequestBody.create(buf.readByteArray(), JSON_API_ATOMIC_MEDIA_TYPE);
+
+            return new Request.Builder().url(baseUrl + "operations").header("Accept", JSON_API_ATOMIC_CONTENT_TYPE)
+                    .tag(Operation.class, new Operation("batch", null)).post(body).build();
+        }
+    }
+
+    // Return the ids of the objects in the atomic results or null if the extension is not supported.
+    // The ids of created objects are set.
+    private List<String> handle_atomic(List<PassClientOperation> ops, Response response) throws IOException {
+        int code = response.code();
+
+        if (code == 404 || code == 405 || code == 406 || code == 415) {
+            return null;
+        }
+
+        if (!response.isSuccessful()) {
+            throw new IOException("Batch failed: " + response.request().url() + " returned " + code + " "
+                    + response.body().string());
+        }
+
+        List<String> result = new ArrayList<>(ops.size());
+
+        try (JsonReader reader = JsonReader.of(response.body().source())) {
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("atomic:results") && reader.peek() == Token.BEGIN_ARRAY) {
+                    reader.beginArray();
+
+                    while (reader.hasNext()) {
+                        PassClientOperation op = ops.get(result.size());
+                        String id = read_atomic_result_id(reader);
+
+                        if (op.getAction() == PassClientOperation.Action.CREATE) {
+                            op.getEntity().setId(id);
+                        }
+
+                        result.add(id == null ? op.getId() : id);
+                    }
+
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+
+            reader.endObject();
+        }
+
+        if (result.size() != ops.size()) {
+            throw new IOException("Batch failed: " + response.request().url() + " returned " + result.size()
+                    + " results for " + ops.size() + " operations");
+        }
+
+        return result;
+    }
+
+    // Return the id of the data of an atomic result or null if there is no data
+    private String read_atomic_result_id(JsonReader reader) throws IOException {
+        String id = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("data") && reader.peek() == Token.BEGIN_OBJECT) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (reader.nextName().equals("id")) {
+                        id = reader.nextString();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return id;
+    }
+
+    // Forget stored responses of objects updated or deleted by a batch. Remember the state of updated objects
+    // and forget deleted objects if tracking changes.
+    private void track_batch(List<PassClientOperation> ops) throws IOException {
+        for (PassClientOperation op : ops) {
+            if (op.getAction() != PassClientOperation.Action.CREATE && op.getId() != null) {
+                get_store.removeObject(HttpUrl.get(get_url(op.getType(), op.getId())).toString());
+            }
+        }
+
+        ChangeTracker tracker = change_tracker;
+
+        if (tracker == null) {
+            return;
+        }
+
+        for (PassClientOperation op : ops) {
+            if (op.getAction() == PassClientOperation.Action.UPDATE) {
+                track(op.getEntity());
+            } else if (op.getAction() == PassClientOperation.Action.DELETE) {
+                tracker.remove(op.getType(), op.getId());
+            }
+        }
+    }
+
+    /**
+     * Execute the operations using the JSON API atomic operations extension. Operations are sent in
+     * chunks. If the server does not support the extension, each operation is executed as a separate call.
+     * Objects which are the targets of relationships must already have an id when a chunk is sent.
+     */
     @Override
-    public <T extends PassEntity> T getObject(Class<T> type, String id, String... include) throws IOException {
-        JsonAdapter<Document<T>> adapter = moshi.adapter(Types.newParameterizedType(Document.class, type));
+    public List<String> executeBatch(List<PassClientOperation> operations) throws IOException {
+        List<String> result = new ArrayList<>(operations.size());
+        int next = 0;
+
+        while (next < operations.size()) {
+            List<PassClientOperation> remaining = operations.subList(next, operations.size());
+
+            if (!atomic_supported) {
+                result.addAll(PassClient.super.executeBatch(remaining));
+                break;
+            }
+
+            List<PassClientOperation> chunk = remaining.subList(0, Math.min(remaining.size(),
+                    MAX_ATOMIC_OPERATIONS));
+            List<String> ids = execute(atomic_request(chunk), response -> handle_atomic(chunk, response));
+
+            if (ids == null) {
+                atomic_supported = false;
+            } else {
+                track_batch(chunk);
+                result.addAll(ids);
+                next += chunk.size();
+            }
+        }
+
+        return result;
+    }
 
+    // Add a fields query parameter for each type with sparse fields
+    private void add_fields(HttpUrl.Builder url_builder, Map<Class<? extends PassEntity>, String[]> fields) {
+        fields.forEach((type, names) -> {
+            url_builder.addQueryParameter("fields[" + get_json_type(type) + "]", String.join(",", names));
+        });
+    }
+
+    private Request get_request(Class<?> type, String id, Map<Class<? extends PassEntity>, String[]> fields,
+            String... include) {
         HttpUrl.Builder url_builder = HttpUrl.parse(get_url(type, id)).newBuilder();
         if (include != null && include.length > 0) {
             url_builder.addQueryParameter("include", String.join(",", include));
         }
+        add_fields(url_builder, fields);
         HttpUrl url = url_builder.build();
 
-        Request request = new Request.Builder().url(url).header("Accept", JSON_API_CONTENT_TYPE)
-                .addHeader("Content-Type", JSON_API_CONTENT_TYPE).get().build();
+        return new Request.Builder().url(url).header("Accept", JSON_API_CONTENT_TYPE)
+                .addHeader("Content-Type", JSON_API_CONTENT_TYPE).tag(Operation.class, new Operation("get", type))
+                .get().build();
+    }
+
+    // Return the entry to revalidate for a request or null if there is none
+    private ConditionalGetStore.Entry get_store_entry(Request request) {
+        return get_store.isEnabled() ? get_store.get(request.url().toString()) : null;
+    }
+
+    // Add the validators of an entry to a request
+    private Request conditional_request(Request request, ConditionalGetStore.Entry entry) {
+        if (entry == null) {
+            return request;
+        }
+
+        Request.Builder builder = request.newBuilder();
+
+        if (entry.getETag() != null) {
+            builder.header("If-None-Match", entry.getETag());
+        }
+
+        if (entry.getLastModified() != null) {
+            builder.header("If-Modified-Since", entry.getLastModified());
+        }
+
+        return builder.build();
+    }
+
+    // Counts the bytes read from a source
+    private static class CountingSource extends ForwardingSource {
+        long count = 0;
+
+        CountingSource(Source delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            long result = super.read(sink, byteCount);
+
+            if (result > 0) {
+                count += result;
+            }
+
+            return result;
+        }
+    }
+
+    <T extends PassEntity> T handle_get(Class<T> type, String id, ConditionalGetStore.Entry entry,
+            Response response) throws IOException {
+        String url = response.request().url().toString();
 
-        Response response = client.newCall(request).execute();
+        if (response.code() == 304 && entry != null) {
+            T result = get_store.revalidated(type, entry);
+            track(result);
+
+            return result;
+        }
 
         if (response.code() == 404) {
+            get_store.remove(url);
             return null;
         }
 
-        String body = response.body().string();
-
         if (!response.isSuccessful()) {
-            throw new IOException("Get failed: " + url + " returned " + response.code() + " " + body);
+            throw new IOException("Get failed: " + response.request().url() + " returned " + response.code() + " "
+                    + response.body().string());
         }
 
-        Document<T> doc = adapter.fromJson(body);
-        T result = doc.requireData();
+        JsonAdapter<Document<T>> adapter = moshi.adapter(Types.newParameterizedType(Document.class, type));
 
-        set_relationships(result, get_relationships(body).get(id));
+        String etag = response.header("ETag");
+        String last_modified = response.header("Last-Modified");
+        CountingSource counter = new CountingSource(response.body().source());
+        BufferedSource source = Okio.buffer(counter);
+        long start = System.nanoTime();
 
-        return result;
+        try (JsonReader reader = JsonReader.of(source)) {
+            Map<String, List<Relationship>> rels = peek_relationships(reader);
+            T result = adapter.fromJson(reader).requireData();
+
+            set_relationships(result, rels.get(id), new StubTable());
+            record_response(response, counter.count, start);
+            get_store.put(url, etag, last_modified, result, counter.count);
+            track(result);
+
+            return result;
+        }
+    }
+
+    // Gather relationships by peeking at the document without consuming it. The document is only
+    // read once from the response and the relationship scan skips over attribute values.
+    private Map<String, List<Relationship>> peek_relationships(JsonReader reader) throws IOException {
+        try (JsonReader peek = reader.peekJson()) {
+            return get_relationships(peek);
+        }
     }
 
     @Override
-    public <T extends PassEntity> void deleteObject(Class<T> type, String id) throws IOException {
-        String url = get_url(type, id);
+    public <T extends PassEntity> T getObject(Class<T> type, String id, String... include) throws IOException {
+        Request request = get_request(type, id, Map.of(), include);
+        ConditionalGetStore.Entry entry = get_store_entry(request);
+
+        return execute(conditional_request(request, entry), response -> handle_get(type, id, entry, response));
+    }
+
+    @Override
+    public <T extends PassEntity> CompletableFuture<T> getObjectAsync(Class<T> type, String id, String... include) {
+        Request request = get_request(type, id, Map.of(), include);
+        ConditionalGetStore.Entry entry = get_store_entry(request);
+
+        return enqueue(conditional_request(request, entry), response -> handle_get(type, id, entry, response));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends PassEntity> T getObject(PassClientSelector<T> selector, String id) throws IOException {
+        Class<T> type = (Class<T>) selector.getType();
+
+        Request request = get_request(type, id, selector.getFields(), selector.getInclude());
+        ConditionalGetStore.Entry entry = get_store_entry(request);
+
+        return execute(conditional_request(request, entry), response -> handle_get(type, id, entry, response));
+    }
 
-        Request request = new Request.Builder().url(url).delete().build();
-        Response response = client.newCall(request).execute();
+    private Request delete_request(Class<?> type, String id) {
+        return new Request.Builder().url(get_url(type, id)).tag(Operation.class, new Operation("delete", type))
+                .delete().build();
+    }
 
+    private Void handle_delete(Class<?> type, String id, Response response) throws IOException {
         if (!response.isSuccessful()) {
-            throw new IOException(
-                    "Delete failed: " + url + " returned " + response.code() + " " + response.body().string());
+            throw new IOException("Delete failed: " + response.request().url() + " returned " + response.code()
+                    + " " + response.body().string());
         }
+
+        get_store.removeObject(response.request().url().toString());
+
+        ChangeTracker tracker = change_tracker;
+
+        if (tracker != null) {
+            tracker.remove(type, id);
+        }
+
+        return null;
     }
 
     @Override
-    public <T extends PassEntity> PassClientResult<T> selectObjects(PassClientSelector<T> selector) throws IOException {
-        JsonAdapter<Document<List<T>>> adapter = moshi.adapter(
-                Types.newParameterizedType(Document.class, Types.newParameterizedType(List.class, selector.getType())));
+    public <T extends PassEntity> void deleteObject(Class<T> type, String id) throws IOException {
+        execute(delete_request(type, id), response -> handle_delete(type, id, response));
+    }
+
+    @Override
+    public <T extends PassEntity> CompletableFuture<Void> deleteObjectAsync(Class<T> type, String id) {
+        return enqueue(delete_request(type, id), response -> handle_delete(type, id, response));
+    }
+
+    private Request select_request(PassClientSelector<?> selector) {
         HttpUrl.Builder url_builder = HttpUrl.parse(get_url(selector.getType(), null)).newBuilder();
 
         String[] include = selector.getInclude();
@@ -592,7 +1269,9 @@ public class JsonApiPassClient implements PassClient {
             url_builder.addQueryParameter("include", String.join(",", include));
         }
 
-        if (selector.getFilter() != null) {
+        if (selector.getFilterExpression() != null) {
+            url_builder.addEncodedQueryParameter("filter", selector.getFilterExpression().getEncoded());
+        } else if (selector.getFilter() != null) {
             url_builder.addQueryParameter("filter", selector.getFilter());
         }
 
@@ -600,45 +1279,112 @@ public class JsonApiPassClient implements PassClient {
             url_builder.addQueryParameter("sort", selector.getSorting());
         }
 
+        add_fields(url_builder, selector.getFields());
+
         url_builder.addQueryParameter("page[offset]", "" + selector.getOffset());
         url_builder.addQueryParameter("page[limit]", "" + selector.getLimit());
         url_builder.addQueryParameter("page[totals]", null);
 
         HttpUrl url = url_builder.build();
 
-        Request request = new Request.Builder().url(url).header("Accept", JSON_API_CONTENT_TYPE)
-                .addHeader("Content-Type", JSON_API_CONTENT_TYPE).get().build();
-
-        Response response = client.newCall(request).execute();
+        return new Request.Builder().url(url).header("Accept", JSON_API_CONTENT_TYPE)
+                .addHeader("Content-Type", JSON_API_CONTENT_TYPE)
+                .tag(Operation.class, new Operation("select", selector.getType())).get().build();
+    }
 
+    <T extends PassEntity> PassClientResult<T> handle_select(Class<? extends PassEntity> type,
+            Response response) throws IOException {
         if (response.code() == 404) {
             return null;
         }
 
-        String body = response.body().string();
-
         if (!response.isSuccessful()) {
-            throw new IOException("Select failed: " + url + " returned " + response.code() + " " + body);
+            throw new IOException("Select failed: " + response.request().url() + " returned " + response.code()
+                    + " " + response.body().string());
         }
 
-        Document<List<T>> doc = adapter.fromJson(body);
-        List<T> matches = doc.requireData();
-        long total = -1;
+        JsonAdapter<Document<List<T>>> adapter = moshi.adapter(
+                Types.newParameterizedType(Document.class, Types.newParameterizedType(List.class, type)));
+
+        CountingSource counter = new CountingSource(response.body().source());
+        long start = System.nanoTime();
+
+        try (JsonReader reader = JsonReader.of(Okio.buffer(counter))) {
+            Map<String, List<Relationship>> rels = peek_relationships(reader);
+            Document<List<T>> doc = adapter.fromJson(reader);
+            List<T> matches = doc.requireData();
+            long total = -1;
+
+            if (doc.getMeta().has("page")) {
+                Map<?, ?> page = (Map<?, ?>) doc.getMeta().get("page");
+
+                if (page.containsKey("totalRecords")) {
+                    total = ((Double) page.get("totalRecords")).longValue();
+                }
+            }
+
+            // Objects in the page share stubs of the same target
+            StubTable stubs = new StubTable();
+
+            for (T o : matches) {
+                set_relationships(o, rels.get(o.getId()), stubs);
+                track(o);
+            }
+
+            record_response(response, counter.count, start);
 
-        if (doc.getMeta().has("page")) {
-            Map<?, ?> page = (Map<?, ?>) doc.getMeta().get("page");
+            PassClientMetrics m = metrics;
 
-            if (page.containsKey("totalRecords")) {
-                total = ((Double) page.get("totalRecords")).longValue();
+            if (m != null) {
+                m.recordPage(get_json_type(type), matches.size());
+
+                String limit = response.request().url().queryParameter("page[limit]");
+
+                if (limit != null) {
+                    m.recordPageLimit(get_json_type(type), Integer.parseInt(limit));
+                }
             }
+
+            Exchange exchange = response.request().tag(Exchange.class);
+
+            return new PassClientResult<>(matches, total, counter.count, exchange == null ? -1 : exchange.elapsed());
+        }
+    }
+
+    /**
+     * Select objects matching the selector. If the filter is an =in= expression or a disjunction, or a
+     * conjunction with either, which does not fit in one request, the values or branches are split into chunks
+     * which are selected concurrently. The matches are merged in chunk order with duplicates removed and sorting
+     * applies within each chunk. The total is then an upper bound unless every chunk was selected in full.
+     */
+    @Override
+    public <T extends PassEntity> PassClientResult<T> selectObjects(PassClientSelector<T> selector) throws IOException {
+        List<PassClientSelector<T>> chunks = ChunkedSelection.split(selector);
+
+        if (chunks != null) {
+            return ChunkedSelection.select_wait(this, selector.getOffset(), selector.getLimit(), chunks);
         }
 
-        Map<String, List<Relationship>> rels = get_relationships(body);
+        Class<? extends PassEntity> type = selector.getType();
 
-        matches.forEach(o -> {
-            set_relationships(o, rels.get(o.getId()));
-        });
+        return execute(select_request(selector), response -> handle_select(type, response));
+    }
+
+    /**
+     * Asynchronously select objects matching the selector. Large filters are split into chunks as
+     * {@link #selectObjects(PassClientSelector)} does.
+     */
+    @Override
+    public <T extends PassEntity> CompletableFuture<PassClientResult<T>> selectObjectsAsync(
+            PassClientSelector<T> selector) {
+        List<PassClientSelector<T>> chunks = ChunkedSelection.split(selector);
+
+        if (chunks != null) {
+            return ChunkedSelection.select(this, selector.getOffset(), selector.getLimit(), chunks);
+        }
+
+        Class<? extends PassEntity> type = selector.getType();
 
-        return new PassClientResult<>(matches, total);
+        return enqueue(select_request(selector), response -> handle_select(type, response));
     }
-}
\ No newline at end of file
+}
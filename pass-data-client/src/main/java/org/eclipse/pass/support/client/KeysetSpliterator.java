@@ -0,0 +1,157 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+
+/**
+ * Spliterator over the objects matching a selector which uses keyset pagination. Each page
+ * after the first selects objects whose keyset field is greater than the value of that field
+ * in the last object of the previous page. The cost of retrieving a page therefore does not
+ * depend on how deep into the results the page is. If the selector has an adaptive limit,
+ * the limit of each page is chosen from the pages retrieved before it.
+ *
+ * @param <T> type of the object
+ */
+class KeysetSpliterator<T extends PassEntity> implements Spliterator<T> {
+    private final PassClient client;
+    private final PassClientSelector<T> selector;
+    private final String keyset;
+    private final EntityMetadata.Property property;
+    private final AdaptivePageLimit.State sizer;
+    private long remaining;
+    private List<T> page;
+    private int next;
+
+    /**
+     * Retrieves the first page of matches.
+     *
+     * @param client client used to retrieve pages
+     * @param selector which objects to retrieve, the selector is not modified
+     * @throws IOException if retrieving the first page fails
+     */
+    KeysetSpliterator(PassClient client, PassClientSelector<T> selector) throws IOException {
+        this.client = client;
+        this.selector = new PassClientSelector<>(selector);
+        this.keyset = selector.getKeysetOn();
+        this.property = get_property(selector.getType(), keyset);
+
+        this.selector.setSorting(keyset);
+
+        PassClientResult<T> result = client.selectObjects(this.selector);
+
+        this.page = result.getObjects();
+        this.sizer = selector.getAdaptiveLimit() == null ? null
+                : selector.getAdaptiveLimit().start(selector.getLimit());
+
+        if (sizer != null) {
+            this.selector.setLimit(sizer.update(page.size(), result.getResponseBytes(), result.getResponseNanos()));
+        }
+
+        this.remaining = result.getTotal() < 0 ? -1 : Math.max(0, result.getTotal() - selector.getOffset());
+        this.next = 0;
+    }
+
+    private static EntityMetadata.Property get_property(Class<?> type, String field) {
+        if (field.equals("id")) {
+            return null;
+        }
+
+        EntityMetadata.Property prop = EntityMetadata.of(type).getAttributes().get(field);
+
+        if (prop == null) {
+            throw new IllegalArgumentException("Cannot use " + field + " for keyset pagination of " + type);
+        }
+
+        return prop;
+    }
+
+    // Return the keyset value of an object formatted for use in a filter
+    private String get_keyset_value(T obj) {
+        if (property == null) {
+            return obj.getId();
+        }
+
+        Object value = property.get(obj);
+
+        if (value instanceof ZonedDateTime) {
+            return Util.dateTimeFormatter().format((ZonedDateTime) value);
+        }
+
+        return String.valueOf(value);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> consumer) {
+        if (next == page.size()) {
+            if (page.size() == 0) {
+                return false;
+            }
+
+            String after = RSQL.greaterThan(keyset, get_keyset_value(page.get(page.size() - 1)));
+            String filter = selector.getFilter();
+
+            PassClientSelector<T> sel = new PassClientSelector<>(selector);
+            sel.setOffset(0);
+            sel.setFilter(filter == null ? after : RSQL.and(filter, after));
+
+            try {
+                PassClientResult<T> result = client.selectObjects(sel);
+                page = result.getObjects();
+                next = 0;
+
+                if (sizer != null) {
+                    selector.setLimit(sizer.update(page.size(), result.getResponseBytes(),
+                            result.getResponseNanos()));
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+
+            if (page.size() == 0) {
+                return false;
+            }
+        }
+
+        if (remaining > 0) {
+            remaining--;
+        }
+
+        consumer.accept(page.get(next++));
+        return true;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return remaining < 0 ? Long.MAX_VALUE : remaining;
+    }
+
+    @Override
+    public int characteristics() {
+        return NONNULL | ORDERED;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+
+/**
+ * Spliterator over the objects matching a selector which retrieves a page at a time.
+ * When the total number of matches is known, the range of remaining page offsets can be
+ * split so that pages are retrieved concurrently by a parallel stream. If the selector has an
+ * adaptive limit, the limit of each page is chosen from the pages retrieved before it.
+ *
+ * @param <T> type of the object
+ */
+class PageRangeSpliterator<T extends PassEntity> implements Spliterator<T> {
+    private final PassClient client;
+    private final PassClientSelector<T> selector;
+    private final long total;
+    // Limit of the next page
+    private int limit;
+    // Adapts the limit or null if the limit is fixed
+    private final AdaptivePageLimit.State sizer;
+    private int offset;
+    // Exclusive end of the offset range or -1 to retrieve pages until an empty page is found
+    private int end;
+    private List<T> page;
+    private int next;
+
+    /**
+     * Retrieves the first page of matches.
+     *
+     * @param client client used to retrieve pages
+     * @param selector which objects to retrieve, the selector is not modified
+     * @throws IOException if retrieving the first page fails
+     */
+    PageRangeSpliterator(PassClient client, PassClientSelector<T> selector) throws IOException {
+        this.client = client;
+        this.selector = new PassClientSelector<>(selector);
+
+        PassClientResult<T> result = client.selectObjects(this.selector);
+
+        this.page = result.getObjects();
+        this.total = result.getTotal();
+        this.sizer = selector.getAdaptiveLimit() == null ? null
+                : selector.getAdaptiveLimit().start(selector.getLimit());
+        this.limit = sizer == null ? selector.getLimit()
+                : sizer.update(page.size(), result.getResponseBytes(), result.getResponseNanos());
+        this.offset = selector.getOffset() + selector.getLimit();
+        this.end = page.size() == 0 ? offset : -1;
+        this.next = 0;
+    }
+
+    private PageRangeSpliterator(PageRangeSpliterator<T> iter, int end) {
+        this.client = iter.client;
+        this.selector = iter.selector;
+        this.total = iter.total;
+        this.limit = iter.limit;
+        this.sizer = iter.sizer == null ? null : iter.sizer.copy();
+        this.offset = iter.offset;
+        this.end = end;
+        this.page = iter.page;
+        this.next = iter.next;
+    }
+
+    // Offset past the last page this spliterator is expected to retrieve
+    private long bound() {
+        return end == -1 ? total : end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> consumer) {
+        while (next == page.size()) {
+            if (end != -1 && offset >= end) {
+                return false;
+            }
+
+            PassClientSelector<T> sel = new PassClientSelector<>(selector);
+            sel.setOffset(offset);
+            sel.setLimit(end == -1 ? limit : Math.min(limit, end - offset));
+
+            try {
+                PassClientResult<T> result = client.selectObjects(sel);
+                page = result == null ? Collections.emptyList() : result.getObjects();
+                next = 0;
+
+                if (sizer != null && result != null) {
+                    limit = sizer.update(page.size(), result.getResponseBytes(), result.getResponseNanos());
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+
+            offset += sel.getLimit();
+
+            if (page.size() == 0) {
+                end = offset;
+                return false;
+            }
+        }
+
+        consumer.accept(page.get(next++));
+        return true;
+    }
+
+    /**
+     * Split off the first half of the remaining pages. The returned spliterator also
+     * holds the unconsumed objects of the current page.
+     */
+    @Override
+    public Spliterator<T> trySplit() {
+        if (total < 0) {
+            return null;
+        }
+
+        long pages = (bound() - offset + limit - 1) / limit;
+
+        if (pages < 2) {
+            return null;
+        }
+
+        int mid = (int) (offset + (pages / 2) * limit);
+        PageRangeSpliterator<T> prefix = new PageRangeSpliterator<>(this, mid);
+
+        page = Collections.emptyList();
+        next = 0;
+        offset = mid;
+
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        if (total < 0) {
+            return Long.MAX_VALUE;
+        }
+
+        return page.size() - next + Math.max(0, bound() - offset);
+    }
+
+    @Override
+    public int characteristics() {
+        return NONNULL | ORDERED | CONCURRENT;
+    }
+}
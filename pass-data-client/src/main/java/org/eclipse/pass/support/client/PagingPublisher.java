@@ -0,0 +1,189 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+
+/**
+ * Publisher of the objects matching a selector starting from the selector offset. Each subscriber
+ * receives its own sequence of objects. A page is only requested once the subscriber has requested more
+ * objects than remain in the current page, and at most one page is in flight per subscriber. Cancelling
+ * a subscription cancels the page in flight. Failures are signaled with onError.
+ *
+ * @param <T> type of the object
+ */
+class PagingPublisher<T extends PassEntity> implements Flow.Publisher<T> {
+    private final PassClient client;
+    private final PassClientSelector<T> selector;
+
+    /**
+     * @param client client used to retrieve pages
+     * @param selector which objects to retrieve, the selector is copied
+     */
+    PagingPublisher(PassClient client, PassClientSelector<T> selector) {
+        this.client = client;
+        this.selector = new PassClientSelector<>(selector);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        PagingSubscription subscription = new PagingSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.drain();
+    }
+
+    private class PagingSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+
+        // Number of requests to run the drain loop, only the thread which increments from zero runs it
+        private final AtomicInteger work = new AtomicInteger();
+        private final Deque<T> buffer = new ArrayDeque<>();
+        private volatile CompletableFuture<PassClientResult<T>> in_flight;
+        private volatile Throwable error;
+        private volatile boolean exhausted = false;
+        private volatile boolean cancelled = false;
+        private boolean done = false;
+        private int next_offset;
+        private long total = -1;
+
+        PagingSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+            this.next_offset = selector.getOffset();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Request must be positive: " + n);
+            } else {
+                demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+            }
+
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+
+            CompletableFuture<PassClientResult<T>> future = in_flight;
+
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+
+        // Request the next page and drain again when it completes
+        private void fetch() {
+            PassClientSelector<T> sel = new PassClientSelector<>(selector);
+            sel.setOffset(next_offset);
+
+            CompletableFuture<PassClientResult<T>> future = client.selectObjectsAsync(sel);
+            in_flight = future;
+
+            future.whenComplete((result, e) -> {
+                if (e != null) {
+                    error = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                } else {
+                    synchronized (buffer) {
+                        if (result == null || result.getObjects().isEmpty()) {
+                            exhausted = true;
+                        } else {
+                            buffer.addAll(result.getObjects());
+                            next_offset += selector.getLimit();
+                            total = result.getTotal();
+                            exhausted = total >= 0 && next_offset >= total;
+                        }
+                    }
+                }
+
+                in_flight = null;
+                drain();
+            });
+        }
+
+        // Deliver buffered objects up to demand, request a page if needed, and signal termination
+        void drain() {
+            if (work.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+
+            do {
+                if (!done) {
+                    drain_loop();
+                }
+
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain_loop() {
+            while (!cancelled) {
+                if (error != null) {
+                    done = true;
+                    cancel();
+                    subscriber.onError(error);
+                    return;
+                }
+
+                T next = null;
+                boolean empty;
+
+                synchronized (buffer) {
+                    empty = buffer.isEmpty();
+
+                    if (!empty && demand.get() > 0) {
+                        next = buffer.poll();
+                    }
+                }
+
+                if (next != null) {
+                    demand.decrementAndGet();
+                    subscriber.onNext(next);
+                    continue;
+                }
+
+                if (empty && exhausted) {
+                    done = true;
+                    subscriber.onComplete();
+                    return;
+                }
+
+                if (empty && demand.get() > 0 && in_flight == null) {
+                    fetch();
+
+                    // Completed synchronously, loop again to deliver the page
+                    if (in_flight == null) {
+                        continue;
+                    }
+                }
+
+                return;
+            }
+        }
+    }
+}
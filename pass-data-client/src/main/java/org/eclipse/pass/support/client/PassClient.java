@@ -16,8 +16,17 @@
 package org.eclipse.pass.support.client;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Spliterator;
-import java.util.function.Consumer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.BiFunction;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -30,20 +39,23 @@ import org.eclipse.pass.support.client.model.PassEntity;
 public interface PassClient {
     /**
      * Create a new PassClient configured by using system properties:
-     * pass.core.url, pass.core.user, and pass.core.password.
+     * pass.core.url, pass.core.user, and pass.core.password. The HTTP transport may be tuned
+     * with the pass.client.* properties described by {@link PassClientConfig}.
      *
      * @return new PassClient
      */
     public static PassClient newInstance() {
-        String url = System.getProperty("pass.core.url");
-        String user = System.getProperty("pass.core.user");
-        String pass = System.getProperty("pass.core.password");
-
-        if (url == null) {
-            throw new RuntimeException("Missing required system property: pass.core.url");
-        }
+        return new JsonApiPassClient(PassClientConfig.fromSystemProperties());
+    }
 
-        return new JsonApiPassClient(url, user, pass);
+    /**
+     * Create a new PassClient whose HTTP transport is tuned by the given configuration.
+     *
+     * @param config configuration of the client
+     * @return new PassClient
+     */
+    public static PassClient newInstance(PassClientConfig config) {
+        return new JsonApiPassClient(config);
     }
 
     /**
@@ -116,6 +128,70 @@ public interface PassClient {
         return (T) getObject(obj.getClass(), obj.getId(), include);
     }
 
+    /**
+     * Retrieve object with the given id using the type, include, and fields of a selector.
+     * The offset, limit, filter, and sorting of the selector are ignored. Attributes and relationships
+     * which are not in the fields of the selector are left unset.
+     * The default implementation retrieves all fields.
+     *
+     * @param <T> type of the object
+     * @param selector type, included relationships, and fields of the object
+     * @param id identifier of the object
+     * @return persisted object or null if it does not exist
+     * @throws IOException if operation fails
+     */
+    @SuppressWarnings("unchecked")
+    default <T extends PassEntity> T getObject(PassClientSelector<T> selector, String id) throws IOException {
+        return getObject((Class<T>) selector.getType(), id, selector.getInclude());
+    }
+
+    /**
+     * Retrieve objects with the given type and ids from the repository. The ids are split into chunks
+     * which are each retrieved with an id=in= filter. The chunks are retrieved concurrently if the client
+     * supports asynchronous selection. Duplicate ids are retrieved once.
+     *
+     * @param <T> type of the objects
+     * @param type Class of the objects
+     * @param ids identifiers of the objects
+     * @param include Array of relationship names whose targets will be included in response
+     * @return persisted objects in the order of the ids with null for any which do not exist
+     * @throws IOException if operation fails
+     */
+    default <T extends PassEntity> List<T> getObjects(Class<T> type, Collection<String> ids, String... include)
+            throws IOException {
+        Map<String, T> objects = new HashMap<>();
+        List<CompletableFuture<PassClientResult<T>>> chunks = Hydrator.select_ids(this, type,
+                new LinkedHashSet<>(ids), include);
+
+        for (PassClientResult<T> chunk : Hydrator.join(chunks)) {
+            // A chunk is null if the selection was not found
+            if (chunk != null) {
+                chunk.getObjects().forEach(o -> objects.put(o.getId(), o));
+            }
+        }
+
+        List<T> result = new ArrayList<>(ids.size());
+        ids.forEach(id -> result.add(objects.get(id)));
+
+        return result;
+    }
+
+    /**
+     * Replace the targets of relationships of the given objects with persisted objects. Relationship paths
+     * are relationship names which may be separated by a dot to continue from the targets of a relationship,
+     * such as "grants.pi". The distinct targets of each level of the paths are retrieved together with
+     * {@link #getObjects(Class, Collection, String...)} style selections which are all in flight at once.
+     * Every reference to the same persisted object, including the given objects, is made to the same instance.
+     * Targets which do not exist are left as they are.
+     *
+     * @param entities objects whose relationships are replaced
+     * @param relationshipPaths paths of relationships to replace
+     * @throws IOException if operation fails
+     */
+    default void hydrate(Collection<? extends PassEntity> entities, String... relationshipPaths) throws IOException {
+        new Hydrator(this).hydrate(entities, relationshipPaths);
+    }
+
     /**
      * Delete object with the given type and id.
      *
@@ -138,7 +214,8 @@ public interface PassClient {
     }
 
     /**
-     * Select objects from the repository matching the selector.
+     * Select objects from the repository matching the selector. Targets of relationships which are not
+     * included have only their identifier set, and matches with the same target may share one instance of it.
      *
      * @param <T> type of the object
      * @param selector which objects to retrieve
@@ -147,8 +224,223 @@ public interface PassClient {
      */
     <T extends PassEntity> PassClientResult<T> selectObjects(PassClientSelector<T> selector) throws IOException;
 
+    /**
+     * Count the objects in the repository matching the filter of the selector. The offset, limit, sorting,
+     * included relationships, and fields of the selector are ignored. The default implementation selects
+     * a single object with a single attribute and returns the total number of matches.
+     *
+     * @param <T> type of the object
+     * @param selector which objects to count
+     * @return number of matching objects or -1 if the total is not known
+     * @throws IOException if operation fails
+     */
+    @SuppressWarnings("unchecked")
+    default <T extends PassEntity> long countObjects(PassClientSelector<T> selector) throws IOException {
+        Class<T> type = (Class<T>) selector.getType();
+        PassClientSelector<T> count = new PassClientSelector<>(type, 0, 1, selector.getFilter(), null);
+        Iterator<String> attributes = EntityMetadata.of(type).getAttributes().keySet().iterator();
+
+        if (attributes.hasNext()) {
+            count.setFields(attributes.next());
+        }
+
+        return selectObjects(count).getTotal();
+    }
+
+    /**
+     * Execute a list of create, update, and delete operations in order.
+     * The ids of created objects are set as a side effect.
+     * Operations are not guaranteed to be executed as a single transaction.
+     * The default implementation executes each operation as a separate call.
+     *
+     * @param operations operations to execute
+     * @return identifiers of the objects affected by each operation
+     * @throws IOException if operation fails
+     */
+    default List<String> executeBatch(List<PassClientOperation> operations) throws IOException {
+        List<String> result = new ArrayList<>(operations.size());
+
+        for (PassClientOperation op : operations) {
+            switch (op.getAction()) {
+                case CREATE:
+                    createObject(op.getEntity());
+                    break;
+
+                case UPDATE:
+                    updateObject(op.getEntity());
+                    break;
+
+                case DELETE:
+                    deleteObject(op.getType(), op.getId());
+                    break;
+
+                default:
+                    throw new IllegalArgumentException("Unknown operation: " + op.getAction());
+            }
+
+            result.add(op.getId());
+        }
+
+        return result;
+    }
+
+    /**
+     * Create or update an object identified by a natural key, an attribute other than the id whose value
+     * identifies an object, such as a localKey. If the attribute is a collection, such as issns, objects
+     * sharing any value are the same object. If no persisted object matches, the object is created.
+     * Otherwise the merge function is called with the object and the persisted object. It returns the
+     * object to update or null if the persisted object does not need to be updated.
+     *
+     * @param <T> type of the object
+     * @param obj object to create or update
+     * @param naturalKeyField name of the natural key attribute
+     * @param merge merge function of the object and the persisted object
+     * @return the created, updated, or unchanged persisted object
+     * @throws IOException if operation fails or the object matches more than one persisted object
+     * @throws IllegalArgumentException if the natural key is not an attribute of the object
+     */
+    default <T extends PassEntity> T upsert(T obj, String naturalKeyField, BiFunction<T, T, T> merge)
+            throws IOException {
+        return upsertAll(List.of(obj), naturalKeyField, merge).get(0);
+    }
+
+    /**
+     * Create or update objects of the same type identified by a natural key as
+     * {@link #upsert(PassEntity, String, BiFunction)} does. The persisted objects matching all the natural keys
+     * are selected together and the needed creates and updates are executed as one batch with
+     * {@link #executeBatch(List)}. Objects earlier in the list are treated as persisted when matching later
+     * objects, so objects with the same natural key are merged into one.
+     *
+     * @param <T> type of the objects
+     * @param objects objects to create or update
+     * @param naturalKeyField name of the natural key attribute
+     * @param merge merge function of an object and the persisted object
+     * @return the created, updated, or unchanged persisted object for each object in order
+     * @throws IOException if operation fails or an object matches more than one persisted object
+     * @throws IllegalArgumentException if the natural key is not an attribute of the objects
+     */
+    @SuppressWarnings("unchecked")
+    default <T extends PassEntity> List<T> upsertAll(List<T> objects, String naturalKeyField,
+            BiFunction<T, T, T> merge) throws IOException {
+        if (objects.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Class<T> type = (Class<T>) objects.get(0).getClass();
+
+        return new Upserter<>(this, type, naturalKeyField).upsert(objects, merge);
+    }
+
+    /**
+     * @return new batch of operations to be executed by this client
+     */
+    default PassClientBatch batch() {
+        return new PassClientBatch(this);
+    }
+
+    /**
+     * Asynchronously create a new object.
+     * The id of the object must be null and will be set when the returned future completes.
+     * The default implementation performs the operation on the calling thread.
+     *
+     * @param <T> type of the object
+     * @param obj object to persist
+     * @return future which completes when the object is created
+     */
+    default <T extends PassEntity> CompletableFuture<Void> createObjectAsync(T obj) {
+        try {
+            createObject(obj);
+            return CompletableFuture.completedFuture(null);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Asynchronously update an existing object.
+     * The default implementation performs the operation on the calling thread.
+     *
+     * @param <T> type of the object
+     * @param obj object to update
+     * @return future which completes when the object is updated
+     */
+    default <T extends PassEntity> CompletableFuture<Void> updateObjectAsync(T obj) {
+        try {
+            updateObject(obj);
+            return CompletableFuture.completedFuture(null);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Asynchronously retrieve object with the given type and id from the repository.
+     * See {@link #getObject(Class, String, String...)}.
+     * The default implementation performs the operation on the calling thread.
+     *
+     * @param <T> type of the object
+     * @param type Class of the object
+     * @param id identifier of the object
+     * @param include Array of relationship names whose targets will be included in response
+     * @return future of the persisted object or null if it does not exist
+     */
+    default <T extends PassEntity> CompletableFuture<T> getObjectAsync(Class<T> type, String id,
+            String... include) {
+        try {
+            return CompletableFuture.completedFuture(getObject(type, id, include));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Asynchronously delete object with the given type and id.
+     * The default implementation performs the operation on the calling thread.
+     *
+     * @param <T> type of the object
+     * @param type type of the object
+     * @param id identifier of the object
+     * @return future which completes when the object is deleted
+     */
+    default <T extends PassEntity> CompletableFuture<Void> deleteObjectAsync(Class<T> type, String id) {
+        try {
+            deleteObject(type, id);
+            return CompletableFuture.completedFuture(null);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Asynchronously select objects from the repository matching the selector.
+     * The default implementation performs the operation on the calling thread.
+     *
+     * @param <T> type of the object
+     * @param selector which objects to retrieve
+     * @return future of matching objects
+     */
+    default <T extends PassEntity> CompletableFuture<PassClientResult<T>> selectObjectsAsync(
+            PassClientSelector<T> selector) {
+        try {
+            return CompletableFuture.completedFuture(selectObjects(selector));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     /**
      * Stream all objects in the repository matching the selector starting from the selector offset.
+     * If the selector has a keyset field, pages after the first are selected by that field rather than
+     * by offset.
+     * If the selector has a prefetch count, that many upcoming pages are retrieved in the background
+     * while the stream is consumed. Closing the stream cancels retrieval of those pages.
+     * Otherwise when the total number of matches is known, a parallel stream splits the remaining
+     * pages into ranges which are retrieved concurrently.
+     * If the selector has an adaptive limit and no prefetch count, the limit of each page after the first
+     * is adjusted to fit the response size or latency budget measured from the pages before it.
+     * If the filter has an =in= expression or a disjunction too large to send in one request, it is split into
+     * chunks which are streamed one after another as described above, with any object matched by more than
+     * one chunk streamed once. Sorting then applies within each chunk.
      *
      * @param <T> type of the object
      * @param selector which objects to retrieve
@@ -156,46 +448,37 @@ public interface PassClient {
      * @throws IOException if operation fails
      */
     default <T extends PassEntity> Stream<T> streamObjects(PassClientSelector<T> selector) throws IOException {
-        Spliterator<T> iter = new Spliterator<T>() {
-            PassClientResult<T> result = selectObjects(selector);
-            int next = 0;
+        List<PassClientSelector<T>> chunks = ChunkedSelection.split(selector);
 
-            @Override
-            public int characteristics() {
-                return NONNULL | CONCURRENT;
-            }
+        if (chunks != null) {
+            return ChunkedSelection.stream(this, selector, chunks);
+        }
 
-            @Override
-            public long estimateSize() {
-                return result.getTotal();
-            }
+        if (selector.getKeysetOn() != null) {
+            return StreamSupport.stream(new KeysetSpliterator<>(this, selector), false);
+        }
 
-            @Override
-            public boolean tryAdvance(Consumer<? super T> consumer) {
-                if (next == result.getObjects().size()) {
-                    try {
-                        selector.setOffset(selector.getOffset() + selector.getLimit());
-                        result = selectObjects(selector);
-                        next = 0;
-                    } catch (IOException e) {
-                        throw new RuntimeException(e);
-                    }
-
-                    if (result.getObjects().size() == 0) {
-                        return false;
-                    }
-                }
-
-                consumer.accept(result.getObjects().get(next++));
-                return true;
-            }
+        if (selector.getPrefetch() > 0) {
+            PrefetchingSpliterator<T> iter = new PrefetchingSpliterator<>(this, selector);
+            return StreamSupport.stream(iter, false).onClose(iter::cancel);
+        }
 
-            @Override
-            public Spliterator<T> trySplit() {
-                return null;
-            }
-        };
+        Spliterator<T> iter = new PageRangeSpliterator<>(this, selector);
 
         return StreamSupport.stream(iter, false);
     }
-}
\ No newline at end of file
+
+    /**
+     * Publish all objects in the repository matching the selector starting from the selector offset.
+     * Pages are retrieved with {@link #selectObjectsAsync(PassClientSelector)} only as subscribers request
+     * objects. Cancelling a subscription cancels the page being retrieved. Failures are signaled to the
+     * subscriber with onError.
+     *
+     * @param <T> type of the object
+     * @param selector which objects to retrieve, later changes to the selector have no effect
+     * @return Publisher of matching objects
+     */
+    default <T extends PassEntity> Flow.Publisher<T> publishObjects(PassClientSelector<T> selector) {
+        return new PagingPublisher<>(this, selector);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+
+/**
+ * PassClientBatch collects operations which are then executed together by a PassClient.
+ * Operations are executed in the order they are added.
+ */
+public class PassClientBatch {
+    private final PassClient client;
+    private final List<PassClientOperation> operations;
+
+    /**
+     * @param client client which executes the batch
+     */
+    public PassClientBatch(PassClient client) {
+        this.client = client;
+        this.operations = new ArrayList<>();
+    }
+
+    /**
+     * @param obj object to create
+     * @return this batch
+     */
+    public PassClientBatch create(PassEntity obj) {
+        operations.add(PassClientOperation.create(obj));
+        return this;
+    }
+
+    /**
+     * @param obj object to update
+     * @return this batch
+     */
+    public PassClientBatch update(PassEntity obj) {
+        operations.add(PassClientOperation.update(obj));
+        return this;
+    }
+
+    /**
+     * @param obj object to delete
+     * @return this batch
+     */
+    public PassClientBatch delete(PassEntity obj) {
+        operations.add(PassClientOperation.delete(obj));
+        return this;
+    }
+
+    /**
+     * @param type type of object to delete
+     * @param id identifier of object to delete
+     * @return this batch
+     */
+    public PassClientBatch delete(Class<? extends PassEntity> type, String id) {
+        operations.add(PassClientOperation.delete(type, id));
+        return this;
+    }
+
+    /**
+     * @return operations in the batch
+     */
+    public List<PassClientOperation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Execute all the operations in the batch.
+     *
+     * @return identifiers of the objects affected by each operation
+     * @throws IOException if operation fails
+     */
+    public List<String> execute() throws IOException {
+        return client.executeBatch(operations);
+    }
+}
@@ -0,0 +1,502 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.time.Duration;
+
+/**
+ * Settings of the HTTP transport used by a {@link JsonApiPassClient}. A configuration is created with a
+ * {@link Builder} or read from system properties with {@link #fromSystemProperties()}. Settings which are not
+ * given keep the defaults of OkHttp.
+ * <p>
+ * Responses are always requested with gzip compression and decompressed transparently. Request bodies are
+ * only compressed when a threshold is set, because the server must be configured to accept
+ * {@code Content-Encoding: gzip}.
+ * </p>
+ */
+public class PassClientConfig {
+    /** System property for the base url of the PASS API, required. */
+    public static final String URL_PROPERTY = "pass.core.url";
+
+    /** System property for the user to connect as. */
+    public static final String USER_PROPERTY = "pass.core.user";
+
+    /** System property for the password of the user. */
+    public static final String PASSWORD_PROPERTY = "pass.core.password";
+
+    /** System property for the maximum number of idle connections kept in the pool. */
+    public static final String MAX_IDLE_CONNECTIONS_PROPERTY = "pass.client.pool.max.idle";
+
+    /** System property for the number of milliseconds an idle connection is kept alive. */
+    public static final String KEEP_ALIVE_PROPERTY = "pass.client.pool.keep.alive.ms";
+
+    /** System property which when true connects with HTTP/2 without an upgrade (h2c). */
+    public static final String HTTP2_PRIOR_KNOWLEDGE_PROPERTY = "pass.client.http2.prior.knowledge";
+
+    /** System property for the minimum size in bytes of a request body which is gzip compressed. */
+    public static final String GZIP_REQUEST_THRESHOLD_PROPERTY = "pass.client.gzip.request.threshold";
+
+    /** System property for the connect timeout in milliseconds. */
+    public static final String CONNECT_TIMEOUT_PROPERTY = "pass.client.connect.timeout.ms";
+
+    /** System property for the read timeout in milliseconds. */
+    public static final String READ_TIMEOUT_PROPERTY = "pass.client.read.timeout.ms";
+
+    /** System property for the write timeout in milliseconds. */
+    public static final String WRITE_TIMEOUT_PROPERTY = "pass.client.write.timeout.ms";
+
+    /** System property for the timeout of a complete call in milliseconds. */
+    public static final String CALL_TIMEOUT_PROPERTY = "pass.client.call.timeout.ms";
+
+    /** System property for the maximum number of asynchronous requests executing at once. */
+    public static final String MAX_REQUESTS_PROPERTY = "pass.client.dispatcher.max.requests";
+
+    /** System property for the maximum number of asynchronous requests executing at once against one host. */
+    public static final String MAX_REQUESTS_PER_HOST_PROPERTY = "pass.client.dispatcher.max.requests.per.host";
+
+    /** System property which when false disables the concurrency limiter. */
+    public static final String CONCURRENCY_LIMIT_ENABLED_PROPERTY = "pass.client.concurrency.limit.enabled";
+
+    /** System property for the initial number of requests allowed in flight by a limiter of this client. */
+    public static final String CONCURRENCY_LIMIT_INITIAL_PROPERTY = "pass.client.concurrency.limit.initial";
+
+    /** System property for the minimum number of requests allowed in flight by a limiter of this client. */
+    public static final String CONCURRENCY_LIMIT_MIN_PROPERTY = "pass.client.concurrency.limit.min";
+
+    /** System property for the maximum number of requests allowed in flight by a limiter of this client. */
+    public static final String CONCURRENCY_LIMIT_MAX_PROPERTY = "pass.client.concurrency.limit.max";
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int max_idle_connections;
+    private final Duration keep_alive;
+    private final boolean http2_prior_knowledge;
+    private final long gzip_request_threshold;
+    private final Duration connect_timeout;
+    private final Duration read_timeout;
+    private final Duration write_timeout;
+    private final Duration call_timeout;
+    private final int max_requests;
+    private final int max_requests_per_host;
+    private final AdaptiveConcurrencyLimiter concurrency_limiter;
+
+    private PassClientConfig(Builder builder) {
+        this.url = builder.url;
+        this.user = builder.user;
+        this.password = builder.password;
+        this.max_idle_connections = builder.max_idle_connections;
+        this.keep_alive = builder.keep_alive;
+        this.http2_prior_knowledge = builder.http2_prior_knowledge;
+        this.gzip_request_threshold = builder.gzip_request_threshold;
+        this.connect_timeout = builder.connect_timeout;
+        this.read_timeout = builder.read_timeout;
+        this.write_timeout = builder.write_timeout;
+        this.call_timeout = builder.call_timeout;
+        this.max_requests = builder.max_requests;
+        this.max_requests_per_host = builder.max_requests_per_host;
+        this.concurrency_limiter = builder.concurrency_limiter;
+    }
+
+    /**
+     * @param url base url of PASS API
+     * @return new builder
+     */
+    public static Builder builder(String url) {
+        return new Builder(url);
+    }
+
+    /**
+     * Read a configuration from the system properties named by the constants of this class.
+     *
+     * @return new configuration
+     * @throws RuntimeException if pass.core.url is not set
+     * @throws IllegalArgumentException if a property has an invalid value
+     */
+    public static PassClientConfig fromSystemProperties() {
+        String url = System.getProperty(URL_PROPERTY);
+
+        if (url == null) {
+            throw new RuntimeException("Missing required system property: " + URL_PROPERTY);
+        }
+
+        Builder builder = builder(url).credentials(System.getProperty(USER_PROPERTY),
+                System.getProperty(PASSWORD_PROPERTY));
+
+        Long value;
+
+        if ((value = long_property(MAX_IDLE_CONNECTIONS_PROPERTY)) != null) {
+            builder.maxIdleConnections(value.intValue());
+        }
+
+        if ((value = long_property(KEEP_ALIVE_PROPERTY)) != null) {
+            builder.keepAlive(Duration.ofMillis(value));
+        }
+
+        String prior_knowledge = System.getProperty(HTTP2_PRIOR_KNOWLEDGE_PROPERTY);
+
+        if (prior_knowledge != null) {
+            builder.http2PriorKnowledge(Boolean.parseBoolean(prior_knowledge.trim()));
+        }
+
+        if ((value = long_property(GZIP_REQUEST_THRESHOLD_PROPERTY)) != null) {
+            builder.gzipRequestThreshold(value);
+        }
+
+        if ((value = long_property(CONNECT_TIMEOUT_PROPERTY)) != null) {
+            builder.connectTimeout(Duration.ofMillis(value));
+        }
+
+        if ((value = long_property(READ_TIMEOUT_PROPERTY)) != null) {
+            builder.readTimeout(Duration.ofMillis(value));
+        }
+
+        if ((value = long_property(WRITE_TIMEOUT_PROPERTY)) != null) {
+            builder.writeTimeout(Duration.ofMillis(value));
+        }
+
+        if ((value = long_property(CALL_TIMEOUT_PROPERTY)) != null) {
+            builder.callTimeout(Duration.ofMillis(value));
+        }
+
+        if ((value = long_property(MAX_REQUESTS_PROPERTY)) != null) {
+            builder.maxRequests(value.intValue());
+        }
+
+        if ((value = long_property(MAX_REQUESTS_PER_HOST_PROPERTY)) != null) {
+            builder.maxRequestsPerHost(value.intValue());
+        }
+
+        String limit_enabled = System.getProperty(CONCURRENCY_LIMIT_ENABLED_PROPERTY);
+        Long initial_limit = long_property(CONCURRENCY_LIMIT_INITIAL_PROPERTY);
+        Long min_limit = long_property(CONCURRENCY_LIMIT_MIN_PROPERTY);
+        Long max_limit = long_property(CONCURRENCY_LIMIT_MAX_PROPERTY);
+
+        if (limit_enabled != null && !Boolean.parseBoolean(limit_enabled.trim())) {
+            builder.concurrencyLimiter(null);
+        } else if (initial_limit != null || min_limit != null || max_limit != null) {
+            // Limits which are not given default to those of the shared limiter
+            builder.concurrencyLimiter(new AdaptiveConcurrencyLimiter(
+                    initial_limit == null ? 20 : initial_limit.intValue(),
+                    min_limit == null ? 1 : min_limit.intValue(),
+                    max_limit == null ? 200 : max_limit.intValue()));
+        }
+
+        return builder.build();
+    }
+
+    private static Long long_property(String name) {
+        String value = System.getProperty(name);
+
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value of system property " + name + ": " + value, e);
+        }
+    }
+
+    /**
+     * @return base url of PASS API
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return user to connect as or null
+     */
+    public String getUser() {
+        return user;
+    }
+
+    /**
+     * @return password of user or null
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * @return maximum number of idle connections kept in the pool
+     */
+    public int getMaxIdleConnections() {
+        return max_idle_connections;
+    }
+
+    /**
+     * @return how long an idle connection is kept in the pool
+     */
+    public Duration getKeepAlive() {
+        return keep_alive;
+    }
+
+    /**
+     * @return whether HTTP/2 is spoken without an upgrade (h2c)
+     */
+    public boolean isHttp2PriorKnowledge() {
+        return http2_prior_knowledge;
+    }
+
+    /**
+     * @return minimum size in bytes of a request body which is gzip compressed or -1 if never compressed
+     */
+    public long getGzipRequestThreshold() {
+        return gzip_request_threshold;
+    }
+
+    /**
+     * @return connect timeout, zero for none
+     */
+    public Duration getConnectTimeout() {
+        return connect_timeout;
+    }
+
+    /**
+     * @return read timeout, zero for none
+     */
+    public Duration getReadTimeout() {
+        return read_timeout;
+    }
+
+    /**
+     * @return write timeout, zero for none
+     */
+    public Duration getWriteTimeout() {
+        return write_timeout;
+    }
+
+    /**
+     * @return timeout of a complete call, zero for none
+     */
+    public Duration getCallTimeout() {
+        return call_timeout;
+    }
+
+    /**
+     * @return maximum number of asynchronous requests executing at once
+     */
+    public int getMaxRequests() {
+        return max_requests;
+    }
+
+    /**
+     * @return maximum number of asynchronous requests executing at once against one host
+     */
+    public int getMaxRequestsPerHost() {
+        return max_requests_per_host;
+    }
+
+    /**
+     * @return limiter of the number of requests in flight or null if not limited
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrency_limiter;
+    }
+
+    /**
+     * Builder of a configuration. The defaults are those of OkHttp.
+     */
+    public static class Builder {
+        private final String url;
+        private String user;
+        private String password;
+        private int max_idle_connections = 5;
+        private Duration keep_alive = Duration.ofMinutes(5);
+        private boolean http2_prior_knowledge = false;
+        private long gzip_request_threshold = -1;
+        private Duration connect_timeout = Duration.ofSeconds(10);
+        private Duration read_timeout = Duration.ofSeconds(10);
+        private Duration write_timeout = Duration.ofSeconds(10);
+        private Duration call_timeout = Duration.ZERO;
+        private int max_requests = 64;
+        private int max_requests_per_host = 5;
+        private AdaptiveConcurrencyLimiter concurrency_limiter = AdaptiveConcurrencyLimiter.shared();
+
+        private Builder(String url) {
+            if (url == null) {
+                throw new IllegalArgumentException("Url must not be null");
+            }
+
+            this.url = url;
+        }
+
+        /**
+         * Use HTTP basic auth. Auth is only used if both user and password are not null.
+         *
+         * @param user user to connect as
+         * @param password password of user
+         * @return this builder
+         */
+        public Builder credentials(String user, String password) {
+            this.user = user;
+            this.password = password;
+            return this;
+        }
+
+        /**
+         * @param max maximum number of idle connections kept in the pool, default 5
+         * @return this builder
+         */
+        public Builder maxIdleConnections(int max) {
+            if (max < 0) {
+                throw new IllegalArgumentException("Invalid maximum idle connections: " + max);
+            }
+
+            this.max_idle_connections = max;
+            return this;
+        }
+
+        /**
+         * @param keep_alive how long an idle connection is kept in the pool, default 5 minutes
+         * @return this builder
+         */
+        public Builder keepAlive(Duration keep_alive) {
+            if (keep_alive.isNegative() || keep_alive.isZero()) {
+                throw new IllegalArgumentException("Invalid keep alive: " + keep_alive);
+            }
+
+            this.keep_alive = keep_alive;
+            return this;
+        }
+
+        /**
+         * Speak HTTP/2 without an upgrade (h2c) to a backend which only accepts cleartext HTTP/2.
+         * Requires an http url. HTTPS negotiates HTTP/2 with ALPN without this setting.
+         *
+         * @param prior_knowledge whether to assume the server speaks HTTP/2, default false
+         * @return this builder
+         */
+        public Builder http2PriorKnowledge(boolean prior_knowledge) {
+            this.http2_prior_knowledge = prior_knowledge;
+            return this;
+        }
+
+        /**
+         * Compress POST and PATCH request bodies of at least the given size with gzip. The server must accept
+         * {@code Content-Encoding: gzip} on requests.
+         *
+         * @param threshold minimum size in bytes of a compressed body or -1 to never compress, default -1
+         * @return this builder
+         */
+        public Builder gzipRequestThreshold(long threshold) {
+            if (threshold < -1) {
+                throw new IllegalArgumentException("Invalid gzip request threshold: " + threshold);
+            }
+
+            this.gzip_request_threshold = threshold;
+            return this;
+        }
+
+        /**
+         * @param timeout connect timeout, zero for none, default 10 seconds
+         * @return this builder
+         */
+        public Builder connectTimeout(Duration timeout) {
+            this.connect_timeout = check_timeout(timeout);
+            return this;
+        }
+
+        /**
+         * @param timeout read timeout, zero for none, default 10 seconds
+         * @return this builder
+         */
+        public Builder readTimeout(Duration timeout) {
+            this.read_timeout = check_timeout(timeout);
+            return this;
+        }
+
+        /**
+         * @param timeout write timeout, zero for none, default 10 seconds
+         * @return this builder
+         */
+        public Builder writeTimeout(Duration timeout) {
+            this.write_timeout = check_timeout(timeout);
+            return this;
+        }
+
+        /**
+         * @param timeout timeout of a complete call including redirects and retries, zero for none, default none
+         * @return this builder
+         */
+        public Builder callTimeout(Duration timeout) {
+            this.call_timeout = check_timeout(timeout);
+            return this;
+        }
+
+        private static Duration check_timeout(Duration timeout) {
+            if (timeout.isNegative()) {
+                throw new IllegalArgumentException("Invalid timeout: " + timeout);
+            }
+
+            return timeout;
+        }
+
+        /**
+         * @param max maximum number of asynchronous requests executing at once, default 64
+         * @return this builder
+         */
+        public Builder maxRequests(int max) {
+            if (max < 1) {
+                throw new IllegalArgumentException("Invalid maximum requests: " + max);
+            }
+
+            this.max_requests = max;
+            return this;
+        }
+
+        /**
+         * @param max maximum number of asynchronous requests executing at once against one host, default 5
+         * @return this builder
+         */
+        public Builder maxRequestsPerHost(int max) {
+            if (max < 1) {
+                throw new IllegalArgumentException("Invalid maximum requests per host: " + max);
+            }
+
+            this.max_requests_per_host = max;
+            return this;
+        }
+
+        /**
+         * Limit the number of requests in flight with the given limiter. Requests wait for the limiter before
+         * they are handed to OkHttp. Clients given the same limiter are limited together.
+         *
+         * @param limiter limiter to use or null to not limit requests, default {@link
+         *     AdaptiveConcurrencyLimiter#shared()}
+         * @return this builder
+         */
+        public Builder concurrencyLimiter(AdaptiveConcurrencyLimiter limiter) {
+            this.concurrency_limiter = limiter;
+            return this;
+        }
+
+        /**
+         * @return new configuration
+         * @throws IllegalArgumentException if HTTP/2 prior knowledge is requested for an https url
+         */
+        public PassClientConfig build() {
+            if (http2_prior_knowledge && url.regionMatches(true, 0, "https:", 0, 6)) {
+                throw new IllegalArgumentException("HTTP/2 prior knowledge requires an http url: " + url);
+            }
+
+            return new PassClientConfig(this);
+        }
+    }
+}
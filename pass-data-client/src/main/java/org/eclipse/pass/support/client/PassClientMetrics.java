@@ -0,0 +1,270 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+
+/**
+ * Records metrics about the requests made by a {@link JsonApiPassClient} to a Micrometer registry.
+ * Micrometer is an optional dependency of this library which must be provided by applications using this class.
+ * <p>
+ * The following meters are recorded:
+ * </p>
+ * <ul>
+ * <li>pass.client.requests: timer of each operation tagged by operation, type, and HTTP status</li>
+ * <li>pass.client.response.bytes: summary of response body sizes tagged by operation and type</li>
+ * <li>pass.client.decode: timer of reading and decoding response bodies tagged by operation and type</li>
+ * <li>pass.client.page.objects: summary of the number of objects in each selected page tagged by type</li>
+ * <li>pass.client.page.limit: summary of the page limit requested for each selected page tagged by type</li>
+ * <li>pass.client.http.dns, pass.client.http.connect, pass.client.http.tls, pass.client.http.ttfb: timers of
+ * DNS lookup, connection, TLS handshake, and time from sending a request to the first response byte</li>
+ * <li>pass.client.concurrency.limit and pass.client.concurrency.inflight: gauges of the
+ * {@link AdaptiveConcurrencyLimiter} of a {@link JsonApiPassClient} given these metrics, if it has one</li>
+ * <li>pass.client.coalescing.requests, pass.client.coalescing.coalesced, and pass.client.coalescing.ratio:
+ * gauges of a {@link CoalescingPassClient} given these metrics</li>
+ * </ul>
+ * <p>
+ * Percentile histograms are published for the request, decode, and time to first byte timers and for the
+ * response size, page objects, and page limit summaries.
+ * </p>
+ */
+public class PassClientMetrics {
+    private final MeterRegistry registry;
+
+    /**
+     * @param registry registry to record metrics to
+     */
+    public PassClientMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * @return metrics recorded to a new in memory registry
+     */
+    public static PassClientMetrics simple() {
+        return new PassClientMetrics(new SimpleMeterRegistry());
+    }
+
+    /**
+     * @return registry metrics are recorded to
+     */
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Record a completed request.
+     *
+     * @param operation name of the operation
+     * @param type JSON API type of the objects or null if not applicable
+     * @param status HTTP status code or -1 if no response was received
+     * @param nanos time taken including handling the response
+     */
+    void recordRequest(String operation, String type, int status, long nanos) {
+        String status_value = status == -1 ? "IO_ERROR" : "" + status;
+
+        Timer.builder("pass.client.requests").description("PASS client operations")
+                .tags("operation", operation, "type", tag_value(type), "status", status_value)
+                .publishPercentileHistogram().register(registry).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record a decoded response body.
+     *
+     * @param operation name of the operation
+     * @param type JSON API type of the objects
+     * @param bytes size of the response body
+     * @param nanos time taken to read and decode the body
+     */
+    void recordResponse(String operation, String type, long bytes, long nanos) {
+        DistributionSummary.builder("pass.client.response.bytes").description("Response body size")
+                .baseUnit("bytes").tags("operation", operation, "type", tag_value(type))
+                .publishPercentileHistogram().register(registry).record(bytes);
+        Timer.builder("pass.client.decode").description("Time to read and decode response bodies")
+                .tags("operation", operation, "type", tag_value(type))
+                .publishPercentileHistogram().register(registry).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record a selected page.
+     *
+     * @param type JSON API type of the objects
+     * @param objects number of objects in the page
+     */
+    void recordPage(String type, int objects) {
+        DistributionSummary.builder("pass.client.page.objects").description("Objects per selected page")
+                .tags("type", tag_value(type)).publishPercentileHistogram().register(registry).record(objects);
+    }
+
+    /**
+     * Record the page limit requested for a selected page.
+     *
+     * @param type JSON API type of the objects
+     * @param limit maximum number of objects requested
+     */
+    void recordPageLimit(String type, int limit) {
+        DistributionSummary.builder("pass.client.page.limit").description("Page limit of selected pages")
+                .tags("type", tag_value(type)).publishPercentileHistogram().register(registry).record(limit);
+    }
+
+    /**
+     * Register gauges of a concurrency limiter.
+     *
+     * @param limiter limiter whose requests are measured
+     */
+    void registerLimiter(AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("pass.client.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Number of requests allowed in flight").register(registry);
+        Gauge.builder("pass.client.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Number of requests in flight").register(registry);
+    }
+
+    /**
+     * Register gauges of the reads of a coalescing client.
+     *
+     * @param client client whose reads are measured
+     */
+    void registerCoalescing(CoalescingPassClient client) {
+        Gauge.builder("pass.client.coalescing.requests", client, CoalescingPassClient::getRequestCount)
+                .description("Reads requested from a coalescing client").register(registry);
+        Gauge.builder("pass.client.coalescing.coalesced", client, CoalescingPassClient::getCoalescedCount)
+                .description("Reads which shared a call already in flight").register(registry);
+        Gauge.builder("pass.client.coalescing.ratio", client, CoalescingPassClient::getCoalescingRatio)
+                .description("Fraction of reads which shared a call already in flight").register(registry);
+    }
+
+    private static String tag_value(String value) {
+        return value == null ? "none" : value;
+    }
+
+    private void record_phase(String name, long start, long end, boolean histogram) {
+        if (start >= 0 && end >= start) {
+            Timer.builder("pass.client.http." + name).publishPercentileHistogram(histogram).register(registry)
+                    .record(end - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @return listener which records the phases of a single HTTP call
+     */
+    EventListener newEventListener() {
+        return new EventListener() {
+            // When the request was last fully sent
+            private long request_end = -1;
+            private long dns_start = -1;
+            private long connect_start = -1;
+            private long tls_start = -1;
+
+            @Override
+            public void dnsStart(Call call, String domainName) {
+                dns_start = System.nanoTime();
+            }
+
+            @Override
+            public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+                record_phase("dns", dns_start, System.nanoTime(), false);
+            }
+
+            @Override
+            public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+                connect_start = System.nanoTime();
+            }
+
+            @Override
+            public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+                record_phase("connect", connect_start, System.nanoTime(), false);
+            }
+
+            @Override
+            public void secureConnectStart(Call call) {
+                tls_start = System.nanoTime();
+            }
+
+            @Override
+            public void secureConnectEnd(Call call, Handshake handshake) {
+                record_phase("tls", tls_start, System.nanoTime(), false);
+            }
+
+            @Override
+            public void requestHeadersEnd(Call call, Request request) {
+                request_end = System.nanoTime();
+            }
+
+            @Override
+            public void requestBodyEnd(Call call, long byteCount) {
+                request_end = System.nanoTime();
+            }
+
+            @Override
+            public void responseHeadersStart(Call call) {
+                record_phase("ttfb", request_end, System.nanoTime(), true);
+                request_end = -1;
+            }
+        };
+    }
+
+    /**
+     * @return human readable summary of all recorded meters sorted by name and tags
+     */
+    public String dump() {
+        StringBuilder result = new StringBuilder();
+
+        registry.getMeters().stream().sorted(Comparator.comparing((Meter m) -> m.getId().getName())
+                .thenComparing(m -> m.getId().getTags().toString())).forEach(meter -> {
+                    result.append(meter.getId().getName());
+
+                    List<Tag> tags = meter.getId().getTags();
+
+                    if (!tags.isEmpty()) {
+                        result.append('{');
+                        for (int i = 0; i < tags.size(); i++) {
+                            if (i > 0) {
+                                result.append(',');
+                            }
+                            result.append(tags.get(i).getKey()).append('=').append(tags.get(i).getValue());
+                        }
+                        result.append('}');
+                    }
+
+                    meter.measure().forEach(m -> {
+                        result.append(' ').append(m.getStatistic().getTagValueRepresentation()).append('=')
+                                .append(m.getValue());
+                    });
+
+                    result.append('\n');
+                });
+
+        return result.toString();
+    }
+}
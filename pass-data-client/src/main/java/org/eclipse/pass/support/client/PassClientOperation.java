@@ -0,0 +1,119 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+
+/**
+ * PassClientOperation represents a create, update, or delete of an object which is
+ * executed as part of a batch. See {@link PassClient#executeBatch(java.util.List)}.
+ */
+public class PassClientOperation {
+    /**
+     * Kind of change made by an operation.
+     */
+    public enum Action {
+        /**
+         * Create a new object.
+         */
+        CREATE,
+
+        /**
+         * Update an existing object.
+         */
+        UPDATE,
+
+        /**
+         * Delete an existing object.
+         */
+        DELETE
+    }
+
+    private final Action action;
+    private final PassEntity entity;
+    private final Class<? extends PassEntity> type;
+    private final String id;
+
+    private PassClientOperation(Action action, PassEntity entity, Class<? extends PassEntity> type, String id) {
+        this.action = action;
+        this.entity = entity;
+        this.type = type;
+        this.id = id;
+    }
+
+    /**
+     * The id of the object must be null and will be set when the operation is executed.
+     *
+     * @param obj object to create
+     * @return operation which creates the object
+     */
+    public static PassClientOperation create(PassEntity obj) {
+        return new PassClientOperation(Action.CREATE, obj, obj.getClass(), null);
+    }
+
+    /**
+     * @param obj object to update
+     * @return operation which updates the object
+     */
+    public static PassClientOperation update(PassEntity obj) {
+        return new PassClientOperation(Action.UPDATE, obj, obj.getClass(), obj.getId());
+    }
+
+    /**
+     * @param obj object to delete
+     * @return operation which deletes the object
+     */
+    public static PassClientOperation delete(PassEntity obj) {
+        return delete(obj.getClass(), obj.getId());
+    }
+
+    /**
+     * @param type type of the object
+     * @param id identifier of the object
+     * @return operation which deletes the object
+     */
+    public static PassClientOperation delete(Class<? extends PassEntity> type, String id) {
+        return new PassClientOperation(Action.DELETE, null, type, id);
+    }
+
+    /**
+     * @return kind of change made by the operation
+     */
+    public Action getAction() {
+        return action;
+    }
+
+    /**
+     * @return object to create or update or null for a delete
+     */
+    public PassEntity getEntity() {
+        return entity;
+    }
+
+    /**
+     * @return type of the object
+     */
+    public Class<? extends PassEntity> getType() {
+        return type;
+    }
+
+    /**
+     * @return identifier of the object, for a create the identifier set when the operation was executed
+     */
+    public String getId() {
+        return entity == null ? id : entity.getId();
+    }
+}
@@ -25,14 +25,37 @@ import org.eclipse.pass.support.client.model.PassEntity;
 public class PassClientResult<T extends PassEntity> {
     private final List<T> entities;
     private final long total;
+    private final long response_bytes;
+    private final long response_nanos;
 
     /**
      * @param entities matching objects
      * @param total number of total matches
      */
     public PassClientResult(List<T> entities, long total) {
+        this(entities, total, -1);
+    }
+
+    /**
+     * @param entities matching objects
+     * @param total number of total matches
+     * @param response_bytes size of the response body the matches were decoded from or -1 if not known
+     */
+    public PassClientResult(List<T> entities, long total, long response_bytes) {
+        this(entities, total, response_bytes, -1);
+    }
+
+    /**
+     * @param entities matching objects
+     * @param total number of total matches
+     * @param response_bytes size of the response body the matches were decoded from or -1 if not known
+     * @param response_nanos time from sending the request to reading the response or -1 if not known
+     */
+    public PassClientResult(List<T> entities, long total, long response_bytes, long response_nanos) {
         this.entities = entities;
         this.total = total;
+        this.response_bytes = response_bytes;
+        this.response_nanos = response_nanos;
     }
 
     /**
@@ -48,4 +71,21 @@ public class PassClientResult<T extends PassEntity> {
     public List<T> getObjects() {
         return entities;
     }
+
+    /**
+     * @return Size of the response body the matches were decoded from or -1 if not known.
+     */
+    public long getResponseBytes() {
+        return response_bytes;
+    }
+
+    /**
+     * The time spent exchanging the request and response with the server. Time waiting to send the request,
+     * such as for a concurrency limit or a connection, is not included.
+     *
+     * @return Time in nanoseconds from sending the request to reading the response or -1 if not known.
+     */
+    public long getResponseNanos() {
+        return response_nanos;
+    }
 }
@@ -15,6 +15,10 @@
  */
 package org.eclipse.pass.support.client;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.eclipse.pass.support.client.model.PassEntity;
 
 /**
@@ -31,7 +35,12 @@ public class PassClientSelector<T extends PassEntity> {
     private Class<T> type;
     private String sorting;
     private String filter;
+    private RSQLExpression filter_expression;
     private String[] include;
+    private int prefetch;
+    private String keyset;
+    private AdaptivePageLimit adaptive_limit;
+    private Map<Class<? extends PassEntity>, String[]> fields;
 
     /**
      * Match all objects of the given type.
@@ -59,6 +68,26 @@ public class PassClientSelector<T extends PassEntity> {
         this.filter = filter;
         this.sorting = sorting;
         this.include = include;
+        this.fields = new LinkedHashMap<>();
+    }
+
+    /**
+     * Copy constructor, this will copy the values of the selector provided into the new selector.
+     *
+     * @param selector the selector to copy
+     */
+    public PassClientSelector(PassClientSelector<T> selector) {
+        this.offset = selector.offset;
+        this.limit = selector.limit;
+        this.type = selector.type;
+        this.filter = selector.filter;
+        this.filter_expression = selector.filter_expression;
+        this.sorting = selector.sorting;
+        this.include = selector.include;
+        this.prefetch = selector.prefetch;
+        this.keyset = selector.keyset;
+        this.adaptive_limit = selector.adaptive_limit;
+        this.fields = new LinkedHashMap<>(selector.fields);
     }
 
     /**
@@ -129,6 +158,25 @@ public class PassClientSelector<T extends PassEntity> {
      */
     public void setFilter(String filter) {
         this.filter = filter;
+        this.filter_expression = null;
+    }
+
+    /**
+     * @return typed RSQL expression to filter matches or null if there is none or the filter was set as a string
+     */
+    public RSQLExpression getFilterExpression() {
+        return filter_expression;
+    }
+
+    /**
+     * Set the filter to a typed RSQL expression. The filter can then be evaluated locally and the
+     * serialized form of the expression is reused by every request made with the selector.
+     *
+     * @param filter to set or null for no filter
+     */
+    public void setFilterExpression(RSQLExpression filter) {
+        this.filter = filter == null ? null : filter.toString();
+        this.filter_expression = filter;
     }
 
     /**
@@ -144,4 +192,94 @@ public class PassClientSelector<T extends PassEntity> {
     public void setInclude(String... include) {
         this.include = include;
     }
+
+    /**
+     * @return number of upcoming pages retrieved in the background when streaming
+     */
+    public int getPrefetch() {
+        return prefetch;
+    }
+
+    /**
+     * Set the number of upcoming pages to retrieve in the background while a stream of
+     * matches is consumed. The default of 0 retrieves each page only when it is needed.
+     *
+     * @param prefetch to set
+     */
+    public void setPrefetch(int prefetch) {
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * @return field used for keyset pagination or null if offset pagination is used
+     */
+    public String getKeysetOn() {
+        return keyset;
+    }
+
+    /**
+     * Stream matches using keyset pagination on the given field instead of increasing the offset.
+     * Each page after the first is selected by adding a condition that the field is greater than the
+     * value of the field in the last match of the previous page and matches are sorted by the field.
+     * The field must have a unique value for every object such as id.
+     *
+     * @param keyset field to use or null to use offset pagination
+     */
+    public void setKeysetOn(String keyset) {
+        this.keyset = keyset;
+    }
+
+    /**
+     * @return how the page limit adapts while streaming or null if the limit is fixed
+     */
+    public AdaptivePageLimit getAdaptiveLimit() {
+        return adaptive_limit;
+    }
+
+    /**
+     * Adapt the page limit while streaming matches so that pages fit a response size or latency budget.
+     * The first page uses the limit of this selector. Pages retrieved in the background because of a
+     * prefetch count use the limit of this selector.
+     *
+     * @param adaptive_limit how the page limit adapts or null to use a fixed limit
+     */
+    public void setAdaptiveLimit(AdaptivePageLimit adaptive_limit) {
+        this.adaptive_limit = adaptive_limit;
+    }
+
+    /**
+     * @return fields to retrieve for each type, types which are not present have all fields retrieved
+     */
+    public Map<Class<? extends PassEntity>, String[]> getFields() {
+        return Collections.unmodifiableMap(fields);
+    }
+
+    /**
+     * Only retrieve the given attributes and relationships of matches. Fields which are not
+     * retrieved are left unset. Objects retrieved this way may be used to update the repository by a
+     * {@link JsonApiPassClient} with change tracking enabled, which only sends the fields changed since
+     * retrieval and so leaves fields which were not retrieved alone. A field which was not retrieved cannot
+     * be cleared by setting it to null. Without change tracking, or once the client no longer tracks the
+     * object, every field is sent and fields which were not retrieved would be cleared.
+     *
+     * @param fields names of attributes and relationships to retrieve or none to retrieve all
+     */
+    public void setFields(String... fields) {
+        setFields(type, fields);
+    }
+
+    /**
+     * Only retrieve the given attributes and relationships of objects of the given type. This can be used
+     * to restrict the fields of included objects.
+     *
+     * @param type type of object
+     * @param fields names of attributes and relationships to retrieve or none to retrieve all
+     */
+    public void setFields(Class<? extends PassEntity> type, String... fields) {
+        if (fields == null || fields.length == 0) {
+            this.fields.remove(type);
+        } else {
+            this.fields.put(type, fields);
+        }
+    }
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+
+/**
+ * Spliterator over the objects matching a selector which keeps a bounded number of
+ * upcoming pages in flight while the current page is consumed.
+ *
+ * @param <T> type of the object
+ */
+class PrefetchingSpliterator<T extends PassEntity> implements Spliterator<T> {
+    private final PassClient client;
+    private final PassClientSelector<T> selector;
+    private final Deque<CompletableFuture<PassClientResult<T>>> pending;
+    private final long total;
+    // Number of matches not yet returned or -1 if not known
+    private long remaining;
+    private int next_offset;
+    private List<T> page;
+    private int next;
+
+    /**
+     * Retrieves the first page and starts retrieving upcoming pages.
+     *
+     * @param client client used to retrieve pages
+     * @param selector which objects to retrieve, the selector is not modified
+     * @throws IOException if retrieving the first page fails
+     */
+    PrefetchingSpliterator(PassClient client, PassClientSelector<T> selector) throws IOException {
+        this.client = client;
+        this.selector = new PassClientSelector<>(selector);
+        this.pending = new ArrayDeque<>();
+
+        PassClientResult<T> result = client.selectObjects(this.selector);
+
+        this.page = result.getObjects();
+        this.total = result.getTotal();
+        this.remaining = total < 0 ? -1 : Math.max(0, total - selector.getOffset());
+        this.next_offset = selector.getOffset() + selector.getLimit();
+        this.next = 0;
+
+        fill();
+    }
+
+    // Request pages until the maximum number of pages are in flight or all matches are requested
+    private void fill() {
+        if (page.size() == 0) {
+            return;
+        }
+
+        while (pending.size() < selector.getPrefetch() && (total < 0 || next_offset < total)) {
+            PassClientSelector<T> sel = new PassClientSelector<>(selector);
+            sel.setOffset(next_offset);
+
+            pending.add(client.selectObjectsAsync(sel));
+            next_offset += selector.getLimit();
+        }
+    }
+
+    private List<T> take() {
+        try {
+            PassClientResult<T> result = pending.remove().join();
+            return result == null ? Collections.emptyList() : result.getObjects();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Cancel any pages in flight.
+     */
+    void cancel() {
+        pending.forEach(f -> f.cancel(true));
+        pending.clear();
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> consumer) {
+        if (next == page.size()) {
+            if (pending.isEmpty()) {
+                return false;
+            }
+
+            try {
+                page = take();
+            } catch (CancellationException e) {
+                page = Collections.emptyList();
+            }
+
+            next = 0;
+
+            if (page.size() == 0) {
+                cancel();
+                return false;
+            }
+
+            fill();
+        }
+
+        if (remaining > 0) {
+            remaining--;
+        }
+
+        consumer.accept(page.get(next++));
+        return true;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return remaining < 0 ? Long.MAX_VALUE : remaining;
+    }
+
+    @Override
+    public int characteristics() {
+        return NONNULL | ORDERED;
+    }
+}
@@ -15,6 +15,11 @@
  */
 package org.eclipse.pass.support.client;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
 /**
  * This is a utility class to help construct RSQL expressions to use as a filter.
  */
@@ -55,6 +60,24 @@ public class RSQL {
         return comparison(name, "!=", value);
     }
 
+    /**
+     * @param name Name of field
+     * @param value Value of field
+     * @return RSQL expression testing that object has a field with a value greater than the given value
+     */
+    public static String greaterThan(String name, String value) {
+        return comparison(name, "=gt=", value);
+    }
+
+    /**
+     * @param name Name of field
+     * @param value Value of field
+     * @return RSQL expression testing that object has a field with a value less than the given value
+     */
+    public static String lessThan(String name, String value) {
+        return comparison(name, "=lt=", value);
+    }
+
     /**
      * @param name Name of field
      * @param values Values of field
@@ -91,6 +114,244 @@ public class RSQL {
         return comparison(name, "=hasmember=", value);
     }
 
+    /**
+     * Split values into chunks such that an =in= or =out= expression on each chunk has at most
+     * the given number of values and the quoted values take up at most the given number of characters.
+     * A value which is longer than the character limit is put in a chunk by itself.
+     *
+     * @param values Values to split
+     * @param max_values Maximum number of values in a chunk
+     * @param max_length Maximum number of characters taken up by the values of a chunk
+     * @return list of chunks in the order of the values
+     */
+    static List<List<String>> chunk_values(Collection<String> values, int max_values, int max_length) {
+        // Quotes and separator
+        return chunk(values, value -> 1, value -> escape(value).length() + 3, max_values, max_length);
+    }
+
+    /**
+     * Split items into chunks such that the values counted for the items of each chunk total at most
+     * the given number of values and their lengths total at most the given number of characters.
+     * An item over either limit is put in a chunk by itself.
+     *
+     * @param <E> type of the items
+     * @param items Items to split
+     * @param count Number of values counted for an item
+     * @param length Number of characters taken up by an item
+     * @param max_values Maximum number of values in a chunk
+     * @param max_length Maximum number of characters taken up by the items of a chunk
+     * @return list of chunks in the order of the items
+     */
+    static <E> List<List<E>> chunk(Collection<E> items, ToIntFunction<E> count, ToIntFunction<E> length,
+            int max_values, int max_length) {
+        List<List<E>> result = new ArrayList<>();
+        List<E> chunk = new ArrayList<>();
+        int chunk_values = 0;
+        int chunk_length = 0;
+
+        for (E item : items) {
+            int item_values = count.applyAsInt(item);
+            int item_length = length.applyAsInt(item);
+
+            if (!chunk.isEmpty() && (chunk_values + item_values > max_values
+                    || chunk_length + item_length > max_length)) {
+                result.add(chunk);
+                chunk = new ArrayList<>();
+                chunk_values = 0;
+                chunk_length = 0;
+            }
+
+            chunk.add(item);
+            chunk_values += item_values;
+            chunk_length += item_length;
+        }
+
+        if (!chunk.isEmpty()) {
+            result.add(chunk);
+        }
+
+        return result;
+    }
+
+    /**
+     * Split a filter which is a single =in= expression into =in= expressions on chunks of its values as
+     * {@link #chunk_values(Collection, int, int)} does. Values may be quoted or not.
+     * A filter which is a disjunction is split into disjunctions of chunks of its branches, with a branch
+     * which can be split replaced by its parts. Each =in= value of a branch counts towards the maximum
+     * number of values and the whole branch towards the maximum number of characters.
+     *
+     * @param filter RSQL filter
+     * @param max_values Maximum number of values in a chunk
+     * @param max_length Maximum number of characters taken up by the values of a chunk
+     * @return expressions in the order of the values or null if the filter is not a single =in= expression
+     *         or a disjunction, or it fits in one chunk
+     */
+    static List<String> split_in(String filter, int max_values, int max_length) {
+        List<String> branches = split_or(filter);
+
+        if (branches != null) {
+            return split_branches(branches, max_values, max_length);
+        }
+
+        int op = filter.indexOf("=in=(");
+        List<String> values = in_values(filter);
+
+        if (values == null) {
+            return null;
+        }
+
+        String name = filter.substring(0, op);
+        List<List<String>> chunks = chunk_values(values, max_values, max_length);
+
+        if (chunks.size() < 2) {
+            return null;
+        }
+
+        List<String> result = new ArrayList<>(chunks.size());
+        chunks.forEach(chunk -> result.add(in(name, chunk.toArray(String[]::new))));
+
+        return result;
+    }
+
+    // Return the values of a single =in= expression or null if the filter is not one
+    private static List<String> in_values(String filter) {
+        int op = filter.indexOf("=in=(");
+
+        if (op <= 0 || !filter.endsWith(")") || !filter.substring(0, op).matches("[\\w.]+")) {
+            return null;
+        }
+
+        return parse_values(filter.substring(op + 5, filter.length() - 1));
+    }
+
+    private static List<String> split_branches(List<String> branches, int max_values, int max_length) {
+        List<String> parts = new ArrayList<>();
+
+        for (String branch : branches) {
+            List<String> split = split_in(branch, max_values, max_length);
+
+            if (split == null) {
+                parts.add(branch);
+            } else {
+                parts.addAll(split);
+            }
+        }
+
+        List<List<String>> chunks = chunk(parts, part -> {
+            List<String> values = in_values(part);
+            return values == null ? 1 : values.size();
+        }, part -> part.length() + 1, max_values, max_length);
+
+        if (chunks.size() < 2) {
+            return null;
+        }
+
+        List<String> result = new ArrayList<>(chunks.size());
+        chunks.forEach(chunk -> result.add(chunk.size() == 1 ? chunk.get(0) : or(chunk.toArray(String[]::new))));
+
+        return result;
+    }
+
+    // Return the branches of a filter which is a disjunction or null if it is not one
+    private static List<String> split_or(String filter) {
+        if (filter.startsWith("(") && filter.endsWith(")")) {
+            List<String> result = split_top_level(filter.substring(1, filter.length() - 1));
+
+            if (result != null) {
+                return result.size() < 2 ? null : result;
+            }
+        }
+
+        List<String> result = split_top_level(filter);
+
+        return result == null || result.size() < 2 ? null : result;
+    }
+
+    // Split a filter at the separators outside of parentheses and quotes or return null if it is not balanced
+    private static List<String> split_top_level(String filter) {
+        List<String> result = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+
+        for (int i = 0; i < filter.length(); i++) {
+            char c = filter.charAt(i);
+
+            if (c == '\'' || c == '"') {
+                for (i++; i < filter.length() && filter.charAt(i) != c; i++) {
+                    if (filter.charAt(i) == '\\') {
+                        i++;
+                    }
+                }
+
+                if (i >= filter.length()) {
+                    return null;
+                }
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth < 0) {
+                return null;
+            } else if (c == ',' && depth == 0) {
+                result.add(filter.substring(start, i));
+                start = i + 1;
+            }
+        }
+
+        if (depth != 0) {
+            return null;
+        }
+
+        result.add(filter.substring(start));
+
+        return result;
+    }
+
+    // Parse a comma separated list of values or return null if it is not one
+    private static List<String> parse_values(String list) {
+        List<String> result = new ArrayList<>();
+        int i = 0;
+
+        while (i < list.length()) {
+            StringBuilder value = new StringBuilder();
+            char quote = list.charAt(i);
+
+            if (quote == '\'' || quote == '"') {
+                for (i++; i < list.length() && list.charAt(i) != quote; i++) {
+                    if (list.charAt(i) == '\\' && i + 1 < list.length()) {
+                        i++;
+                    }
+
+                    value.append(list.charAt(i));
+                }
+
+                if (i == list.length()) {
+                    return null;
+                }
+
+                i++;
+            } else {
+                for (; i < list.length() && list.charAt(i) != ','; i++) {
+                    if ("'\"();".indexOf(list.charAt(i)) != -1) {
+                        return null;
+                    }
+
+                    value.append(list.charAt(i));
+                }
+            }
+
+            result.add(value.toString());
+
+            if (i < list.length()) {
+                if (list.charAt(i) != ',' || i == list.length() - 1) {
+                    return null;
+                }
+
+                i++;
+            }
+        }
+
+        return result;
+    }
+
     private static String group_expressions(String op, String...expressions) {
         StringBuilder result = new StringBuilder();
 
@@ -0,0 +1,552 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+
+/**
+ * A typed RSQL expression which can be used as a filter. The expression is serialized the first time it
+ * is needed and the serialized and URL encoded forms are kept. Expressions are immutable and may be shared.
+ * <p>
+ * An expression can also be evaluated against model objects. Fields are attributes or relationships,
+ * optionally separated by a dot to continue from the targets of a relationship, such as "publication.title".
+ * A relationship by itself or followed by "id" compares the ids of its targets. Comparisons on collection
+ * attributes and to many relationships match if any value matches. Values are compared according to the type
+ * of the field, with date times compared as instants and enums compared by their JSON value. An equals value
+ * may contain the * wildcard. A field which is null never matches.
+ */
+public abstract class RSQLExpression implements Predicate<PassEntity> {
+    private static final Map<Class<?>, Method> ENUM_VALUE_METHODS = new ConcurrentHashMap<>();
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private volatile String rsql;
+    private volatile String encoded;
+
+    private RSQLExpression() {
+    }
+
+    /**
+     * Comparison operators.
+     */
+    private enum Operator {
+        EQUALS, NOT_EQUALS, GREATER_THAN, LESS_THAN, IN, OUT, HAS_MEMBER, HAS_NO_MEMBER
+    }
+
+    // Serialize the expression
+    abstract String render();
+
+    /**
+     * @return expression in RSQL syntax
+     */
+    @Override
+    public String toString() {
+        String result = rsql;
+
+        if (result == null) {
+            result = render();
+            rsql = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * @return expression in RSQL syntax encoded as a URL query parameter value
+     */
+    public String getEncoded() {
+        String result = encoded;
+
+        if (result == null) {
+            result = encode(toString());
+            encoded = result;
+        }
+
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RSQLExpression && toString().equals(o.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+    // Return expressions which together match the same objects, each with a chunk of the values of an =in=
+    // comparison or of the branches of a disjunction, or null if the expression fits in one chunk
+    List<RSQLExpression> split_in(int max_values, int max_length) {
+        return null;
+    }
+
+    // Number of values counted towards the maximum of a chunk
+    abstract int count_values();
+
+    /**
+     * @param obj object to test
+     * @return whether the object matches the expression
+     * @throws IllegalArgumentException if a field is not part of the object or a value compared to a date time
+     *     field is not a date time
+     */
+    @Override
+    public abstract boolean test(PassEntity obj);
+
+    /**
+     * @param expressions expressions
+     * @return logical conjunction of the expressions
+     */
+    public static RSQLExpression and(RSQLExpression... expressions) {
+        return new Group(true, expressions);
+    }
+
+    /**
+     * @param expressions expressions
+     * @return logical disjunction of the expressions
+     */
+    public static RSQLExpression or(RSQLExpression... expressions) {
+        return new Group(false, expressions);
+    }
+
+    /**
+     * @param name Name of field
+     * @param value Value of field
+     * @return expression testing that object has a field with a value
+     */
+    public static RSQLExpression equals(String name, String value) {
+        return new Comparison(name, Operator.EQUALS, value);
+    }
+
+    /**
+     * @param name Name of field
+     * @param value Value of field
+     * @return expression testing that object does not have a field with a value
+     */
+    public static RSQLExpression notEquals(String name, String value) {
+        return new Comparison(name, Operator.NOT_EQUALS, value);
+    }
+
+    /**
+     * @param name Name of field
+     * @param value Value of field
+     * @return expression testing that object has a field with a value greater than the given value
+     */
+    public static RSQLExpression greaterThan(String name, String value) {
+        return new Comparison(name, Operator.GREATER_THAN, value);
+    }
+
+    /**
+     * @param name Name of field
+     * @param value Value of field
+     * @return expression testing that object has a field with a value less than the given value
+     */
+    public static RSQLExpression lessThan(String name, String value) {
+        return new Comparison(name, Operator.LESS_THAN, value);
+    }
+
+    /**
+     * @param name Name of field
+     * @param values Values of field
+     * @return expression testing that object has a field with at least one of the values
+     */
+    public static RSQLExpression in(String name, String... values) {
+        return new Comparison(name, Operator.IN, values);
+    }
+
+    /**
+     * @param name Name of field
+     * @param values Values of field
+     * @return expression testing that object has a field without any of the values
+     */
+    public static RSQLExpression out(String name, String... values) {
+        return new Comparison(name, Operator.OUT, values);
+    }
+
+    /**
+     * @param name Name of a collection field
+     * @param value Value potentially in the collection
+     * @return expression testing that an object collection field contains a value
+     */
+    public static RSQLExpression hasMember(String name, String value) {
+        return new Comparison(name, Operator.HAS_MEMBER, value);
+    }
+
+    /**
+     * @param name Name of a collection field
+     * @param value Value potentially in the collection
+     * @return expression testing that an object collection field does not contain a value
+     */
+    public static RSQLExpression hasNoMember(String name, String value) {
+        return new Comparison(name, Operator.HAS_NO_MEMBER, value);
+    }
+
+    private static final class Group extends RSQLExpression {
+        private final boolean and;
+        private final List<RSQLExpression> expressions;
+
+        Group(boolean and, RSQLExpression... expressions) {
+            if (expressions.length == 0) {
+                throw new IllegalArgumentException("No expressions");
+            }
+
+            this.and = and;
+            this.expressions = List.of(expressions);
+        }
+
+        @Override
+        String render() {
+            String[] parts = expressions.stream().map(RSQLExpression::toString).toArray(String[]::new);
+
+            return and ? RSQL.and(parts) : RSQL.or(parts);
+        }
+
+        @Override
+        List<RSQLExpression> split_in(int max_values, int max_length) {
+            if (!and) {
+                return split_branches(max_values, max_length);
+            }
+
+            for (int i = 0; i < expressions.size(); i++) {
+                List<RSQLExpression> parts = expressions.get(i).split_in(max_values, max_length);
+
+                if (parts != null) {
+                    List<RSQLExpression> result = new ArrayList<>(parts.size());
+
+                    for (RSQLExpression part : parts) {
+                        RSQLExpression[] chunk = expressions.toArray(new RSQLExpression[0]);
+                        chunk[i] = part;
+                        result.add(new Group(true, chunk));
+                    }
+
+                    return result;
+                }
+            }
+
+            return null;
+        }
+
+        // A union of chunks of the branches matches the same objects as the disjunction
+        private List<RSQLExpression> split_branches(int max_values, int max_length) {
+            List<RSQLExpression> parts = new ArrayList<>();
+
+            for (RSQLExpression expr : expressions) {
+                List<RSQLExpression> split = expr.split_in(max_values, max_length);
+
+                if (split == null) {
+                    parts.add(expr);
+                } else {
+                    parts.addAll(split);
+                }
+            }
+
+            List<List<RSQLExpression>> chunks = RSQL.chunk(parts, RSQLExpression::count_values,
+                    part -> part.toString().length() + 1, max_values, max_length);
+
+            if (chunks.size() < 2) {
+                return null;
+            }
+
+            List<RSQLExpression> result = new ArrayList<>(chunks.size());
+            chunks.forEach(chunk -> result.add(chunk.size() == 1 ? chunk.get(0)
+                    : new Group(false, chunk.toArray(new RSQLExpression[0]))));
+
+            return result;
+        }
+
+        @Override
+        int count_values() {
+            return expressions.stream().mapToInt(RSQLExpression::count_values).sum();
+        }
+
+        @Override
+        public boolean test(PassEntity obj) {
+            for (RSQLExpression expr : expressions) {
+                if (expr.test(obj) != and) {
+                    return !and;
+                }
+            }
+
+            return and;
+        }
+    }
+
+    private static final class Comparison extends RSQLExpression {
+        private final String name;
+        private final String[] path;
+        private final Operator op;
+        private final List<String> values;
+
+        Comparison(String name, Operator op, String... values) {
+            if (values.length == 0) {
+                throw new IllegalArgumentException("No values");
+            }
+
+            this.name = Objects.requireNonNull(name);
+            this.path = name.split("\\.");
+            this.op = op;
+            this.values = List.of(values);
+        }
+
+        @Override
+        String render() {
+            switch (op) {
+                case EQUALS:
+                    return RSQL.equals(name, values.get(0));
+                case NOT_EQUALS:
+                    return RSQL.notEquals(name, values.get(0));
+                case GREATER_THAN:
+                    return RSQL.greaterThan(name, values.get(0));
+                case LESS_THAN:
+                    return RSQL.lessThan(name, values.get(0));
+                case IN:
+                    return RSQL.in(name, values.toArray(String[]::new));
+                case OUT:
+                    return RSQL.out(name, values.toArray(String[]::new));
+                case HAS_MEMBER:
+                    return RSQL.hasMember(name, values.get(0));
+                case HAS_NO_MEMBER:
+                    return RSQL.hasNoMember(name, values.get(0));
+                default:
+                    throw new IllegalStateException("Unknown operator: " + op);
+            }
+        }
+
+        @Override
+        List<RSQLExpression> split_in(int max_values, int max_length) {
+            if (op != Operator.IN) {
+                return null;
+            }
+
+            List<List<String>> chunks = RSQL.chunk_values(values, max_values, max_length);
+
+            if (chunks.size() < 2) {
+                return null;
+            }
+
+            List<RSQLExpression> result = new ArrayList<>(chunks.size());
+            chunks.forEach(chunk -> result.add(new Comparison(name, Operator.IN, chunk.toArray(String[]::new))));
+
+            return result;
+        }
+
+        @Override
+        int count_values() {
+            return values.size();
+        }
+
+        @Override
+        public boolean test(PassEntity obj) {
+            List<Object> field_values = resolve(obj);
+
+            switch (op) {
+                case EQUALS:
+                case HAS_MEMBER:
+                    return any(field_values, v -> compare(v, values.get(0), op == Operator.EQUALS) == 0);
+                case NOT_EQUALS:
+                case HAS_NO_MEMBER:
+                    return !field_values.isEmpty()
+                            && !any(field_values, v -> compare(v, values.get(0), op == Operator.NOT_EQUALS) == 0);
+                case GREATER_THAN:
+                    return any(field_values, v -> compare(v, values.get(0), false) > 0);
+                case LESS_THAN:
+                    return any(field_values, v -> compare(v, values.get(0), false) < 0);
+                case IN:
+                    return any(field_values, v -> values.stream().anyMatch(s -> compare(v, s, false) == 0));
+                case OUT:
+                    return !field_values.isEmpty()
+                            && !any(field_values, v -> values.stream().anyMatch(s -> compare(v, s, false) == 0));
+                default:
+                    throw new IllegalStateException("Unknown operator: " + op);
+            }
+        }
+
+        private static boolean any(List<Object> field_values, Predicate<Object> pred) {
+            return field_values.stream().anyMatch(pred);
+        }
+
+        // Return the non-null values of the field of an object
+        private List<Object> resolve(PassEntity obj) {
+            List<Object> current = Collections.singletonList(obj);
+
+            for (String field : path) {
+                List<Object> next = new ArrayList<>();
+
+                for (Object o : current) {
+                    if (!(o instanceof PassEntity)) {
+                        throw new IllegalArgumentException("Field is not a relationship: " + name);
+                    }
+
+                    PassEntity entity = (PassEntity) o;
+
+                    if (field.equals("id")) {
+                        add(next, entity.getId());
+                        continue;
+                    }
+
+                    EntityMetadata md = EntityMetadata.of(entity.getClass());
+                    EntityMetadata.Property prop = md.getAttributes().get(field);
+
+                    if (prop == null) {
+                        prop = md.getRelationships().get(field);
+                    }
+
+                    if (prop == null) {
+                        throw new IllegalArgumentException("Unknown field: " + entity.getClass().getSimpleName()
+                                + "." + name);
+                    }
+
+                    add(next, prop.get(entity));
+                }
+
+                current = next;
+            }
+
+            return current;
+        }
+
+        private static void add(List<Object> values, Object value) {
+            if (value instanceof Collection) {
+                ((Collection<?>) value).stream().filter(Objects::nonNull).forEach(values::add);
+            } else if (value != null) {
+                values.add(value);
+            }
+        }
+    }
+
+    // Compare a field value to a value from an expression according to the type of the field value
+    private static int compare(Object field_value, String value, boolean wildcard) {
+        if (field_value instanceof PassEntity) {
+            field_value = ((PassEntity) field_value).getId();
+        } else if (field_value instanceof Enum) {
+            field_value = enum_value((Enum<?>) field_value);
+        }
+
+        if (field_value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) field_value).toInstant().compareTo(parse_date_time(value).toInstant());
+        } else if (field_value instanceof Boolean) {
+            return field_value.equals(Boolean.valueOf(value)) ? 0 : 1;
+        } else if (field_value instanceof Number) {
+            try {
+                return new BigDecimal(field_value.toString()).compareTo(new BigDecimal(value));
+            } catch (NumberFormatException e) {
+                return 1;
+            }
+        }
+
+        String s = field_value.toString();
+
+        if (wildcard && value.indexOf('*') != -1) {
+            return wildcard_matches(s, value) ? 0 : 1;
+        }
+
+        return s.compareTo(value);
+    }
+
+    private static ZonedDateTime parse_date_time(String value) {
+        try {
+            return ZonedDateTime.parse(value, Util.dateTimeFormatter());
+        } catch (DateTimeParseException e) {
+            try {
+                return ZonedDateTime.parse(value);
+            } catch (DateTimeParseException e2) {
+                throw new IllegalArgumentException("Invalid date time: " + value, e2);
+            }
+        }
+    }
+
+    // Return the value of an enum as it appears in a JSON API document
+    static String enum_value(Enum<?> value) {
+        Method method = ENUM_VALUE_METHODS.computeIfAbsent(value.getDeclaringClass(), type -> {
+            try {
+                return type.getMethod("getValue");
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        });
+
+        if (method == null) {
+            return value.name();
+        }
+
+        try {
+            return String.valueOf(method.invoke(value));
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to get value of: " + value, e);
+        }
+    }
+
+    // Match a string against a pattern where * matches any sequence of characters
+    private static boolean wildcard_matches(String s, String pattern) {
+        List<String> parts = Arrays.asList(pattern.split("\\*", -1));
+        int pos = 0;
+
+        for (int i = 0; i < parts.size(); i++) {
+            String part = parts.get(i);
+
+            if (i == 0) {
+                if (!s.startsWith(part)) {
+                    return false;
+                }
+                pos = part.length();
+            } else if (i == parts.size() - 1) {
+                return s.length() - part.length() >= pos && s.endsWith(part);
+            } else {
+                int index = s.indexOf(part, pos);
+
+                if (index == -1) {
+                    return false;
+                }
+                pos = index + part.length();
+            }
+        }
+
+        return true;
+    }
+
+    // Percent encode all but the unreserved characters and the sub-delimiters which RSQL uses and which
+    // are left as they are in a query parameter value.
+    private static String encode(String s) {
+        StringBuilder result = new StringBuilder(s.length() + 16);
+
+        for (byte b : s.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xff);
+
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || "-._~!$()*,;:@/?".indexOf(c) != -1) {
+                result.append(c);
+            } else {
+                result.append('%').append(HEX[c >> 4]).append(HEX[c & 0xf]);
+            }
+        }
+
+        return result.toString();
+    }
+}
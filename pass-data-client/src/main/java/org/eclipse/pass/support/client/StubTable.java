@@ -0,0 +1,47 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+
+/**
+ * Table of relationship target stubs, objects with only an id set, so that every reference to the same
+ * target shares one instance. A table is used for a single response so stubs are not shared between
+ * unrelated results.
+ */
+class StubTable {
+    private final Map<EntityMetadata, Map<String, PassEntity>> stubs = new IdentityHashMap<>();
+
+    /**
+     * @param md metadata of the target type
+     * @param id identifier of the target
+     * @return stub for the target, created if this is the first reference to it
+     */
+    PassEntity get(EntityMetadata md, String id) {
+        return stubs.computeIfAbsent(md, m -> new HashMap<>()).computeIfAbsent(id, md::newInstance);
+    }
+
+    /**
+     * @return number of distinct stubs
+     */
+    int size() {
+        return stubs.values().stream().mapToInt(Map::size).sum();
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+
+/**
+ * Creates or updates objects identified by a natural key, an attribute other than the id whose value
+ * identifies an object. The persisted objects with the natural keys of all the given objects are found
+ * with =in= selections, or =hasmember= selections if the attribute is a collection, all in flight at once.
+ * A merge function decides how each persisted object is updated. Only the needed creates and updates
+ * are then executed as one batch.
+ *
+ * @param <T> type of the objects
+ */
+class Upserter<T extends PassEntity> {
+    // Keep the filter well under common URL length limits and the page limit within the server maximum
+    private static final int MAX_VALUES = 100;
+    private static final int MAX_MEMBERS = 20;
+    private static final int MAX_VALUES_LENGTH = 2000;
+
+    private final PassClient client;
+    private final Class<T> type;
+    private final EntityMetadata.Property key;
+    private final boolean collection_key;
+
+    /**
+     * @param client client used to select, create, and update objects
+     * @param type type of the objects
+     * @param key_field name of the natural key attribute
+     * @throws IllegalArgumentException if the type does not have the attribute
+     */
+    Upserter(PassClient client, Class<T> type, String key_field) {
+        this.client = client;
+        this.type = type;
+        this.key = EntityMetadata.of(type).getAttributes().get(key_field);
+
+        if (key == null) {
+            throw new IllegalArgumentException("Unknown attribute: " + type.getSimpleName() + "." + key_field);
+        }
+
+        this.collection_key = Collection.class.isAssignableFrom(key.getValueType());
+    }
+
+    // Return the natural key values of an object as they appear in filters, with enums by their JSON value
+    private List<String> key_values(PassEntity obj) {
+        Object value = key.get(obj);
+        List<String> result = new ArrayList<>();
+
+        if (value instanceof Collection) {
+            for (Object v : (Collection<?>) value) {
+                if (v != null) {
+                    result.add(key_value(v));
+                }
+            }
+        } else if (value != null) {
+            result.add(key_value(value));
+        }
+
+        return result;
+    }
+
+    private static String key_value(Object value) {
+        if (value instanceof Enum) {
+            return RSQLExpression.enum_value((Enum<?>) value);
+        }
+
+        return value.toString();
+    }
+
+    private String filter(List<String> values) {
+        if (collection_key) {
+            return RSQL.or(values.stream().map(v -> RSQL.hasMember(key.getName(), v)).toArray(String[]::new));
+        }
+
+        return RSQL.in(key.getName(), values.toArray(String[]::new));
+    }
+
+    // Return the persisted objects which have any of the natural key values
+    private List<T> select(Collection<String> values) throws IOException {
+        List<PassClientSelector<T>> selectors = new ArrayList<>();
+        List<CompletableFuture<PassClientResult<T>>> futures = new ArrayList<>();
+
+        for (List<String> chunk : RSQL.chunk_values(values, collection_key ? MAX_MEMBERS : MAX_VALUES,
+                MAX_VALUES_LENGTH)) {
+            PassClientSelector<T> selector = new PassClientSelector<>(type, 0, chunk.size(), filter(chunk), null);
+
+            selectors.add(selector);
+            futures.add(client.selectObjectsAsync(selector));
+        }
+
+        List<PassClientResult<T>> results = Hydrator.join(futures);
+        List<T> result = new ArrayList<>();
+
+        for (int i = 0; i < results.size(); i++) {
+            List<T> objects = results.get(i).getObjects();
+            result.addAll(objects);
+
+            // Values shared by several objects may match more objects than fit in a page
+            if (results.get(i).getTotal() > objects.size()) {
+                PassClientSelector<T> rest = new PassClientSelector<>(selectors.get(i));
+                rest.setOffset(objects.size());
+
+                try (Stream<T> stream = client.streamObjects(rest)) {
+                    stream.forEach(result::add);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    // Return the current object with any of the natural key values or null if there is none
+    private T find(Map<String, T> by_key, List<String> values) throws IOException {
+        T result = null;
+
+        for (String value : values) {
+            T obj = by_key.get(value);
+
+            if (obj != null && result != null && obj != result) {
+                throw new IOException("Multiple " + type.getSimpleName() + " objects match natural key "
+                        + key.getName() + ": " + values);
+            }
+
+            if (obj != null) {
+                result = obj;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Create or update each object. An object is created if no persisted object has any of its natural key
+     * values. Otherwise the merge function is called with the object and the persisted object. It returns the
+     * object to update or null if the persisted object needs no update. If the returned object is not the
+     * persisted object, it replaces the persisted object and is given its id. Objects earlier in the list are
+     * considered persisted when matching later objects.
+     *
+     * @param objects objects to create or update
+     * @param merge merge function
+     * @return the created, updated, or unchanged persisted object for each object in order
+     * @throws IOException if operation fails or an object matches more than one persisted object
+     * @throws IllegalArgumentException if the merge function returns an object with a different id
+     */
+    List<T> upsert(List<T> objects, BiFunction<T, T, T> merge) throws IOException {
+        Set<String> values = new LinkedHashSet<>();
+        objects.forEach(o -> values.addAll(key_values(o)));
+
+        Map<String, T> by_key = new HashMap<>();
+
+        if (!values.isEmpty()) {
+            for (T stored : select(values)) {
+                for (String value : key_values(stored)) {
+                    if (values.contains(value) && by_key.putIfAbsent(value, stored) != null) {
+                        throw new IOException("Multiple " + type.getSimpleName() + " objects match natural key "
+                                + key.getName() + ": " + value);
+                    }
+                }
+            }
+        }
+
+        List<T> result = new ArrayList<>(objects.size());
+
+        // Pending operation of each object to create or update in order with null for replaced operations
+        List<PassClientOperation> ops = new ArrayList<>();
+        Map<T, Integer> pending = new IdentityHashMap<>();
+
+        for (T obj : objects) {
+            List<String> obj_values = key_values(obj);
+            T current = find(by_key, obj_values);
+            T next;
+
+            if (current == null) {
+                next = obj;
+                pending.put(obj, ops.size());
+                ops.add(PassClientOperation.create(obj));
+            } else {
+                T merged = merge.apply(obj, current);
+
+                if (merged == null) {
+                    next = current;
+                } else {
+                    next = merged;
+
+                    if (merged != current) {
+                        replace(current, merged, result, by_key);
+                    }
+
+                    Integer index = pending.remove(current);
+                    boolean create = index != null && ops.get(index).getAction() == PassClientOperation.Action.CREATE;
+
+                    if (index != null) {
+                        ops.set(index, null);
+                    }
+
+                    pending.put(merged, ops.size());
+                    ops.add(create ? PassClientOperation.create(merged) : PassClientOperation.update(merged));
+                }
+            }
+
+            obj_values.forEach(v -> by_key.put(v, next));
+            key_values(next).forEach(v -> by_key.put(v, next));
+            result.add(next);
+        }
+
+        ops.removeIf(op -> op == null);
+
+        if (!ops.isEmpty()) {
+            client.executeBatch(ops);
+        }
+
+        return result;
+    }
+
+    // Replace an object which a merge function has replaced with a new instance everywhere it is referenced
+    private void replace(T current, T merged, List<T> result, Map<String, T> by_key) {
+        if (merged.getId() == null) {
+            merged.setId(current.getId());
+        } else if (!merged.getId().equals(current.getId())) {
+            throw new IllegalArgumentException("Merge of " + type.getSimpleName() + " " + current.getId()
+                    + " returned an object with a different id: " + merged.getId());
+        }
+
+        result.replaceAll(o -> o == current ? merged : o);
+        by_key.replaceAll((value, o) -> o == current ? merged : o);
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveConcurrencyLimiterTest {
+    private static final long MS = 1000000;
+
+    private static void fill(AdaptiveConcurrencyLimiter limiter, int count) throws InterruptedException {
+        for (int i = 0; i < count; i++) {
+            limiter.acquire();
+        }
+    }
+
+    @Test
+    public void testInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(1, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(11, 1, 10));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(5, 6, 5));
+    }
+
+    @Test
+    public void testGrowWhileLatencyFlat() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10);
+
+        // Keep the limit in use while requests complete with the same latency
+        for (int i = 0; i < 100; i++) {
+            fill(limiter, limiter.getLimit() - limiter.getInFlight());
+            limiter.release("get", 10 * MS, false);
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    public void testNoGrowthWhenUnused() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire();
+            limiter.release("get", 10 * MS, false);
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    public void testBackOffOnOverload() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100);
+
+        limiter.acquire();
+        limiter.release("get", 10 * MS, true);
+        assertEquals(9, limiter.getLimit());
+
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire();
+            limiter.release("get", 10 * MS, true);
+        }
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    public void testBackOffOncePerWindow() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 1, 200);
+        fill(limiter, 50);
+
+        // Requests in flight when the limit is cut do not cut it again
+        for (int i = 0; i < 50; i++) {
+            limiter.release("get", 10 * MS, true);
+        }
+
+        assertEquals(90, limiter.getLimit());
+
+        limiter.acquire();
+        limiter.release("get", 10 * MS, true);
+        assertEquals(81, limiter.getLimit());
+    }
+
+    @Test
+    public void testBackOffOnLatency() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire();
+            limiter.release("get", 10 * MS, false);
+        }
+
+        limiter.acquire();
+        limiter.release("get", 100 * MS, false);
+
+        assertEquals(9, limiter.getLimit());
+    }
+
+    @Test
+    public void testWaitForLimit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+        fill(limiter, 2);
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            try {
+                limiter.acquire();
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+
+        limiter.release("get", 10 * MS, false);
+
+        assertTrue(acquired.await(10, TimeUnit.SECONDS));
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    public void testLatencyComparedByKind() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+
+        // Large selections are much slower than retrievals without the server being overloaded
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire();
+            limiter.release("get", 10 * MS, false);
+            limiter.acquire();
+            limiter.release("select:512", 200 * MS, false);
+        }
+
+        assertEquals(10, limiter.getLimit());
+
+        limiter.acquire();
+        limiter.release("select:512", 1000 * MS, false);
+        assertEquals(9, limiter.getLimit());
+    }
+
+    @Test
+    public void testUnknownLatency() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10);
+
+        // A request which was not sent neither grows nor cuts the limit
+        for (int i = 0; i < 100; i++) {
+            fill(limiter, limiter.getLimit() - limiter.getInFlight());
+            limiter.release(null, -1, false);
+        }
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    public void testAcquireAsync() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+
+        assertTrue(limiter.acquire_async().isDone());
+        assertTrue(limiter.acquire_async().isDone());
+
+        CompletableFuture<Void> cancelled = limiter.acquire_async();
+        CompletableFuture<Void> waiting = limiter.acquire_async();
+        assertFalse(cancelled.isDone());
+        assertFalse(waiting.isDone());
+
+        // A cancelled request gives up its place without taking a permit
+        cancelled.cancel(false);
+        limiter.release("get", 10 * MS, false);
+
+        assertTrue(waiting.isDone());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.release("get", 10 * MS, false);
+        limiter.release("get", 10 * MS, false);
+        assertEquals(0, limiter.getInFlight());
+    }
+}
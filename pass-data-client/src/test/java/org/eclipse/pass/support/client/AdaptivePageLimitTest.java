@@ -0,0 +1,106 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+public class AdaptivePageLimitTest {
+    private static final long MILLIS = 1_000_000;
+
+    @Test
+    public void testResponseSizeTarget() {
+        AdaptivePageLimit.State state = AdaptivePageLimit.responseSize(1, 1000, 5000).start(10);
+
+        // 100 bytes per object fits 50 objects, growth is limited to doubling
+        assertEquals(20, state.update(10, 1000, 0));
+        assertEquals(40, state.update(20, 2000, 0));
+        assertEquals(50, state.update(40, 4000, 0));
+        assertEquals(50, state.update(50, 5000, 0));
+
+        // Larger objects shrink the next page at once, estimate is 550 bytes per object
+        assertEquals(9, state.update(50, 50000, 0));
+        assertEquals(9, state.getLimit());
+    }
+
+    @Test
+    public void testLatencyTarget() {
+        AdaptivePageLimit.State state = AdaptivePageLimit.latency(1, 1000, Duration.ofMillis(100)).start(10);
+
+        assertEquals(20, state.update(10, -1, 50 * MILLIS));
+        assertEquals(10, state.update(20, -1, 300 * MILLIS));
+    }
+
+    @Test
+    public void testUnknownLatency() {
+        AdaptivePageLimit.State state = AdaptivePageLimit.latency(1, 1000, Duration.ofMillis(100)).start(10);
+
+        assertEquals(10, state.update(10, -1, -1));
+        assertEquals(20, state.update(10, -1, 50 * MILLIS));
+        assertEquals(20, state.update(20, -1, -1));
+    }
+
+    @Test
+    public void testSmallerTargetWins() {
+        AdaptivePageLimit limit = new AdaptivePageLimit(1, 1000, 5000, Duration.ofMillis(100));
+
+        assertEquals(10, limit.start(10).update(10, 1000, 100 * MILLIS));
+        assertEquals(5, limit.start(10).update(10, 10000, 10 * MILLIS));
+    }
+
+    @Test
+    public void testBounds() {
+        AdaptivePageLimit limit = AdaptivePageLimit.responseSize(5, 30, 5000);
+
+        assertEquals(30, limit.start(500).getLimit());
+        assertEquals(5, limit.start(1).getLimit());
+        assertEquals(30, limit.start(20).update(20, 20, 0));
+        assertEquals(5, limit.start(20).update(20, 2000000, 0));
+    }
+
+    @Test
+    public void testUnknownCostKeepsLimit() {
+        AdaptivePageLimit.State state = AdaptivePageLimit.responseSize(1, 1000, 5000).start(10);
+
+        assertEquals(10, state.update(10, -1, 50 * MILLIS));
+        assertEquals(10, state.update(0, 0, 50 * MILLIS));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        AdaptivePageLimit.State state = AdaptivePageLimit.responseSize(1, 1000, 5000).start(10);
+        state.update(10, 1000, 0);
+
+        AdaptivePageLimit.State copy = state.copy();
+        assertEquals(20, copy.getLimit());
+
+        assertEquals(40, copy.update(20, 2000, 0));
+        assertEquals(20, state.getLimit());
+    }
+
+    @Test
+    public void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> AdaptivePageLimit.responseSize(0, 10, 1000));
+        assertThrows(IllegalArgumentException.class, () -> AdaptivePageLimit.responseSize(10, 5, 1000));
+        assertThrows(IllegalArgumentException.class, () -> AdaptivePageLimit.responseSize(1, 10, -1));
+        assertThrows(IllegalArgumentException.class, () -> AdaptivePageLimit.latency(1, 10, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptivePageLimit(1, 10, 0, null));
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.pass.support.client.model.Funder;
+import org.eclipse.pass.support.client.model.PassEntity;
+import org.eclipse.pass.support.client.model.Publication;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CachingPassClientTest {
+    private InMemoryPassClient delegate;
+    private AtomicLong time;
+    private CachingPassClient client;
+    private Publication pub;
+    private Funder funder;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        delegate = new InMemoryPassClient();
+        time = new AtomicLong();
+        client = new CachingPassClient(delegate, time::get);
+
+        pub = new Publication();
+        pub.setTitle("Title");
+        client.createObject(pub);
+
+        funder = new Funder();
+        funder.setName("Funder");
+        client.createObject(funder);
+    }
+
+    @Test
+    public void testGetObjectCached() throws IOException {
+        assertSame(pub, client.getObject(Publication.class, pub.getId()));
+        assertSame(pub, client.getObject(Publication.class, pub.getId()));
+        assertSame(pub, client.getObject(pub));
+
+        assertEquals(1, delegate.getGetCount());
+        assertEquals(2, client.getHitCount());
+        assertEquals(1, client.getMissCount());
+        assertEquals(1, client.size());
+    }
+
+    @Test
+    public void testIncludeIsPartOfKey() throws IOException {
+        client.getObject(Publication.class, pub.getId());
+        client.getObject(Publication.class, pub.getId(), "journal");
+        client.getObject(Publication.class, pub.getId(), "journal");
+
+        assertEquals(2, delegate.getGetCount());
+        assertEquals(2, client.size());
+    }
+
+    @Test
+    public void testMissingNotCached() throws IOException {
+        assertNull(client.getObject(Publication.class, "1000"));
+        assertNull(client.getObject(Publication.class, "1000"));
+
+        assertEquals(2, delegate.getGetCount());
+        assertEquals(0, client.size());
+    }
+
+    @Test
+    public void testTimeToLive() throws IOException {
+        client.setTimeToLive(Funder.class, Duration.ofSeconds(1));
+
+        client.getObject(Publication.class, pub.getId());
+        client.getObject(Funder.class, funder.getId());
+
+        time.addAndGet(Duration.ofSeconds(2).toNanos());
+
+        client.getObject(Publication.class, pub.getId());
+        client.getObject(Funder.class, funder.getId());
+
+        assertEquals(3, delegate.getGetCount());
+        assertEquals(1, client.getHitCount());
+    }
+
+    @Test
+    public void testMaxSize() throws IOException {
+        Publication pub2 = new Publication();
+        client.createObject(pub2);
+
+        client.setMaxSize(Publication.class, 1);
+        client.setMaxSize(Funder.class, 0);
+
+        client.getObject(Publication.class, pub.getId());
+        client.getObject(Publication.class, pub2.getId());
+        client.getObject(Publication.class, pub2.getId());
+        client.getObject(Publication.class, pub.getId());
+        client.getObject(Funder.class, funder.getId());
+        client.getObject(Funder.class, funder.getId());
+
+        assertEquals(5, delegate.getGetCount());
+        assertEquals(1, client.size());
+    }
+
+    @Test
+    public void testUpdateAndDeleteInvalidate() throws IOException {
+        client.getObject(Publication.class, pub.getId());
+        client.getObject(Publication.class, pub.getId(), "journal");
+
+        Publication updated = new Publication(pub.getId());
+        updated.setTitle("Updated");
+        client.updateObject(updated);
+
+        assertEquals(0, client.size());
+        assertSame(updated, client.getObject(Publication.class, pub.getId()));
+
+        client.deleteObject(updated);
+
+        assertEquals(0, client.size());
+        assertNull(client.getObject(Publication.class, pub.getId()));
+    }
+
+    // Client whose first retrieval of the publication returns the stored object and then updates it
+    private CachingPassClient racing_client(Publication updated) {
+        AtomicBoolean raced = new AtomicBoolean();
+        CachingPassClient[] caching = new CachingPassClient[1];
+
+        caching[0] = new CachingPassClient(new InMemoryPassClient() {
+            @Override
+            public <T extends PassEntity> T getObject(Class<T> type, String id, String... include)
+                    throws IOException {
+                T result = delegate.getObject(type, id, include);
+
+                if (!raced.getAndSet(true)) {
+                    delegate.updateObject(updated);
+                    caching[0].invalidate(Publication.class, updated.getId());
+                }
+
+                return result;
+            }
+        }, time::get);
+
+        return caching[0];
+    }
+
+    @Test
+    public void testInvalidatedDuringFetchNotCached() throws IOException {
+        Publication updated = new Publication(pub.getId());
+        updated.setTitle("Updated");
+        CachingPassClient racing = racing_client(updated);
+
+        assertSame(pub, racing.getObject(Publication.class, pub.getId()));
+        assertEquals(0, racing.size());
+        assertSame(updated, racing.getObject(Publication.class, pub.getId()));
+        assertEquals(1, racing.size());
+    }
+
+    @Test
+    public void testInvalidatedDuringAsyncFetchNotCached() throws Exception {
+        Publication updated = new Publication(pub.getId());
+        updated.setTitle("Updated");
+        CachingPassClient racing = racing_client(updated);
+
+        assertSame(pub, racing.getObjectAsync(Publication.class, pub.getId()).get());
+        assertEquals(0, racing.size());
+        assertSame(updated, racing.getObjectAsync(Publication.class, pub.getId()).get());
+        assertEquals(1, racing.size());
+    }
+
+    @Test
+    public void testBatchInvalidates() throws IOException {
+        client.getObject(Publication.class, pub.getId());
+        client.getObject(Funder.class, funder.getId());
+
+        client.executeBatch(List.of(PassClientOperation.delete(Funder.class, funder.getId())));
+
+        assertEquals(1, client.size());
+        assertNull(client.getObject(Funder.class, funder.getId()));
+    }
+
+    @Test
+    public void testGetObjectAsyncCached() throws Exception {
+        assertSame(pub, client.getObjectAsync(Publication.class, pub.getId()).get());
+        assertSame(pub, client.getObjectAsync(Publication.class, pub.getId()).get());
+
+        assertEquals(1, delegate.getGetCount());
+        assertEquals(1, client.getHitCount());
+    }
+}
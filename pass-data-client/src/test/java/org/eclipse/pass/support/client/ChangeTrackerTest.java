@@ -0,0 +1,128 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.pass.support.client.model.Journal;
+import org.eclipse.pass.support.client.model.Publication;
+import org.junit.jupiter.api.Test;
+
+public class ChangeTrackerTest {
+    private static Map<String, Object> resource(String id, Map<String, Object> attributes,
+            Map<String, Object> relationships) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("type", "publication");
+        result.put("id", id);
+        result.put("attributes", attributes);
+        result.put("relationships", relationships);
+
+        return result;
+    }
+
+    private static Map<String, Object> members(Object... values) {
+        Map<String, Object> result = new HashMap<>();
+
+        for (int i = 0; i < values.length; i += 2) {
+            result.put(values[i].toString(), values[i + 1]);
+        }
+
+        return result;
+    }
+
+    @Test
+    public void testDiffNoChanges() {
+        Map<String, Object> previous = resource("1", members("title", "Title", "issue", null),
+                members("journal", Map.of("data", Map.of("type", "journal", "id", "2"))));
+        Map<String, Object> current = resource("1", members("title", "Title", "issue", null),
+                members("journal", Map.of("data", Map.of("type", "journal", "id", "2"))));
+
+        assertNull(ChangeTracker.diff(previous, current));
+    }
+
+    @Test
+    public void testDiffChanges() {
+        Map<String, Object> previous = resource("1", members("title", "Title", "issue", "1"),
+                members("journal", Map.of("data", Map.of("type", "journal", "id", "2"))));
+        Map<String, Object> current = resource("1", members("title", "Title", "issue", null),
+                members("journal", null));
+
+        Map<String, Object> diff = ChangeTracker.diff(previous, current);
+
+        assertEquals("publication", diff.get("type"));
+        assertEquals("1", diff.get("id"));
+        assertEquals(members("issue", null), diff.get("attributes"));
+        assertEquals(members("journal", null), diff.get("relationships"));
+    }
+
+    @Test
+    public void testDiffOnlyAttributes() {
+        Map<String, Object> previous = resource("1", members("title", "Title"), members("journal", null));
+        Map<String, Object> current = resource("1", members("title", "New title"), members("journal", null));
+
+        Map<String, Object> diff = ChangeTracker.diff(previous, current);
+
+        assertEquals(members("title", "New title"), diff.get("attributes"));
+        assertNull(diff.get("relationships"));
+    }
+
+    @Test
+    public void testDiffSparseObject() {
+        // State of an object retrieved with only the title, other fields are null
+        Map<String, Object> previous = resource("1", members("title", "Title", "issue", null, "volume", null),
+                members("journal", null));
+        Map<String, Object> current = resource("1", members("title", "New title", "issue", null, "volume", "2"),
+                members("journal", null));
+
+        Map<String, Object> diff = ChangeTracker.diff(previous, current);
+
+        // Fields which were not retrieved and not set are not sent so they are not cleared
+        assertEquals(members("title", "New title", "volume", "2"), diff.get("attributes"));
+        assertNull(diff.get("relationships"));
+    }
+
+    @Test
+    public void testTrack() {
+        ChangeTracker tracker = new ChangeTracker(2);
+        Publication pub1 = new Publication("1");
+        Publication pub2 = new Publication("2");
+        Journal journal = new Journal("1");
+        Map<String, Object> state = resource("1", members(), members());
+
+        tracker.track(pub1, state);
+        tracker.track(pub2, state);
+        tracker.get(pub1);
+        tracker.track(journal, state);
+
+        assertEquals(2, tracker.size());
+        assertNotNull(tracker.get(pub1));
+        assertNull(tracker.get(pub2));
+        assertNotNull(tracker.get(journal));
+
+        tracker.remove(Journal.class, "1");
+        assertNull(tracker.get(journal));
+
+        // Objects without an id are not tracked
+        tracker.track(new Publication(), state);
+        assertEquals(1, tracker.size());
+        assertNull(tracker.get(new Publication()));
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+import org.eclipse.pass.support.client.model.Publisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ChunkedSelectionTest {
+    private InMemoryPassClient client;
+    private List<Publisher> publishers;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        client = new InMemoryPassClient();
+        publishers = new ArrayList<>();
+
+        for (int i = 0; i < 300; i++) {
+            Publisher publisher = new Publisher();
+            publisher.setName("Publisher " + i);
+            client.createObject(publisher);
+            publishers.add(publisher);
+        }
+    }
+
+    private List<String> ids(int from, int to) {
+        return publishers.subList(from, to).stream().map(Publisher::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testSplit() {
+        PassClientSelector<Publisher> selector = new PassClientSelector<>(Publisher.class, 10, 20,
+                RSQL.in("id", ids(0, 250).toArray(String[]::new)), "name");
+        selector.setPrefetch(2);
+
+        List<PassClientSelector<Publisher>> chunks = ChunkedSelection.split(selector);
+
+        assertEquals(3, chunks.size());
+        assertEquals(RSQL.in("id", ids(0, 100).toArray(String[]::new)), chunks.get(0).getFilter());
+        assertEquals(RSQL.in("id", ids(200, 250).toArray(String[]::new)), chunks.get(2).getFilter());
+
+        for (PassClientSelector<Publisher> chunk : chunks) {
+            assertEquals(0, chunk.getOffset());
+            assertEquals(20, chunk.getLimit());
+            assertEquals(0, chunk.getPrefetch());
+            assertEquals("name", chunk.getSorting());
+        }
+    }
+
+    @Test
+    public void testSplitExpression() {
+        RSQLExpression name = RSQLExpression.equals("name", "Publisher*");
+        PassClientSelector<Publisher> selector = new PassClientSelector<>(Publisher.class);
+        selector.setFilterExpression(RSQLExpression.and(name,
+                RSQLExpression.in("id", ids(0, 150).toArray(String[]::new))));
+
+        List<PassClientSelector<Publisher>> chunks = ChunkedSelection.split(selector);
+
+        assertEquals(2, chunks.size());
+        assertEquals(RSQLExpression.and(name, RSQLExpression.in("id", ids(0, 100).toArray(String[]::new))),
+                chunks.get(0).getFilterExpression());
+        assertEquals(RSQLExpression.and(name, RSQLExpression.in("id", ids(100, 150).toArray(String[]::new))),
+                chunks.get(1).getFilterExpression());
+    }
+
+    @Test
+    public void testNoSplit() {
+        assertNull(ChunkedSelection.split(new PassClientSelector<>(Publisher.class)));
+        assertNull(ChunkedSelection.split(new PassClientSelector<>(Publisher.class, 0, 10,
+                RSQL.in("id", ids(0, 100).toArray(String[]::new)), null)));
+        assertNull(ChunkedSelection.split(new PassClientSelector<>(Publisher.class, 0, 10,
+                RSQL.out("id", ids(0, 250).toArray(String[]::new)), null)));
+
+        PassClientSelector<Publisher> selector = new PassClientSelector<>(Publisher.class);
+        selector.setFilterExpression(RSQLExpression.or(RSQLExpression.equals("name", "a"),
+                RSQLExpression.in("id", ids(0, 99).toArray(String[]::new))));
+        assertNull(ChunkedSelection.split(selector));
+    }
+
+    @Test
+    public void testSplitDisjunction() throws IOException {
+        RSQLExpression name = RSQLExpression.equals("name", "Publisher 1");
+        PassClientSelector<Publisher> selector = new PassClientSelector<>(Publisher.class);
+        selector.setFilterExpression(RSQLExpression.or(name,
+                RSQLExpression.in("id", ids(0, 250).toArray(String[]::new))));
+
+        List<PassClientSelector<Publisher>> chunks = ChunkedSelection.split(selector);
+
+        assertEquals(4, chunks.size());
+        assertEquals(name, chunks.get(0).getFilterExpression());
+        assertEquals(RSQLExpression.in("id", ids(0, 100).toArray(String[]::new)),
+                chunks.get(1).getFilterExpression());
+        assertEquals(RSQLExpression.in("id", ids(200, 250).toArray(String[]::new)),
+                chunks.get(3).getFilterExpression());
+
+        // Publisher 1 is matched by two chunks
+        PassClientResult<Publisher> result = ChunkedSelection.select_wait(client, 0, 500, chunks);
+        assertEquals(250, result.getTotal());
+        assertEquals(250, result.getObjects().size());
+
+        // Disjunctions of small branches are grouped into chunks
+        RSQLExpression[] branches = ids(0, 150).stream().map(id -> RSQLExpression.equals("id", id))
+                .toArray(RSQLExpression[]::new);
+        selector.setFilterExpression(RSQLExpression.or(branches));
+        chunks = ChunkedSelection.split(selector);
+
+        assertEquals(2, chunks.size());
+        assertEquals(RSQLExpression.or(Arrays.copyOfRange(branches, 0, 100)), chunks.get(0).getFilterExpression());
+        assertEquals(publishers.subList(0, 150), client.streamObjects(selector).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testSelect() throws IOException {
+        List<String> ids = new ArrayList<>(ids(0, 250));
+
+        // Missing objects and an id in two chunks
+        ids.add("1000");
+        ids.add(publishers.get(5).getId());
+
+        PassClientSelector<Publisher> selector = new PassClientSelector<>(Publisher.class, 0, 30,
+                RSQL.in("id", ids.toArray(String[]::new)), null);
+        List<PassClientSelector<Publisher>> chunks = ChunkedSelection.split(selector);
+
+        PassClientResult<Publisher> result = ChunkedSelection.select_wait(client, 0, 30, chunks);
+        assertEquals(250, result.getTotal());
+        assertEquals(publishers.subList(0, 30), result.getObjects());
+
+        // Chunks are paged with the selector limit to reach the offset
+        result = ChunkedSelection.select_wait(client, 95, 10, chunks);
+        assertEquals(250, result.getTotal());
+        assertEquals(publishers.subList(95, 105), result.getObjects());
+
+        result = ChunkedSelection.select_wait(client, 240, 30, chunks);
+        assertEquals(publishers.subList(240, 250), result.getObjects());
+
+        result = ChunkedSelection.select_wait(client, 0, Integer.MAX_VALUE, chunks);
+        assertEquals(publishers.subList(0, 250), result.getObjects());
+    }
+
+    @Test
+    public void testSelectChunkNotFound() throws IOException {
+        PassClientSelector<Publisher> selector = new PassClientSelector<>(Publisher.class, 0, 30,
+                RSQL.in("id", ids(0, 250).toArray(String[]::new)), null);
+        List<PassClientSelector<Publisher>> chunks = ChunkedSelection.split(selector);
+
+        // Selections of the first chunk are not found
+        InMemoryPassClient notFound = new InMemoryPassClient() {
+            @Override
+            public synchronized <T extends PassEntity> PassClientResult<T> selectObjects(
+                    PassClientSelector<T> selector) throws IOException {
+                if (chunks.get(0).getFilter().equals(selector.getFilter())) {
+                    return null;
+                }
+
+                return super.selectObjects(selector);
+            }
+        };
+
+        for (Publisher publisher : publishers) {
+            notFound.createObject(publisher);
+        }
+
+        PassClientResult<Publisher> result = ChunkedSelection.select_wait(notFound, 0, 200, chunks);
+        assertEquals(150, result.getTotal());
+        assertEquals(publishers.subList(100, 250), result.getObjects());
+    }
+
+    @Test
+    public void testSelectExpression() throws IOException {
+        PassClientSelector<Publisher> selector = new PassClientSelector<>(Publisher.class);
+        selector.setFilterExpression(RSQLExpression.and(RSQLExpression.equals("name", "Publisher 1*"),
+                RSQLExpression.in("id", ids(0, 250).toArray(String[]::new))));
+
+        PassClientResult<Publisher> result = ChunkedSelection.select_wait(client, 0, 500,
+                ChunkedSelection.split(selector));
+
+        // Publisher 1, 10-19, 100-199
+        assertEquals(111, result.getTotal());
+        assertEquals(111, result.getObjects().size());
+    }
+
+    @Test
+    public void testStream() throws IOException {
+        List<String> ids = new ArrayList<>(ids(0, 250));
+        ids.add(publishers.get(5).getId());
+
+        PassClientSelector<Publisher> selector = new PassClientSelector<>(Publisher.class, 3, 10,
+                RSQL.in("id", ids.toArray(String[]::new)), null);
+
+        assertEquals(publishers.subList(3, 250), client.streamObjects(selector).collect(Collectors.toList()));
+
+        // Only the pages needed are retrieved
+        int count = client.getSelectCount();
+        assertEquals(publishers.subList(3, 8), client.streamObjects(selector).limit(5).collect(Collectors.toList()));
+        assertEquals(count + 1, client.getSelectCount());
+
+        count = client.getSelectCount();
+        assertEquals(publishers.get(103), client.streamObjects(selector).skip(100).findFirst().orElseThrow());
+        // Ten pages and an empty page of the first chunk, then a page of the second
+        assertEquals(count + 12, client.getSelectCount());
+
+        selector.setPrefetch(2);
+        assertEquals(publishers.subList(3, 250), client.streamObjects(selector).collect(Collectors.toList()));
+
+        try (Stream<Publisher> stream = client.streamObjects(selector)) {
+            assertEquals(publishers.get(3), stream.findFirst().orElseThrow());
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.eclipse.pass.support.client.model.PassEntity;
+import org.eclipse.pass.support.client.model.Publication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CoalescingPassClientTest {
+    private CountDownLatch release;
+    private InMemoryPassClient delegate;
+    private CoalescingPassClient client;
+    private ExecutorService executor;
+    private Publication pub;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        release = new CountDownLatch(1);
+        executor = Executors.newFixedThreadPool(4);
+
+        // Reads block until released
+        delegate = new InMemoryPassClient() {
+            @Override
+            public <T extends PassEntity> T getObject(Class<T> type,
+                    String id, String... include) throws IOException {
+                await();
+                return super.getObject(type, id, include);
+            }
+
+            @Override
+            public <T extends PassEntity> PassClientResult<T> selectObjects(
+                    PassClientSelector<T> selector) throws IOException {
+                await();
+                return super.selectObjects(selector);
+            }
+        };
+
+        client = new CoalescingPassClient(delegate);
+
+        pub = new Publication();
+        client.createObject(pub);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        executor.shutdownNow();
+    }
+
+    private void await() throws IOException {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+
+    // Wait until the given number of requests have been made and then release the delegate
+    private void releaseAfter(int count) throws InterruptedException {
+        releaseAfter(client, count);
+    }
+
+    private void releaseAfter(CoalescingPassClient client, int count) throws InterruptedException {
+        long end = System.currentTimeMillis() + 10000;
+
+        while (client.getRequestCount() < count && System.currentTimeMillis() < end) {
+            Thread.sleep(5);
+        }
+
+        release.countDown();
+    }
+
+    @Test
+    public void testGetObjectCoalesced() throws Exception {
+        List<Future<Publication>> results = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            results.add(executor.submit(() -> client.getObject(Publication.class, pub.getId())));
+        }
+
+        releaseAfter(4);
+
+        for (Future<Publication> result : results) {
+            assertSame(pub, result.get());
+        }
+
+        assertEquals(1, delegate.getGetCount());
+        assertEquals(4, client.getRequestCount());
+        assertEquals(3, client.getCoalescedCount());
+        assertEquals(0.75, client.getCoalescingRatio());
+    }
+
+    @Test
+    public void testDifferentRequestsNotCoalesced() throws Exception {
+        Future<Publication> result1 = executor.submit(() -> client.getObject(Publication.class, pub.getId()));
+        Future<Publication> result2 = executor.submit(() -> client.getObject(Publication.class, pub.getId(),
+                "journal"));
+        Future<PassClientResult<Publication>> result3 = executor.submit(() -> client.selectObjects(
+                new PassClientSelector<>(Publication.class)));
+        Future<PassClientResult<Publication>> result4 = executor.submit(() -> client.selectObjects(
+                new PassClientSelector<>(Publication.class, 1, 10, null, null)));
+
+        releaseAfter(4);
+
+        assertSame(pub, result1.get());
+        assertSame(pub, result2.get());
+        assertEquals(1, result3.get().getObjects().size());
+        assertEquals(0, result4.get().getObjects().size());
+
+        assertEquals(2, delegate.getGetCount());
+        assertEquals(2, delegate.getSelectCount());
+        assertEquals(0, client.getCoalescedCount());
+    }
+
+    @Test
+    public void testSelectObjectsAsyncCoalesced() throws Exception {
+        // The default asynchronous select blocks the calling thread
+        List<Future<CompletableFuture<PassClientResult<Publication>>>> results = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            results.add(executor.submit(() -> client.selectObjectsAsync(
+                    new PassClientSelector<>(Publication.class))));
+        }
+
+        releaseAfter(3);
+
+        for (Future<CompletableFuture<PassClientResult<Publication>>> result : results) {
+            assertEquals(List.of(pub), result.get().get().getObjects());
+        }
+
+        assertEquals(1, delegate.getSelectCount());
+        assertEquals(2, client.getCoalescedCount());
+    }
+
+    @Test
+    public void testSequentialNotCoalesced() throws IOException {
+        release.countDown();
+
+        client.getObject(Publication.class, pub.getId());
+        client.getObject(Publication.class, pub.getId());
+
+        assertEquals(2, delegate.getGetCount());
+        assertEquals(0, client.getCoalescedCount());
+    }
+
+    @Test
+    public void testErrorShared() throws Exception {
+        List<Future<PassClientResult<Publication>>> results = new ArrayList<>();
+        PassClientSelector<Publication> selector = new PassClientSelector<>(Publication.class);
+        selector.setFilter("bad");
+
+        for (int i = 0; i < 2; i++) {
+            results.add(executor.submit(() -> client.selectObjects(selector)));
+        }
+
+        releaseAfter(2);
+
+        for (Future<PassClientResult<Publication>> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, result::get);
+            assertTrue(e.getCause() instanceof IOException);
+        }
+
+        assertEquals(1, delegate.getSelectCount());
+    }
+
+    @Test
+    public void testErrorReleasesWaiters() throws Exception {
+        CoalescingPassClient failing = new CoalescingPassClient(new InMemoryPassClient() {
+            @Override
+            public <T extends PassEntity> T getObject(Class<T> type, String id, String... include)
+                    throws IOException {
+                await();
+                throw new AssertionError("Failed");
+            }
+        });
+
+        List<Future<Publication>> results = new ArrayList<>();
+
+        for (int i = 0; i < 2; i++) {
+            results.add(executor.submit(() -> failing.getObject(Publication.class, "1")));
+        }
+
+        releaseAfter(failing, 2);
+
+        for (Future<Publication> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof AssertionError);
+        }
+
+        assertEquals(1, failing.getCoalescedCount());
+    }
+
+    @Test
+    public void testAsyncFailureToStart() throws Exception {
+        release.countDown();
+
+        CoalescingPassClient failing = new CoalescingPassClient(new InMemoryPassClient() {
+            private boolean failed = false;
+
+            @Override
+            public <T extends PassEntity> CompletableFuture<T> getObjectAsync(Class<T> type, String id,
+                    String... include) {
+                if (!failed) {
+                    failed = true;
+                    throw new IllegalStateException("Cannot start");
+                }
+
+                return CompletableFuture.completedFuture(null);
+            }
+        });
+
+        CompletableFuture<Publication> first = failing.getObjectAsync(Publication.class, "1");
+        ExecutionException e = assertThrows(ExecutionException.class, () -> first.get(10, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IllegalStateException);
+
+        // An identical read is not left waiting for the read which failed to start
+        assertNull(failing.getObjectAsync(Publication.class, "1").get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        PassClientMetrics metrics = PassClientMetrics.simple();
+        client.setMetrics(metrics);
+
+        List<Future<Publication>> results = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            results.add(executor.submit(() -> client.getObject(Publication.class, pub.getId())));
+        }
+
+        releaseAfter(4);
+
+        for (Future<Publication> result : results) {
+            result.get();
+        }
+
+        MeterRegistry registry = metrics.getRegistry();
+        assertEquals(4, registry.get("pass.client.coalescing.requests").gauge().value(), 0.001);
+        assertEquals(3, registry.get("pass.client.coalescing.coalesced").gauge().value(), 0.001);
+        assertEquals(0.75, registry.get("pass.client.coalescing.ratio").gauge().value(), 0.001);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.eclipse.pass.support.client.model.Journal;
+import org.junit.jupiter.api.Test;
+
+public class ConditionalGetStoreTest {
+    private static Journal journal(String id) {
+        Journal journal = new Journal(id);
+        journal.setJournalName("Journal " + id);
+        journal.setIssns(List.of("1234-5678"));
+
+        return journal;
+    }
+
+    @Test
+    public void testRevalidated() {
+        ConditionalGetStore store = new ConditionalGetStore(10);
+        Journal journal = journal("1");
+
+        store.put("url1", "\"etag\"", null, journal, 100);
+
+        ConditionalGetStore.Entry entry = store.get("url1");
+        assertEquals("\"etag\"", entry.getETag());
+        assertNull(entry.getLastModified());
+
+        Journal result = store.revalidated(Journal.class, entry);
+        assertEquals(journal, result);
+        assertNotSame(journal, result);
+
+        // Changes to returned objects do not affect the store
+        result.setJournalName("Changed");
+        assertEquals(journal, store.revalidated(Journal.class, entry));
+
+        assertEquals(2, store.getNotModifiedCount());
+        assertEquals(200, store.getBytesSaved());
+    }
+
+    @Test
+    public void testNoValidators() {
+        ConditionalGetStore store = new ConditionalGetStore(10);
+
+        store.put("url1", "\"etag\"", null, journal("1"), 100);
+        store.put("url1", null, null, journal("1"), 100);
+        store.put("url2", null, null, journal("2"), 100);
+
+        assertNull(store.get("url1"));
+        assertNull(store.get("url2"));
+    }
+
+    @Test
+    public void testRemoveObject() {
+        ConditionalGetStore store = new ConditionalGetStore(10);
+
+        store.put("http://host/data/journal/1", null, "date", journal("1"), 100);
+        store.put("http://host/data/journal/1?include=publisher", null, "date", journal("1"), 100);
+        store.put("http://host/data/journal/10", null, "date", journal("10"), 100);
+
+        store.removeObject("http://host/data/journal/1");
+
+        assertEquals(1, store.size());
+        assertNotNull(store.get("http://host/data/journal/10"));
+    }
+
+    @Test
+    public void testEviction() {
+        ConditionalGetStore store = new ConditionalGetStore(2);
+
+        store.put("url1", null, "date", journal("1"), 100);
+        store.put("url2", null, "date", journal("2"), 100);
+        store.get("url1");
+        store.put("url3", null, "date", journal("3"), 100);
+
+        assertEquals(2, store.size());
+        assertNotNull(store.get("url1"));
+        assertNull(store.get("url2"));
+        assertNotNull(store.get("url3"));
+
+        store.setMaxSize(0);
+        assertFalse(store.isEnabled());
+        assertEquals(0, store.size());
+
+        store.put("url1", null, "date", journal("1"), 100);
+        assertEquals(0, store.size());
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.pass.support.client.model.Funder;
+import org.eclipse.pass.support.client.model.Grant;
+import org.eclipse.pass.support.client.model.PassEntity;
+import org.eclipse.pass.support.client.model.RepositoryCopy;
+import org.eclipse.pass.support.client.model.User;
+import org.junit.jupiter.api.Test;
+
+public class EntityMetadataTest {
+    @Test
+    public void testAllTypes() {
+        assertEquals(14, EntityMetadata.types().size());
+
+        EntityMetadata.types().forEach(type -> {
+            EntityMetadata md = EntityMetadata.of(type);
+
+            assertSame(md, EntityMetadata.of(md.getJsonType()));
+            assertEquals("id", md.newInstance("id").getId());
+        });
+
+        assertEquals("repositoryCopy", EntityMetadata.of(RepositoryCopy.class).getJsonType());
+        assertThrows(IllegalArgumentException.class, () -> EntityMetadata.of(PassEntity.class));
+    }
+
+    @Test
+    public void testGrantProperties() {
+        EntityMetadata md = EntityMetadata.of(Grant.class);
+
+        EntityMetadata.Property pi = md.getRelationships().get("pi");
+        assertEquals(User.class, pi.getTargetType());
+        assertFalse(pi.isToMany());
+
+        EntityMetadata.Property copis = md.getRelationships().get("coPis");
+        assertEquals(User.class, copis.getTargetType());
+        assertTrue(copis.isToMany());
+
+        EntityMetadata.Property award = md.getAttributes().get("awardNumber");
+        assertFalse(award.isRelationship());
+        assertSame(award, md.getProperty("awardNumber"));
+        assertNull(md.getProperty("nonexistent"));
+
+        assertEquals(Arrays.asList("directFunder", "pi", "primaryFunder"), md.getToOneRelationships().stream()
+                .map(EntityMetadata.Property::getName).sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testGetSetCopy() {
+        EntityMetadata md = EntityMetadata.of(Grant.class);
+
+        Grant grant = new Grant("1");
+        md.getProperty("awardNumber").set(grant, "award");
+        md.getProperty("directFunder").set(grant, new Funder("2"));
+        md.getProperty("coPis").set(grant, List.of(new User("3")));
+
+        assertEquals("award", grant.getAwardNumber());
+        assertEquals(new Funder("2"), md.getProperty("directFunder").get(grant));
+        assertEquals(List.of(new User("3")), grant.getCoPis());
+
+        PassEntity copy = md.copy(grant);
+        assertNotSame(grant, copy);
+        assertEquals(grant, copy);
+    }
+}
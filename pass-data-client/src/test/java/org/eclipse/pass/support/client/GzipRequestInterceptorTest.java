@@ -0,0 +1,91 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.GzipSource;
+import okio.Okio;
+import org.junit.jupiter.api.Test;
+
+public class GzipRequestInterceptorTest {
+    private static final MediaType JSON_API = MediaType.parse("application/vnd.api+json; charset=utf-8");
+    private static final String BODY = "{\"data\":{\"type\":\"journal\",\"attributes\":{\"journalName\":\"Journal\"}}}"
+            .repeat(100);
+
+    private static Request request(String method, String body) {
+        return new Request.Builder().url("http://localhost:8080/data/journal")
+                .method(method, RequestBody.create(body, JSON_API)).build();
+    }
+
+    private static String decompress(RequestBody body) throws IOException {
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+
+        return Okio.buffer(new GzipSource(buffer)).readUtf8();
+    }
+
+    @Test
+    public void testCompressLargeBody() throws IOException {
+        GzipRequestInterceptor interceptor = new GzipRequestInterceptor(1024);
+
+        for (String method : new String[] {"POST", "PATCH"}) {
+            Request result = interceptor.compress(request(method, BODY));
+
+            assertEquals("gzip", result.header("Content-Encoding"));
+            assertEquals(JSON_API, result.body().contentType());
+            assertEquals(method, result.method());
+            assertEquals(BODY, decompress(result.body()));
+        }
+    }
+
+    @Test
+    public void testSmallBodyNotCompressed() throws IOException {
+        Request request = request("POST", "{}");
+
+        assertSame(request, new GzipRequestInterceptor(1024).compress(request));
+    }
+
+    @Test
+    public void testIncompressibleBodyNotCompressed() throws IOException {
+        Request request = request("POST", "{}");
+
+        assertSame(request, new GzipRequestInterceptor(0).compress(request));
+        assertNull(request.header("Content-Encoding"));
+    }
+
+    @Test
+    public void testOtherMethodsNotCompressed() throws IOException {
+        Request request = request("PUT", BODY);
+
+        assertSame(request, new GzipRequestInterceptor(0).compress(request));
+    }
+
+    @Test
+    public void testEncodedBodyNotCompressed() throws IOException {
+        Request request = request("POST", BODY).newBuilder().header("Content-Encoding", "br").build();
+
+        assertSame(request, new GzipRequestInterceptor(0).compress(request));
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.pass.support.client.model.Grant;
+import org.eclipse.pass.support.client.model.Journal;
+import org.eclipse.pass.support.client.model.Publication;
+import org.eclipse.pass.support.client.model.Repository;
+import org.eclipse.pass.support.client.model.Submission;
+import org.eclipse.pass.support.client.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class HydratorTest {
+    private InMemoryPassClient client;
+    private Journal journal;
+    private List<Publication> pubs;
+    private List<Repository> repos;
+    private List<Submission> subs;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        client = new InMemoryPassClient();
+
+        journal = new Journal();
+        journal.setJournalName("Journal");
+        client.createObject(journal);
+
+        pubs = new ArrayList<>();
+        repos = new ArrayList<>();
+        subs = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            Publication pub = new Publication();
+            pub.setTitle("Title " + i);
+            pub.setJournal(new Journal(journal.getId()));
+            client.createObject(pub);
+            pubs.add(pub);
+
+            Repository repo = new Repository();
+            repo.setName("Repository " + i);
+            client.createObject(repo);
+            repos.add(repo);
+        }
+
+        for (int i = 0; i < 6; i++) {
+            // Stored submissions reference stubs
+            Submission sub = new Submission();
+            sub.setPublication(new Publication(pubs.get(i % 3).getId()));
+            sub.setRepositories(List.of(new Repository(repos.get(0).getId()), new Repository(repos.get(i % 3)
+                    .getId())));
+            client.createObject(sub);
+            subs.add(sub);
+        }
+    }
+
+    @Test
+    public void testHydrateToOne() throws IOException {
+        client.hydrate(pubs, "journal");
+
+        pubs.forEach(p -> assertSame(journal, p.getJournal()));
+        assertEquals(1, client.getSelectCount());
+        assertEquals(0, client.getGetCount());
+    }
+
+    @Test
+    public void testHydratePaths() throws IOException {
+        client.hydrate(subs, "publication.journal", "repositories");
+
+        for (int i = 0; i < subs.size(); i++) {
+            Submission sub = subs.get(i);
+
+            assertSame(pubs.get(i % 3), sub.getPublication());
+            assertSame(journal, sub.getPublication().getJournal());
+            assertEquals(List.of(repos.get(0), repos.get(i % 3)), sub.getRepositories());
+            assertSame(repos.get(0), sub.getRepositories().get(0));
+        }
+
+        // Publications and repositories together, then journals
+        assertEquals(3, client.getSelectCount());
+    }
+
+    @Test
+    public void testIdentityOfGivenObjects() throws IOException {
+        User pi = new User();
+        client.createObject(pi);
+
+        Grant grant = new Grant();
+        grant.setPi(new User(pi.getId()));
+        grant.setCoPis(List.of(new User(pi.getId())));
+        client.createObject(grant);
+
+        client.hydrate(List.of(pi, grant), "pi", "coPis");
+
+        assertSame(pi, grant.getPi());
+        assertSame(pi, grant.getCoPis().get(0));
+        assertEquals(0, client.getSelectCount());
+    }
+
+    @Test
+    public void testMissingTargetKept() throws IOException {
+        Publication pub = new Publication();
+        Journal missing = new Journal("1000");
+        pub.setJournal(missing);
+
+        Publication none = new Publication();
+
+        client.hydrate(List.of(pub, none), "journal");
+
+        assertSame(missing, pub.getJournal());
+        assertNull(none.getJournal());
+    }
+
+    @Test
+    public void testToManyEntriesKept() throws IOException {
+        Repository unidentified = new Repository();
+        List<Repository> targets = new ArrayList<>();
+        targets.add(null);
+        targets.add(unidentified);
+        targets.add(new Repository(repos.get(1).getId()));
+
+        Submission sub = new Submission();
+        sub.setRepositories(targets);
+
+        client.hydrate(List.of(sub), "repositories");
+
+        assertSame(targets, sub.getRepositories());
+        assertEquals(3, targets.size());
+        assertNull(targets.get(0));
+        assertSame(unidentified, targets.get(1));
+        assertSame(repos.get(1), targets.get(2));
+    }
+
+    @Test
+    public void testUnknownRelationship() {
+        assertThrows(IllegalArgumentException.class, () -> client.hydrate(pubs, "nothing"));
+    }
+}
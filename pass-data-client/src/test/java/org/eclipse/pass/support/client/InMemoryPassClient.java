@@ -0,0 +1,172 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+
+/**
+ * Simple PassClient which keeps objects in memory. Objects are sorted by numeric id.
+ * The only supported filters are an =in= expression on the id or an attribute, an id=gt= expression,
+ * and a disjunction of =hasmember= expressions on a collection attribute. Any filter set as an
+ * {@link RSQLExpression} is supported by evaluating it.
+ */
+public class InMemoryPassClient implements PassClient {
+    private static final Pattern IN = Pattern.compile("(\\w+)=in=\\((.*)\\)");
+    private static final Pattern HAS_MEMBER = Pattern.compile("(\\w+)=hasmember='([^']*)'");
+    private static final Pattern ID_GT = Pattern.compile("id=gt='(\\d+)'");
+
+    private final Map<Class<?>, TreeMap<Long, PassEntity>> objects = new ConcurrentHashMap<>();
+    private final AtomicInteger next_id = new AtomicInteger(1);
+    private final AtomicInteger select_count = new AtomicInteger();
+    private final AtomicInteger get_count = new AtomicInteger();
+
+    private TreeMap<Long, PassEntity> objects(Class<?> type) {
+        return objects.computeIfAbsent(type, t -> new TreeMap<>());
+    }
+
+    /**
+     * @return number of times selectObjects was called
+     */
+    public int getSelectCount() {
+        return select_count.get();
+    }
+
+    /**
+     * @return number of times getObject was called
+     */
+    public int getGetCount() {
+        return get_count.get();
+    }
+
+    @Override
+    public synchronized <T extends PassEntity> void createObject(T obj) throws IOException {
+        obj.setId("" + next_id.getAndIncrement());
+        objects(obj.getClass()).put(Long.valueOf(obj.getId()), obj);
+    }
+
+    @Override
+    public synchronized <T extends PassEntity> void updateObject(T obj) throws IOException {
+        objects(obj.getClass()).put(Long.valueOf(obj.getId()), obj);
+    }
+
+    @Override
+    public synchronized <T extends PassEntity> T getObject(Class<T> type, String id, String... include)
+            throws IOException {
+        get_count.incrementAndGet();
+        return type.cast(objects(type).get(Long.valueOf(id)));
+    }
+
+    @Override
+    public synchronized <T extends PassEntity> void deleteObject(Class<T> type, String id) throws IOException {
+        objects(type).remove(Long.valueOf(id));
+    }
+
+    private static boolean matches(PassEntity obj, String field, Set<String> values, boolean members) {
+        if (field.equals("id")) {
+            return values.contains(obj.getId());
+        }
+
+        Object value = EntityMetadata.of(obj.getClass()).getAttributes().get(field).get(obj);
+
+        if (members) {
+            return value != null && ((Collection<?>) value).stream().anyMatch(v -> values.contains("" + v));
+        }
+
+        if (value instanceof Enum) {
+            // Enums are filtered by their JSON value
+            value = RSQLExpression.enum_value((Enum<?>) value);
+        }
+
+        return value != null && values.contains(value.toString());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized <T extends PassEntity> PassClientResult<T> selectObjects(PassClientSelector<T> selector)
+            throws IOException {
+        select_count.incrementAndGet();
+
+        List<T> matches = new ArrayList<>();
+        String field = null;
+        Set<String> values = null;
+        boolean members = false;
+        long after = 0;
+
+        if (selector.getFilterExpression() != null) {
+            RSQLExpression expression = selector.getFilterExpression();
+
+            for (PassEntity obj : objects(selector.getType()).values()) {
+                if (expression.test(obj)) {
+                    matches.add((T) obj);
+                }
+            }
+
+            return page(selector, matches);
+        }
+
+        if (selector.getFilter() != null) {
+            Matcher in = IN.matcher(selector.getFilter());
+            Matcher gt = ID_GT.matcher(selector.getFilter());
+            Matcher has_member = HAS_MEMBER.matcher(selector.getFilter());
+
+            if (in.matches()) {
+                field = in.group(1);
+                values = new HashSet<>(Arrays.asList(in.group(2).replace("'", "").split(",")));
+            } else if (gt.matches()) {
+                after = Long.parseLong(gt.group(1));
+            } else if (has_member.find()) {
+                field = has_member.group(1);
+                values = new HashSet<>();
+                members = true;
+
+                do {
+                    values.add(has_member.group(2));
+                } while (has_member.find());
+            } else {
+                throw new IOException("Unsupported filter: " + selector.getFilter());
+            }
+        }
+
+        for (PassEntity obj : objects(selector.getType()).tailMap(after, false).values()) {
+            if (values == null || matches(obj, field, values, members)) {
+                matches.add((T) obj);
+            }
+        }
+
+        return page(selector, matches);
+    }
+
+    private static <T extends PassEntity> PassClientResult<T> page(PassClientSelector<T> selector, List<T> matches) {
+        int from = Math.min(selector.getOffset(), matches.size());
+        int to = Math.min(from + selector.getLimit(), matches.size());
+
+        return new PassClientResult<>(new ArrayList<>(matches.subList(from, to)), matches.size());
+    }
+}
@@ -3,6 +3,7 @@ package org.eclipse.pass.support.client;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
@@ -14,6 +15,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.eclipse.pass.support.client.model.AggregatedDepositStatus;
@@ -177,6 +179,41 @@ public class JsonApiPassClientIT {
         assertEquals(sub, client.getObject(sub, "publication"));
     }
 
+    @Test
+    public void testUpdateObjectChangeTracking() throws IOException {
+        JsonApiPassClient trackingClient = (JsonApiPassClient) PassClient.newInstance();
+        trackingClient.setChangeTracking(true);
+
+        Journal journal = new Journal();
+        journal.setJournalName("Tracked journal");
+        journal.setNlmta("Tracked nlmta");
+        trackingClient.createObject(journal);
+
+        // Update only the name of an object retrieved with sparse fields
+        PassClientSelector<Journal> selector = new PassClientSelector<>(Journal.class);
+        selector.setFields("journalName");
+        Journal sparse = trackingClient.getObject(selector, journal.getId());
+        assertNull(sparse.getNlmta());
+
+        sparse.setJournalName("Renamed tracked journal");
+        trackingClient.updateObject(sparse);
+
+        // The field which was not retrieved is not cleared
+        journal.setJournalName("Renamed tracked journal");
+        assertEquals("Tracked nlmta", client.getObject(journal).getNlmta());
+        assertEquals(journal, client.getObject(journal));
+
+        // Updating without changes does nothing
+        Journal full = trackingClient.getObject(journal);
+        trackingClient.updateObject(full);
+        assertEquals(journal, client.getObject(journal));
+
+        // Remove an attribute
+        full.setNlmta(null);
+        trackingClient.updateObject(full);
+        assertEquals(full, client.getObject(journal));
+    }
+
     @Test
     public void testUpdateObjectMultipleRelationships() throws IOException {
         Repository rep1 = new Repository();
@@ -239,6 +276,8 @@ public class JsonApiPassClientIT {
 
         assertEquals(pubs.size(), result.getTotal());
         assertIterableEquals(pubs, result.getObjects());
+        assertTrue(result.getResponseBytes() > 0);
+        assertTrue(result.getResponseNanos() > 0);
 
         // Test selecting with an offset
         selector = new PassClientSelector<>(Publication.class, 5, 100, filter, "id");
@@ -253,10 +292,164 @@ public class JsonApiPassClientIT {
         pubs.forEach(p -> p.setJournal(new Journal(journal.getId())));
         assertIterableEquals(pubs, client.streamObjects(selector).collect(Collectors.toList()));
 
+        // Test using a stream with keyset pagination. Do not include journal.
+        selector = new PassClientSelector<>(Publication.class, 0, 3, filter, null);
+        selector.setKeysetOn("id");
+        assertIterableEquals(pubs, client.streamObjects(selector).collect(Collectors.toList()));
+
         // Test searching on a relationship. Do not include journal.
         filter = RSQL.equals("journal.id", journal.getId());
         selector = new PassClientSelector<>(Publication.class, 0, 100, filter, "id");
         assertIterableEquals(pubs, client.streamObjects(selector).collect(Collectors.toList()));
+
+        // Test counting
+        assertEquals(pubs.size(), client.countObjects(selector));
+
+        // Test selecting only the title
+        selector = new PassClientSelector<>(Publication.class, 0, 100, filter, "id");
+        selector.setFields("title");
+        result = client.selectObjects(selector);
+
+        assertEquals(pubs.size(), result.getTotal());
+        for (int i = 0; i < pubs.size(); i++) {
+            Publication pub = result.getObjects().get(i);
+
+            assertEquals(pubs.get(i).getId(), pub.getId());
+            assertEquals(pubs.get(i).getTitle(), pub.getTitle());
+            assertNull(pub.getIssue());
+            assertNull(pub.getJournal());
+        }
+
+        // Test getting an object with only the title and the name of the included journal
+        selector = new PassClientSelector<>(Publication.class);
+        selector.setInclude("journal");
+        selector.setFields("title", "journal");
+        selector.setFields(Journal.class, "journalName");
+
+        Publication pub = client.getObject(selector, pubs.get(0).getId());
+        assertEquals(pubs.get(0).getTitle(), pub.getTitle());
+        assertNull(pub.getIssue());
+        assertEquals(journal.getJournalName(), pub.getJournal().getJournalName());
+        assertNull(pub.getJournal().getNlmta());
+    }
+
+    @Test
+    public void testAsyncOperations() throws Exception {
+        List<CompletableFuture<Void>> creates = new ArrayList<>();
+        List<Publisher> publishers = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            Publisher publisher = new Publisher();
+            publisher.setName("Async publisher " + i);
+
+            publishers.add(publisher);
+            creates.add(client.createObjectAsync(publisher));
+        }
+
+        CompletableFuture.allOf(creates.toArray(new CompletableFuture<?>[0])).get();
+        publishers.forEach(p -> assertNotNull(p.getId()));
+
+        Publisher publisher = publishers.get(0);
+        assertEquals(publisher, client.getObjectAsync(Publisher.class, publisher.getId()).get());
+
+        publisher.setName("Updated async publisher");
+        client.updateObjectAsync(publisher).get();
+        assertEquals(publisher, client.getObject(publisher));
+
+        String filter = RSQL.in("id", publishers.stream().map(Publisher::getId).toArray(String[]::new));
+        PassClientSelector<Publisher> selector = new PassClientSelector<>(Publisher.class, 0, 100, filter, "id");
+        assertIterableEquals(publishers, client.selectObjectsAsync(selector).get().getObjects());
+
+        client.deleteObjectAsync(Publisher.class, publisher.getId()).get();
+        assertNull(client.getObject(publisher));
+    }
+
+    @Test
+    public void testExecuteBatch() throws IOException {
+        Funder funder = new Funder();
+        funder.setName("Batch funder");
+
+        Funder other = new Funder();
+        other.setName("Other batch funder");
+
+        List<String> ids = client.batch().create(funder).create(other).execute();
+
+        assertNotNull(funder.getId());
+        assertNotNull(other.getId());
+        assertEquals(Arrays.asList(funder.getId(), other.getId()), ids);
+
+        Grant grant = new Grant();
+        grant.setAwardNumber("batch-award");
+        grant.setPrimaryFunder(funder);
+
+        funder.setLocalKey("batch:funder");
+
+        ids = client.batch().update(funder).create(grant).delete(other).execute();
+
+        assertEquals(Arrays.asList(funder.getId(), grant.getId(), other.getId()), ids);
+        assertEquals(funder, client.getObject(funder));
+        assertEquals(grant, client.getObject(grant, "primaryFunder"));
+        assertNull(client.getObject(other));
+    }
+
+    @Test
+    public void testSelectObjectsLargeInFilter() throws IOException {
+        List<String> ids = new ArrayList<>();
+        List<Publisher> publishers = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            Publisher publisher = new Publisher();
+            publisher.setName("Chunked publisher " + i);
+            client.createObject(publisher);
+            publishers.add(publisher);
+            ids.add(publisher.getId());
+        }
+
+        // Ids which do not exist push the filter over the chunk size
+        for (int i = 0; i < 300; i++) {
+            ids.add("" + (Integer.MAX_VALUE - i));
+        }
+
+        PassClientSelector<Publisher> selector = new PassClientSelector<>(Publisher.class);
+        selector.setFilter(RSQL.in("id", ids.toArray(String[]::new)));
+
+        PassClientResult<Publisher> result = client.selectObjects(selector);
+
+        assertEquals(3, result.getTotal());
+        assertIterableEquals(publishers, result.getObjects());
+        assertIterableEquals(publishers, client.streamObjects(selector).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testUpsertAll() throws IOException {
+        String prefix = "upsert:" + UUID.randomUUID() + ":";
+
+        Funder stored = new Funder();
+        stored.setName("Upsert funder");
+        stored.setLocalKey(prefix + "1");
+        client.createObject(stored);
+
+        Funder funder1 = new Funder();
+        funder1.setName("Renamed upsert funder");
+        funder1.setLocalKey(prefix + "1");
+
+        Funder funder2 = new Funder();
+        funder2.setName("New upsert funder");
+        funder2.setLocalKey(prefix + "2");
+
+        List<Funder> result = client.upsertAll(List.of(funder1, funder2), "localKey", (funder, persisted) -> {
+            if (Objects.equals(funder.getName(), persisted.getName())) {
+                return null;
+            }
+
+            persisted.setName(funder.getName());
+            return persisted;
+        });
+
+        assertEquals(stored.getId(), result.get(0).getId());
+        assertEquals("Renamed upsert funder", client.getObject(stored).getName());
+        assertNotNull(funder2.getId());
+        assertEquals(funder2, client.getObject(funder2));
     }
 
     @Test
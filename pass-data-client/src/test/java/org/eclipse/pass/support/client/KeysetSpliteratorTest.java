@@ -0,0 +1,118 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+import org.eclipse.pass.support.client.model.Publication;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class KeysetSpliteratorTest {
+    private InMemoryPassClient client;
+    private List<Publication> pubs;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        client = new InMemoryPassClient();
+        pubs = new ArrayList<>();
+
+        for (int i = 0; i < 25; i++) {
+            Publication pub = new Publication();
+            pub.setTitle("Title " + i);
+
+            client.createObject(pub);
+            pubs.add(pub);
+        }
+    }
+
+    // Client which reports a response size of 100 bytes per object and records the limit of each page
+    private static InMemoryPassClient sized_client(InMemoryPassClient client, List<Integer> limits) {
+        return new InMemoryPassClient() {
+            @Override
+            public <T extends PassEntity> PassClientResult<T> selectObjects(PassClientSelector<T> selector)
+                    throws IOException {
+                synchronized (limits) {
+                    limits.add(selector.getLimit());
+                }
+
+                PassClientResult<T> result = client.selectObjects(selector);
+
+                return new PassClientResult<>(result.getObjects(), result.getTotal(),
+                        100L * result.getObjects().size());
+            }
+        };
+    }
+
+    @Test
+    public void testStreamKeyset() throws IOException {
+        PassClientSelector<Publication> selector = new PassClientSelector<>(Publication.class, 0, 10, null, null);
+        selector.setKeysetOn("id");
+
+        assertIterableEquals(pubs, client.streamObjects(selector).collect(Collectors.toList()));
+
+        // Three full or partial pages and an empty page
+        assertEquals(4, client.getSelectCount());
+        assertEquals(null, selector.getSorting());
+    }
+
+    @Test
+    public void testStreamKeysetSkipsDeleted() throws IOException {
+        PassClientSelector<Publication> selector = new PassClientSelector<>(Publication.class, 0, 10, null, null);
+        selector.setKeysetOn("id");
+
+        List<Publication> result = new ArrayList<>();
+
+        client.streamObjects(selector).forEach(p -> {
+            // Deleting objects already seen does not cause later objects to be skipped
+            if (result.size() == 5) {
+                try {
+                    for (Publication seen : result) {
+                        client.deleteObject(seen);
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+
+            result.add(p);
+        });
+
+        assertIterableEquals(pubs, result);
+    }
+
+    @Test
+    public void testStreamKeysetAdaptiveLimit() throws IOException {
+        List<Integer> limits = new ArrayList<>();
+        PassClient sized = sized_client(client, limits);
+
+        PassClientSelector<Publication> selector = new PassClientSelector<>(Publication.class, 0, 2, null, null);
+        selector.setKeysetOn("id");
+        selector.setAdaptiveLimit(AdaptivePageLimit.responseSize(1, 20, 1000));
+
+        assertIterableEquals(pubs, sized.streamObjects(selector).collect(Collectors.toList()));
+
+        // Pages double until 10 objects of 100 bytes fit the target, then a page of 1 and an empty page
+        assertEquals(List.of(2, 4, 8, 10, 10, 10), limits);
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.eclipse.pass.support.client.model.Journal;
+import org.eclipse.pass.support.client.model.PassEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PageRangeSpliteratorTest {
+    private static final long MILLIS = 1000000;
+
+    private InMemoryPassClient client;
+    private List<Journal> journals;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        client = new InMemoryPassClient();
+        journals = new ArrayList<>();
+
+        for (int i = 0; i < 47; i++) {
+            Journal journal = new Journal();
+            journal.setJournalName("Journal " + i);
+
+            client.createObject(journal);
+            journals.add(journal);
+        }
+    }
+
+    // Client which reports a response size of 100 bytes and a response time of a millisecond per object
+    // and records the limit of each page
+    private static InMemoryPassClient sized_client(InMemoryPassClient client, List<Integer> limits) {
+        return new InMemoryPassClient() {
+            @Override
+            public <T extends PassEntity> PassClientResult<T> selectObjects(PassClientSelector<T> selector)
+                    throws IOException {
+                synchronized (limits) {
+                    limits.add(selector.getLimit());
+                }
+
+                PassClientResult<T> result = client.selectObjects(selector);
+
+                return new PassClientResult<>(result.getObjects(), result.getTotal(),
+                        100L * result.getObjects().size(), MILLIS * result.getObjects().size());
+            }
+        };
+    }
+
+    // Wait before each selection as if queued behind other requests
+    private static PassClient queued_client(PassClient client, long millis) {
+        return new InMemoryPassClient() {
+            @Override
+            public <T extends PassEntity> PassClientResult<T> selectObjects(PassClientSelector<T> selector)
+                    throws IOException {
+                try {
+                    Thread.sleep(millis);
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+
+                return client.selectObjects(selector);
+            }
+        };
+    }
+
+    @Test
+    public void testSequentialStream() throws IOException {
+        PassClientSelector<Journal> selector = new PassClientSelector<>(Journal.class, 0, 10, null, null);
+
+        assertIterableEquals(journals, client.streamObjects(selector).collect(Collectors.toList()));
+        assertEquals(0, selector.getOffset());
+    }
+
+    @Test
+    public void testParallelStream() throws IOException {
+        PassClientSelector<Journal> selector = new PassClientSelector<>(Journal.class, 0, 4, null, null);
+
+        assertIterableEquals(journals, client.streamObjects(selector).parallel().collect(Collectors.toList()));
+
+        selector = new PassClientSelector<>(Journal.class, 9, 4, null, null);
+
+        assertIterableEquals(journals.subList(9, journals.size()),
+                client.streamObjects(selector).parallel().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testSplit() throws IOException {
+        PassClientSelector<Journal> selector = new PassClientSelector<>(Journal.class, 0, 10, null, null);
+        Spliterator<Journal> suffix = new PageRangeSpliterator<>(client, selector);
+
+        assertEquals(journals.size(), suffix.estimateSize());
+
+        // First page is retrieved, four pages remain
+        Spliterator<Journal> prefix = suffix.trySplit();
+        assertNotNull(prefix);
+        assertEquals(30, prefix.estimateSize());
+        assertEquals(17, suffix.estimateSize());
+
+        Spliterator<Journal> middle = suffix.trySplit();
+        assertNotNull(middle);
+        assertEquals(10, middle.estimateSize());
+        assertEquals(7, suffix.estimateSize());
+        assertNull(suffix.trySplit());
+
+        List<Journal> result = new ArrayList<>();
+        prefix.forEachRemaining(result::add);
+        middle.forEachRemaining(result::add);
+        suffix.forEachRemaining(result::add);
+
+        assertIterableEquals(journals, result);
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        PassClientSelector<Journal> selector = new PassClientSelector<>(Journal.class, 100, 10, null, null);
+
+        assertEquals(0, client.streamObjects(selector).parallel().count());
+    }
+
+    @Test
+    public void testAdaptiveLimit() throws IOException {
+        List<Integer> limits = new ArrayList<>();
+        PassClient sized = sized_client(client, limits);
+
+        PassClientSelector<Journal> selector = new PassClientSelector<>(Journal.class, 0, 2, null, null);
+        selector.setAdaptiveLimit(AdaptivePageLimit.responseSize(1, 20, 1000));
+
+        assertIterableEquals(journals, sized.streamObjects(selector).collect(Collectors.toList()));
+
+        // Pages double until 10 objects of 100 bytes fit the target, then pages are retrieved until one is empty
+        assertEquals(List.of(2, 4, 8, 10, 10, 10, 10, 10), limits);
+        assertEquals(2, selector.getLimit());
+    }
+
+    @Test
+    public void testAdaptiveLatency() throws IOException {
+        List<Integer> limits = new ArrayList<>();
+        PassClient queued = queued_client(sized_client(client, limits), 20);
+
+        PassClientSelector<Journal> selector = new PassClientSelector<>(Journal.class, 0, 2, null, null);
+        selector.setAdaptiveLimit(AdaptivePageLimit.latency(1, 20, Duration.ofMillis(10)));
+
+        assertIterableEquals(journals, queued.streamObjects(selector).collect(Collectors.toList()));
+
+        // Objects take a millisecond to respond, time spent waiting to send the request is not counted
+        assertEquals(List.of(2, 4, 8, 10, 10, 10, 10, 10), limits);
+    }
+
+    @Test
+    public void testAdaptiveLimitParallel() throws IOException {
+        List<Integer> limits = new ArrayList<>();
+        PassClient sized = sized_client(client, limits);
+
+        PassClientSelector<Journal> selector = new PassClientSelector<>(Journal.class, 0, 2, null, null);
+        selector.setAdaptiveLimit(AdaptivePageLimit.responseSize(1, 20, 1000));
+
+        assertIterableEquals(journals, sized.streamObjects(selector).parallel().collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+import org.eclipse.pass.support.client.model.Publication;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PagingPublisherTest {
+    private InMemoryPassClient client;
+    private List<Publication> pubs;
+
+    private static class TestSubscriber<T> implements Flow.Subscriber<T> {
+        Flow.Subscription subscription;
+        List<T> items = new ArrayList<>();
+        Throwable error;
+        boolean complete;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            complete = true;
+        }
+    }
+
+    @BeforeEach
+    public void setup() throws IOException {
+        client = new InMemoryPassClient();
+        pubs = new ArrayList<>();
+
+        for (int i = 0; i < 25; i++) {
+            Publication pub = new Publication();
+            pub.setTitle("Title " + i);
+
+            client.createObject(pub);
+            pubs.add(pub);
+        }
+    }
+
+    @Test
+    public void testPublishAll() {
+        PassClientSelector<Publication> selector = new PassClientSelector<>(Publication.class, 0, 10, null, null);
+        TestSubscriber<Publication> subscriber = new TestSubscriber<>();
+
+        client.publishObjects(selector).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(pubs, subscriber.items);
+        assertTrue(subscriber.complete);
+        assertNull(subscriber.error);
+        assertEquals(3, client.getSelectCount());
+    }
+
+    @Test
+    public void testPagesRequestedOnDemand() {
+        PassClientSelector<Publication> selector = new PassClientSelector<>(Publication.class, 5, 10, null, null);
+        TestSubscriber<Publication> subscriber = new TestSubscriber<>();
+
+        client.publishObjects(selector).subscribe(subscriber);
+        assertEquals(0, client.getSelectCount());
+
+        subscriber.subscription.request(4);
+        assertEquals(pubs.subList(5, 9), subscriber.items);
+        assertEquals(1, client.getSelectCount());
+
+        subscriber.subscription.request(6);
+        assertEquals(pubs.subList(5, 15), subscriber.items);
+        assertEquals(1, client.getSelectCount());
+
+        subscriber.subscription.request(1);
+        assertEquals(pubs.subList(5, 16), subscriber.items);
+        assertEquals(2, client.getSelectCount());
+        assertFalse(subscriber.complete);
+
+        subscriber.subscription.request(100);
+        assertEquals(pubs.subList(5, 25), subscriber.items);
+        assertTrue(subscriber.complete);
+    }
+
+    @Test
+    public void testCancel() {
+        PassClientSelector<Publication> selector = new PassClientSelector<>(Publication.class, 0, 10, null, null);
+        TestSubscriber<Publication> subscriber = new TestSubscriber<>();
+
+        client.publishObjects(selector).subscribe(subscriber);
+        subscriber.subscription.request(2);
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(10);
+
+        assertEquals(pubs.subList(0, 2), subscriber.items);
+        assertFalse(subscriber.complete);
+        assertEquals(1, client.getSelectCount());
+    }
+
+    @Test
+    public void testCancelPageInFlight() {
+        CompletableFuture<PassClientResult<Publication>> page = new CompletableFuture<>();
+
+        PassClient pending = new InMemoryPassClient() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T extends PassEntity> CompletableFuture<PassClientResult<T>> selectObjectsAsync(
+                    PassClientSelector<T> selector) {
+                return (CompletableFuture<PassClientResult<T>>) (Object) page;
+            }
+        };
+
+        TestSubscriber<Publication> subscriber = new TestSubscriber<>();
+        pending.publishObjects(new PassClientSelector<>(Publication.class)).subscribe(subscriber);
+        subscriber.subscription.request(1);
+        subscriber.subscription.cancel();
+
+        assertTrue(page.isCancelled());
+        assertTrue(subscriber.items.isEmpty());
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void testAsyncPage() {
+        CompletableFuture<PassClientResult<Publication>> page = new CompletableFuture<>();
+
+        PassClient pending = new InMemoryPassClient() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T extends PassEntity> CompletableFuture<PassClientResult<T>> selectObjectsAsync(
+                    PassClientSelector<T> selector) {
+                return (CompletableFuture<PassClientResult<T>>) (Object) page;
+            }
+        };
+
+        TestSubscriber<Publication> subscriber = new TestSubscriber<>();
+        pending.publishObjects(new PassClientSelector<>(Publication.class)).subscribe(subscriber);
+        subscriber.subscription.request(10);
+
+        page.complete(new PassClientResult<>(pubs.subList(0, 3), 3));
+
+        assertEquals(pubs.subList(0, 3), subscriber.items);
+        assertTrue(subscriber.complete);
+    }
+
+    @Test
+    public void testError() {
+        PassClientSelector<Publication> selector = new PassClientSelector<>(Publication.class);
+        selector.setFilter("bad");
+        TestSubscriber<Publication> subscriber = new TestSubscriber<>();
+
+        client.publishObjects(selector).subscribe(subscriber);
+        subscriber.subscription.request(1);
+
+        assertTrue(subscriber.error instanceof IOException);
+        assertFalse(subscriber.complete);
+    }
+
+    @Test
+    public void testInvalidRequest() {
+        TestSubscriber<Publication> subscriber = new TestSubscriber<>();
+
+        client.publishObjects(new PassClientSelector<>(Publication.class)).subscribe(subscriber);
+        subscriber.subscription.request(0);
+
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertEquals(0, client.getSelectCount());
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class PassClientConfigTest {
+    private static final List<String> PROPERTIES = List.of(PassClientConfig.URL_PROPERTY,
+            PassClientConfig.USER_PROPERTY, PassClientConfig.PASSWORD_PROPERTY,
+            PassClientConfig.MAX_IDLE_CONNECTIONS_PROPERTY, PassClientConfig.KEEP_ALIVE_PROPERTY,
+            PassClientConfig.HTTP2_PRIOR_KNOWLEDGE_PROPERTY, PassClientConfig.GZIP_REQUEST_THRESHOLD_PROPERTY,
+            PassClientConfig.CONNECT_TIMEOUT_PROPERTY, PassClientConfig.READ_TIMEOUT_PROPERTY,
+            PassClientConfig.WRITE_TIMEOUT_PROPERTY, PassClientConfig.CALL_TIMEOUT_PROPERTY,
+            PassClientConfig.MAX_REQUESTS_PROPERTY, PassClientConfig.MAX_REQUESTS_PER_HOST_PROPERTY,
+            PassClientConfig.CONCURRENCY_LIMIT_ENABLED_PROPERTY, PassClientConfig.CONCURRENCY_LIMIT_INITIAL_PROPERTY,
+            PassClientConfig.CONCURRENCY_LIMIT_MIN_PROPERTY, PassClientConfig.CONCURRENCY_LIMIT_MAX_PROPERTY);
+
+    @AfterEach
+    public void clearProperties() {
+        PROPERTIES.forEach(System::clearProperty);
+    }
+
+    @Test
+    public void testDefaults() {
+        PassClientConfig config = PassClientConfig.builder("http://localhost:8080").build();
+
+        assertEquals("http://localhost:8080", config.getUrl());
+        assertNull(config.getUser());
+        assertNull(config.getPassword());
+        assertEquals(5, config.getMaxIdleConnections());
+        assertEquals(Duration.ofMinutes(5), config.getKeepAlive());
+        assertFalse(config.isHttp2PriorKnowledge());
+        assertEquals(-1, config.getGzipRequestThreshold());
+        assertEquals(Duration.ofSeconds(10), config.getConnectTimeout());
+        assertEquals(Duration.ofSeconds(10), config.getReadTimeout());
+        assertEquals(Duration.ofSeconds(10), config.getWriteTimeout());
+        assertEquals(Duration.ZERO, config.getCallTimeout());
+        assertEquals(64, config.getMaxRequests());
+        assertEquals(5, config.getMaxRequestsPerHost());
+        assertSame(AdaptiveConcurrencyLimiter.shared(), config.getConcurrencyLimiter());
+    }
+
+    @Test
+    public void testConcurrencyLimiter() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(5, 1, 10);
+
+        assertSame(limiter, PassClientConfig.builder("http://localhost:8080").concurrencyLimiter(limiter).build()
+                .getConcurrencyLimiter());
+        assertNull(PassClientConfig.builder("http://localhost:8080").concurrencyLimiter(null).build()
+                .getConcurrencyLimiter());
+    }
+
+    @Test
+    public void testConcurrencyLimiterFromSystemProperties() {
+        System.setProperty(PassClientConfig.URL_PROPERTY, "http://pass:8080/");
+        System.setProperty(PassClientConfig.CONCURRENCY_LIMIT_INITIAL_PROPERTY, "8");
+        System.setProperty(PassClientConfig.CONCURRENCY_LIMIT_MAX_PROPERTY, "16");
+
+        AdaptiveConcurrencyLimiter limiter = PassClientConfig.fromSystemProperties().getConcurrencyLimiter();
+        assertNotSame(AdaptiveConcurrencyLimiter.shared(), limiter);
+        assertEquals(8, limiter.getLimit());
+
+        System.setProperty(PassClientConfig.CONCURRENCY_LIMIT_ENABLED_PROPERTY, "false");
+        assertNull(PassClientConfig.fromSystemProperties().getConcurrencyLimiter());
+    }
+
+    @Test
+    public void testFromSystemProperties() {
+        System.setProperty(PassClientConfig.URL_PROPERTY, "http://pass:8080/");
+        System.setProperty(PassClientConfig.USER_PROPERTY, "backend");
+        System.setProperty(PassClientConfig.PASSWORD_PROPERTY, "secret");
+        System.setProperty(PassClientConfig.MAX_IDLE_CONNECTIONS_PROPERTY, "50");
+        System.setProperty(PassClientConfig.KEEP_ALIVE_PROPERTY, "60000");
+        System.setProperty(PassClientConfig.HTTP2_PRIOR_KNOWLEDGE_PROPERTY, "true");
+        System.setProperty(PassClientConfig.GZIP_REQUEST_THRESHOLD_PROPERTY, "4096");
+        System.setProperty(PassClientConfig.CONNECT_TIMEOUT_PROPERTY, "2000");
+        System.setProperty(PassClientConfig.READ_TIMEOUT_PROPERTY, "30000");
+        System.setProperty(PassClientConfig.WRITE_TIMEOUT_PROPERTY, " 30000 ");
+        System.setProperty(PassClientConfig.CALL_TIMEOUT_PROPERTY, "120000");
+        System.setProperty(PassClientConfig.MAX_REQUESTS_PROPERTY, "128");
+        System.setProperty(PassClientConfig.MAX_REQUESTS_PER_HOST_PROPERTY, "32");
+
+        PassClientConfig config = PassClientConfig.fromSystemProperties();
+
+        assertEquals("http://pass:8080/", config.getUrl());
+        assertEquals("backend", config.getUser());
+        assertEquals("secret", config.getPassword());
+        assertEquals(50, config.getMaxIdleConnections());
+        assertEquals(Duration.ofMinutes(1), config.getKeepAlive());
+        assertTrue(config.isHttp2PriorKnowledge());
+        assertEquals(4096, config.getGzipRequestThreshold());
+        assertEquals(Duration.ofSeconds(2), config.getConnectTimeout());
+        assertEquals(Duration.ofSeconds(30), config.getReadTimeout());
+        assertEquals(Duration.ofSeconds(30), config.getWriteTimeout());
+        assertEquals(Duration.ofMinutes(2), config.getCallTimeout());
+        assertEquals(128, config.getMaxRequests());
+        assertEquals(32, config.getMaxRequestsPerHost());
+    }
+
+    @Test
+    public void testFromSystemPropertiesDefaults() {
+        System.setProperty(PassClientConfig.URL_PROPERTY, "http://pass:8080/");
+
+        PassClientConfig config = PassClientConfig.fromSystemProperties();
+
+        assertNull(config.getUser());
+        assertEquals(5, config.getMaxIdleConnections());
+        assertEquals(-1, config.getGzipRequestThreshold());
+    }
+
+    @Test
+    public void testFromSystemPropertiesMissingUrl() {
+        assertThrows(RuntimeException.class, PassClientConfig::fromSystemProperties);
+    }
+
+    @Test
+    public void testFromSystemPropertiesInvalid() {
+        System.setProperty(PassClientConfig.URL_PROPERTY, "http://pass:8080/");
+        System.setProperty(PassClientConfig.READ_TIMEOUT_PROPERTY, "30s");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                PassClientConfig::fromSystemProperties);
+        assertTrue(e.getMessage().contains(PassClientConfig.READ_TIMEOUT_PROPERTY));
+    }
+
+    @Test
+    public void testInvalidSettings() {
+        PassClientConfig.Builder builder = PassClientConfig.builder("http://localhost:8080");
+
+        assertThrows(IllegalArgumentException.class, () -> PassClientConfig.builder(null));
+        assertThrows(IllegalArgumentException.class, () -> builder.maxIdleConnections(-1));
+        assertThrows(IllegalArgumentException.class, () -> builder.keepAlive(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> builder.gzipRequestThreshold(-2));
+        assertThrows(IllegalArgumentException.class, () -> builder.readTimeout(Duration.ofSeconds(-1)));
+        assertThrows(IllegalArgumentException.class, () -> builder.maxRequests(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.maxRequestsPerHost(0));
+    }
+
+    @Test
+    public void testHttp2PriorKnowledgeRequiresHttp() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PassClientConfig.builder("HTTPS://pass.example.org").http2PriorKnowledge(true).build());
+    }
+
+    @Test
+    public void testClientTransport() {
+        PassClientConfig config = PassClientConfig.builder("http://localhost:8080").maxIdleConnections(20)
+                .http2PriorKnowledge(true).connectTimeout(Duration.ofSeconds(1)).readTimeout(Duration.ofSeconds(2))
+                .writeTimeout(Duration.ofSeconds(3)).callTimeout(Duration.ofSeconds(4)).maxRequests(100)
+                .maxRequestsPerHost(50).gzipRequestThreshold(1024).build();
+
+        OkHttpClient client = new JsonApiPassClient(config).get_http_client();
+
+        assertEquals(List.of(Protocol.H2_PRIOR_KNOWLEDGE), client.protocols());
+        assertEquals(1000, client.connectTimeoutMillis());
+        assertEquals(2000, client.readTimeoutMillis());
+        assertEquals(3000, client.writeTimeoutMillis());
+        assertEquals(4000, client.callTimeoutMillis());
+        assertEquals(100, client.dispatcher().getMaxRequests());
+        assertEquals(50, client.dispatcher().getMaxRequestsPerHost());
+        assertTrue(client.interceptors().stream().anyMatch(i -> i instanceof GzipRequestInterceptor));
+    }
+
+    @Test
+    public void testClientTransportDefaults() {
+        OkHttpClient client = new JsonApiPassClient("http://localhost:8080").get_http_client();
+
+        assertEquals(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1), client.protocols());
+        assertFalse(client.interceptors().stream().anyMatch(i -> i instanceof GzipRequestInterceptor));
+    }
+}
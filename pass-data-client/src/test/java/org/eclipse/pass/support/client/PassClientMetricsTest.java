@@ -0,0 +1,177 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.Call;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import org.junit.jupiter.api.Test;
+
+public class PassClientMetricsTest {
+    @Test
+    public void testRecordRequest() {
+        PassClientMetrics metrics = PassClientMetrics.simple();
+        MeterRegistry registry = metrics.getRegistry();
+
+        metrics.recordRequest("get", "journal", 200, TimeUnit.MILLISECONDS.toNanos(5));
+        metrics.recordRequest("get", "journal", 200, TimeUnit.MILLISECONDS.toNanos(15));
+        metrics.recordRequest("get", "journal", -1, TimeUnit.MILLISECONDS.toNanos(1));
+
+        Timer ok = registry.get("pass.client.requests").tags("operation", "get", "type", "journal", "status", "200")
+                .timer();
+        assertEquals(2, ok.count());
+        assertEquals(20, ok.totalTime(TimeUnit.MILLISECONDS), 0.001);
+
+        assertEquals(1, registry.get("pass.client.requests").tag("status", "IO_ERROR").timer().count());
+    }
+
+    @Test
+    public void testRecordResponseAndPage() {
+        PassClientMetrics metrics = PassClientMetrics.simple();
+        MeterRegistry registry = metrics.getRegistry();
+
+        metrics.recordResponse("select", "publication", 1000, 10);
+        metrics.recordResponse("select", "publication", 3000, 10);
+        metrics.recordPage("publication", 500);
+        metrics.recordPage(null, 0);
+
+        assertEquals(4000, registry.get("pass.client.response.bytes").tag("type", "publication").summary()
+                .totalAmount(), 0.001);
+        assertEquals(2, registry.get("pass.client.decode").timer().count());
+        assertEquals(500, registry.get("pass.client.page.objects").tag("type", "publication").summary()
+                .totalAmount(), 0.001);
+        assertNotNull(registry.get("pass.client.page.objects").tag("type", "none").summary());
+    }
+
+    @Test
+    public void testRecordPageLimit() {
+        PassClientMetrics metrics = PassClientMetrics.simple();
+        MeterRegistry registry = metrics.getRegistry();
+
+        metrics.recordPageLimit("journal", 500);
+        metrics.recordPageLimit("journal", 1000);
+
+        DistributionSummary limits = registry.get("pass.client.page.limit").tag("type", "journal").summary();
+        assertEquals(2, limits.count());
+        assertEquals(1000, limits.max(), 0.001);
+    }
+
+    @Test
+    public void testLimiterGauges() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(7, 1, 10);
+        PassClientMetrics metrics = PassClientMetrics.simple();
+
+        new JsonApiPassClient(PassClientConfig.builder("http://localhost:8080").concurrencyLimiter(limiter)
+                .build()).setMetrics(metrics);
+
+        assertEquals(7, metrics.getRegistry().get("pass.client.concurrency.limit").gauge().value(), 0.001);
+        assertEquals(0, metrics.getRegistry().get("pass.client.concurrency.inflight").gauge().value(), 0.001);
+
+        // No gauges for a client without a limiter
+        PassClientMetrics unlimited = PassClientMetrics.simple();
+
+        new JsonApiPassClient(PassClientConfig.builder("http://localhost:8080").concurrencyLimiter(null)
+                .build()).setMetrics(unlimited);
+        new JsonApiPassClient("http://localhost:8080", null, null, new Dispatcher()).setMetrics(unlimited);
+
+        assertNull(unlimited.getRegistry().find("pass.client.concurrency.limit").gauge());
+    }
+
+    @Test
+    public void testDump() {
+        PassClientMetrics metrics = PassClientMetrics.simple();
+        metrics.registerLimiter(new AdaptiveConcurrencyLimiter(20, 1, 200));
+        metrics.recordRequest("delete", "grant", 204, 1000);
+
+        String dump = metrics.dump();
+
+        assertTrue(dump.contains("pass.client.concurrency.limit value="));
+        assertTrue(dump.contains("pass.client.requests{operation=delete,status=204,type=grant} count=1.0"));
+        assertTrue(dump.indexOf("pass.client.concurrency") < dump.indexOf("pass.client.requests"));
+    }
+
+    @Test
+    public void testHistograms() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        Set<String> histograms = new HashSet<>();
+
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (Boolean.TRUE.equals(config.isPercentileHistogram())) {
+                    histograms.add(id.getName());
+                }
+
+                return config;
+            }
+        });
+
+        PassClientMetrics metrics = new PassClientMetrics(registry);
+        metrics.recordRequest("select", "grant", 200, TimeUnit.MILLISECONDS.toNanos(5));
+        metrics.recordResponse("select", "grant", 1000, TimeUnit.MILLISECONDS.toNanos(1));
+        metrics.recordPage("grant", 500);
+        metrics.recordPageLimit("grant", 500);
+
+        assertEquals(Set.of("pass.client.requests", "pass.client.response.bytes", "pass.client.decode",
+                "pass.client.page.objects", "pass.client.page.limit"), histograms);
+    }
+
+    @Test
+    public void testTimeToFirstByte() throws InterruptedException {
+        PassClientMetrics metrics = PassClientMetrics.simple();
+        EventListener listener = metrics.newEventListener();
+        Request request = new Request.Builder().url("http://localhost:8080/data/grant").build();
+        Call call = new OkHttpClient().newCall(request);
+
+        // Time spent before the request is sent is not included
+        listener.callStart(call);
+        Thread.sleep(50);
+        listener.requestHeadersStart(call);
+        listener.requestHeadersEnd(call, request);
+        listener.responseHeadersStart(call);
+
+        Timer ttfb = metrics.getRegistry().get("pass.client.http.ttfb").timer();
+        assertEquals(1, ttfb.count());
+        assertTrue(ttfb.totalTime(TimeUnit.MILLISECONDS) < 50);
+
+        // Measured from the end of the request body when there is one
+        listener.requestHeadersEnd(call, request);
+        Thread.sleep(50);
+        listener.requestBodyEnd(call, 100);
+        listener.responseHeadersStart(call);
+
+        assertEquals(2, ttfb.count());
+        assertTrue(ttfb.totalTime(TimeUnit.MILLISECONDS) < 100);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.pass.support.client.model.PassEntity;
+import org.eclipse.pass.support.client.model.Publication;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PassClientTest {
+    private InMemoryPassClient client;
+    private List<Publication> pubs;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        client = new InMemoryPassClient();
+        pubs = new ArrayList<>();
+
+        for (int i = 0; i < 250; i++) {
+            Publication pub = new Publication();
+            pub.setTitle("Title " + i);
+
+            client.createObject(pub);
+            pubs.add(pub);
+        }
+    }
+
+    @Test
+    public void testGetObjects() throws IOException {
+        List<String> ids = List.of(pubs.get(5).getId(), "1000", pubs.get(1).getId(), pubs.get(5).getId());
+        List<Publication> result = client.getObjects(Publication.class, ids);
+
+        assertEquals(4, result.size());
+        assertSame(pubs.get(5), result.get(0));
+        assertNull(result.get(1));
+        assertSame(pubs.get(1), result.get(2));
+        assertSame(pubs.get(5), result.get(3));
+        assertEquals(1, client.getSelectCount());
+        assertEquals(0, client.getGetCount());
+    }
+
+    @Test
+    public void testGetObjectsChunked() throws IOException {
+        List<String> ids = new ArrayList<>();
+        pubs.forEach(p -> ids.add(0, p.getId()));
+
+        List<Publication> result = client.getObjects(Publication.class, ids);
+
+        assertEquals(ids.size(), result.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(ids.get(i), result.get(i).getId());
+        }
+
+        // Limited to 100 ids per chunk
+        assertEquals(3, client.getSelectCount());
+    }
+
+    @Test
+    public void testGetObjectsChunkNotFound() throws IOException {
+        // Selection of the first chunk is not found
+        PassClient notFound = new InMemoryPassClient() {
+            private boolean first = true;
+
+            @Override
+            public synchronized <T extends PassEntity> PassClientResult<T> selectObjects(
+                    PassClientSelector<T> selector) throws IOException {
+                PassClientResult<T> result = super.selectObjects(selector);
+
+                if (first) {
+                    first = false;
+                    return null;
+                }
+
+                return result;
+            }
+        };
+
+        for (Publication pub : pubs) {
+            notFound.createObject(pub);
+        }
+
+        List<String> ids = new ArrayList<>();
+        pubs.forEach(p -> ids.add(p.getId()));
+
+        List<Publication> result = notFound.getObjects(Publication.class, ids);
+
+        assertEquals(ids.size(), result.size());
+        for (int i = 0; i < ids.size(); i++) {
+            if (i < 100) {
+                assertNull(result.get(i));
+            } else {
+                assertEquals(ids.get(i), result.get(i).getId());
+            }
+        }
+    }
+
+    @Test
+    public void testGetObjectsEmpty() throws IOException {
+        assertEquals(List.of(), client.getObjects(Publication.class, List.of()));
+        assertEquals(0, client.getSelectCount());
+    }
+
+    @Test
+    public void testCountObjects() throws IOException {
+        PassClientSelector<Publication> selector = new PassClientSelector<>(Publication.class, 10, 20, null, "id");
+        assertEquals(250, client.countObjects(selector));
+
+        selector.setFilter(RSQL.in("id", pubs.get(0).getId(), pubs.get(1).getId(), "1000"));
+        assertEquals(2, client.countObjects(selector));
+
+        assertEquals(2, client.getSelectCount());
+        assertEquals(10, selector.getOffset());
+        assertEquals(20, selector.getLimit());
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.pass.support.client.model.Journal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PrefetchingSpliteratorTest {
+    private InMemoryPassClient client;
+    private List<Journal> journals;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        client = new InMemoryPassClient();
+        journals = new ArrayList<>();
+
+        for (int i = 0; i < 23; i++) {
+            Journal journal = new Journal();
+            journal.setJournalName("Journal " + i);
+
+            client.createObject(journal);
+            journals.add(journal);
+        }
+    }
+
+    @Test
+    public void testStreamAllPages() throws IOException {
+        PassClientSelector<Journal> selector = new PassClientSelector<>(Journal.class, 0, 5, null, null);
+        selector.setPrefetch(2);
+
+        assertIterableEquals(journals, client.streamObjects(selector).collect(Collectors.toList()));
+
+        // Pages at offsets 0, 5, 10, 15, 20 and the selector is not modified
+        assertEquals(5, client.getSelectCount());
+        assertEquals(0, selector.getOffset());
+    }
+
+    @Test
+    public void testStreamFromOffset() throws IOException {
+        PassClientSelector<Journal> selector = new PassClientSelector<>(Journal.class, 7, 5, null, null);
+        selector.setPrefetch(3);
+
+        assertIterableEquals(journals.subList(7, journals.size()),
+                client.streamObjects(selector).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testStreamPartial() throws IOException {
+        PassClientSelector<Journal> selector = new PassClientSelector<>(Journal.class, 0, 5, null, null);
+        selector.setPrefetch(1);
+
+        try (Stream<Journal> stream = client.streamObjects(selector)) {
+            assertIterableEquals(journals.subList(0, 7), stream.limit(7).collect(Collectors.toList()));
+        }
+
+        // First page, second page, and one page in flight
+        assertEquals(3, client.getSelectCount());
+    }
+
+    @Test
+    public void testStreamNoMatches() throws IOException {
+        PassClientSelector<Journal> selector = new PassClientSelector<>(Journal.class, 100, 5, null, null);
+        selector.setPrefetch(2);
+
+        assertEquals(0, client.streamObjects(selector).count());
+        assertEquals(1, client.getSelectCount());
+    }
+
+    @Test
+    public void testEstimateSize() throws IOException {
+        PassClientSelector<Journal> selector = new PassClientSelector<>(Journal.class, 7, 5, null, null);
+        selector.setPrefetch(2);
+
+        PrefetchingSpliterator<Journal> iter = new PrefetchingSpliterator<>(client, selector);
+        assertEquals(journals.size() - 7, iter.estimateSize());
+
+        for (int i = 0; i < 6; i++) {
+            iter.tryAdvance(j -> { });
+        }
+
+        assertEquals(journals.size() - 13, iter.estimateSize());
+
+        iter.forEachRemaining(j -> { });
+        assertEquals(0, iter.estimateSize());
+    }
+}
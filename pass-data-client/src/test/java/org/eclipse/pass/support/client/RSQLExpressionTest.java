@@ -0,0 +1,211 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.eclipse.pass.support.client.model.Publication;
+import org.eclipse.pass.support.client.model.Repository;
+import org.eclipse.pass.support.client.model.Submission;
+import org.eclipse.pass.support.client.model.SubmissionStatus;
+import org.eclipse.pass.support.client.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RSQLExpressionTest {
+    private Submission submission;
+    private User user;
+
+    @BeforeEach
+    public void setup() {
+        Publication publication = new Publication("7");
+        publication.setTitle("Some title");
+
+        submission = new Submission("1");
+        submission.setSubmitted(true);
+        submission.setSubmittedDate(ZonedDateTime.parse("2023-03-14T15:09:26.535Z"));
+        submission.setSubmissionStatus(SubmissionStatus.NEEDS_ATTENTION);
+        submission.setPublication(publication);
+        submission.setRepositories(List.of(new Repository("2"), new Repository("3")));
+
+        user = new User("4");
+        user.setUsername("alice");
+        user.setLocatorIds(List.of("jhu:employeeid:1", "jhu:eppn:alice"));
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals(RSQL.equals("a", "b'c"), RSQLExpression.equals("a", "b'c").toString());
+        assertEquals(RSQL.notEquals("a", "b"), RSQLExpression.notEquals("a", "b").toString());
+        assertEquals(RSQL.greaterThan("a", "b"), RSQLExpression.greaterThan("a", "b").toString());
+        assertEquals(RSQL.lessThan("a", "b"), RSQLExpression.lessThan("a", "b").toString());
+        assertEquals(RSQL.in("a", "b", "c"), RSQLExpression.in("a", "b", "c").toString());
+        assertEquals(RSQL.out("a", "b", "c"), RSQLExpression.out("a", "b", "c").toString());
+        assertEquals(RSQL.hasMember("a", "b"), RSQLExpression.hasMember("a", "b").toString());
+        assertEquals(RSQL.hasNoMember("a", "b"), RSQLExpression.hasNoMember("a", "b").toString());
+
+        assertEquals(RSQL.and(RSQL.equals("a", "b"), RSQL.or(RSQL.equals("c", "d"), RSQL.in("e", "f", "g"))),
+                RSQLExpression.and(RSQLExpression.equals("a", "b"), RSQLExpression.or(RSQLExpression.equals("c", "d"),
+                        RSQLExpression.in("e", "f", "g"))).toString());
+    }
+
+    @Test
+    public void testEncoded() {
+        RSQLExpression expr = RSQLExpression.and(RSQLExpression.equals("title", "A & B + C's #1 \u00fc"),
+                RSQLExpression.in("id", "1", "2"));
+
+        String encoded = expr.getEncoded();
+
+        assertFalse(encoded.contains("&"));
+        assertFalse(encoded.contains("+"));
+        assertFalse(encoded.contains("#"));
+        assertFalse(encoded.contains(" "));
+        assertFalse(encoded.contains("'"));
+        assertEquals(expr.toString(), URLDecoder.decode(encoded, StandardCharsets.UTF_8));
+        assertSame(encoded, expr.getEncoded());
+        assertSame(expr.toString(), expr.toString());
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        assertEquals(RSQLExpression.in("id", "1", "2"), RSQLExpression.in("id", "1", "2"));
+        assertEquals(RSQLExpression.in("id", "1", "2").hashCode(), RSQLExpression.in("id", "1", "2").hashCode());
+        assertNotEquals(RSQLExpression.in("id", "1", "2"), RSQLExpression.in("id", "2", "1"));
+    }
+
+    @Test
+    public void testAttributes() {
+        assertTrue(RSQLExpression.equals("id", "1").test(submission));
+        assertTrue(RSQLExpression.equals("submitted", "true").test(submission));
+        assertFalse(RSQLExpression.equals("submitted", "false").test(submission));
+        assertTrue(RSQLExpression.equals("submissionStatus", "needs-attention").test(submission));
+        assertTrue(RSQLExpression.in("submissionStatus", "submitted", "needs-attention").test(submission));
+        assertFalse(RSQLExpression.out("submissionStatus", "submitted", "needs-attention").test(submission));
+        assertTrue(RSQLExpression.notEquals("submissionStatus", "submitted").test(submission));
+        assertTrue(RSQLExpression.equals("submittedDate", "2023-03-14T15:09:26.535Z").test(submission));
+        assertTrue(RSQLExpression.greaterThan("submittedDate", "2023-01-01T00:00:00Z").test(submission));
+        assertFalse(RSQLExpression.lessThan("submittedDate", "2023-01-01T00:00:00Z").test(submission));
+    }
+
+    @Test
+    public void testNullNeverMatches() {
+        assertFalse(RSQLExpression.equals("source", "pass").test(submission));
+        assertFalse(RSQLExpression.notEquals("source", "pass").test(submission));
+        assertFalse(RSQLExpression.out("source", "pass").test(submission));
+        assertFalse(RSQLExpression.equals("submitter.id", "4").test(submission));
+    }
+
+    @Test
+    public void testRelationships() {
+        assertTrue(RSQLExpression.equals("publication", "7").test(submission));
+        assertTrue(RSQLExpression.equals("publication.id", "7").test(submission));
+        assertTrue(RSQLExpression.equals("publication.title", "Some title").test(submission));
+        assertTrue(RSQLExpression.equals("repositories.id", "3").test(submission));
+        assertTrue(RSQLExpression.in("repositories", "5", "2").test(submission));
+        assertFalse(RSQLExpression.equals("repositories.id", "5").test(submission));
+
+        // Stubs do not have attributes
+        assertFalse(RSQLExpression.equals("repositories.name", "Repository").test(submission));
+    }
+
+    @Test
+    public void testCollections() {
+        assertTrue(RSQLExpression.hasMember("locatorIds", "jhu:eppn:alice").test(user));
+        assertFalse(RSQLExpression.hasMember("locatorIds", "jhu:eppn:bob").test(user));
+        assertTrue(RSQLExpression.hasNoMember("locatorIds", "jhu:eppn:bob").test(user));
+        assertFalse(RSQLExpression.hasNoMember("locatorIds", "jhu:eppn:alice").test(user));
+    }
+
+    @Test
+    public void testWildcard() {
+        assertTrue(RSQLExpression.equals("username", "al*").test(user));
+        assertTrue(RSQLExpression.equals("username", "*ice").test(user));
+        assertTrue(RSQLExpression.equals("username", "*lic*").test(user));
+        assertTrue(RSQLExpression.equals("username", "a*i*e").test(user));
+        assertFalse(RSQLExpression.equals("username", "b*").test(user));
+        assertFalse(RSQLExpression.equals("username", "alic*ice").test(user));
+        assertFalse(RSQLExpression.in("username", "al*").test(user));
+    }
+
+    @Test
+    public void testLogic() {
+        RSQLExpression yes = RSQLExpression.equals("username", "alice");
+        RSQLExpression no = RSQLExpression.equals("username", "bob");
+
+        assertTrue(RSQLExpression.and(yes, yes).test(user));
+        assertFalse(RSQLExpression.and(yes, no).test(user));
+        assertTrue(RSQLExpression.or(no, yes).test(user));
+        assertFalse(RSQLExpression.or(no, no).test(user));
+    }
+
+    @Test
+    public void testUnknownField() {
+        assertThrows(IllegalArgumentException.class, () -> RSQLExpression.equals("badField", "a").test(user));
+        assertThrows(IllegalArgumentException.class, () -> RSQLExpression.equals("username.id", "a").test(user));
+        assertThrows(IllegalArgumentException.class, () -> RSQLExpression.in("id"));
+        assertThrows(IllegalArgumentException.class, () -> RSQLExpression.and());
+    }
+
+    @Test
+    public void testMalformedDateTime() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RSQLExpression.greaterThan("submittedDate", "yesterday").test(submission));
+        assertThrows(IllegalArgumentException.class,
+                () -> RSQLExpression.equals("submittedDate", "2023-13-14").test(submission));
+    }
+
+    @Test
+    public void testSelector() throws IOException {
+        RSQLExpression expr = RSQLExpression.equals("username", "alice");
+        PassClientSelector<User> selector = new PassClientSelector<>(User.class);
+
+        selector.setFilterExpression(expr);
+        assertSame(expr, selector.getFilterExpression());
+        assertEquals(expr.toString(), selector.getFilter());
+        assertSame(expr, new PassClientSelector<>(selector).getFilterExpression());
+
+        InMemoryPassClient client = new InMemoryPassClient();
+        User bob = new User();
+        bob.setUsername("bob");
+        client.createObject(bob);
+        User alice = new User();
+        alice.setUsername("alice");
+        client.createObject(alice);
+
+        assertEquals(List.of(alice), client.selectObjects(selector).getObjects());
+
+        selector.setFilter(RSQL.in("id", bob.getId()));
+        assertNull(selector.getFilterExpression());
+        assertEquals(List.of(bob), client.selectObjects(selector).getObjects());
+
+        selector.setFilterExpression(expr);
+        selector.setFilter(null);
+        assertNull(selector.getFilter());
+        assertNull(selector.getFilterExpression());
+    }
+}
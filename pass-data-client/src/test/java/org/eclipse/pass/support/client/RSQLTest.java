@@ -1,6 +1,9 @@
 package org.eclipse.pass.support.client;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
@@ -12,6 +15,8 @@ public class RSQLTest {
         assertEquals("name=in=('value1','value2')", RSQL.in("name", "value1", "value2"));
         assertEquals("name=out=('value1','value2')", RSQL.out("name", "value1", "value2"));
         assertEquals("name!='value'", RSQL.notEquals("name", "value"));
+        assertEquals("name=gt='value'", RSQL.greaterThan("name", "value"));
+        assertEquals("name=lt='value'", RSQL.lessThan("name", "value"));
     }
 
     @Test
@@ -26,4 +31,67 @@ public class RSQLTest {
     public void testEscape() {
         assertEquals("name=='v\\\\a\\'lu\\\"e'", RSQL.equals("name", "v\\a'lu\"e"));
     }
+
+    @Test
+    public void testChunkValues() {
+        assertEquals(List.of(), RSQL.chunk_values(List.of(), 2, 100));
+        assertEquals(List.of(List.of("1", "2"), List.of("3")), RSQL.chunk_values(List.of("1", "2", "3"), 2, 100));
+
+        // Each value takes up its length plus three characters
+        assertEquals(List.of(List.of("12", "34"), List.of("5678901")),
+                RSQL.chunk_values(List.of("12", "34", "5678901"), 10, 10));
+        assertEquals(List.of(List.of("1"), List.of("123456789012"), List.of("2")),
+                RSQL.chunk_values(List.of("1", "123456789012", "2"), 10, 10));
+    }
+
+    @Test
+    public void testSplitIn() {
+        assertEquals(List.of(RSQL.in("id", "1", "2"), RSQL.in("id", "3")),
+                RSQL.split_in(RSQL.in("id", "1", "2", "3"), 2, 100));
+        assertEquals(List.of(RSQL.in("a.b", "x',y", "z\\"), RSQL.in("a.b", "w")),
+                RSQL.split_in(RSQL.in("a.b", "x',y", "z\\", "w"), 2, 100));
+        assertEquals(List.of(RSQL.in("id", "1", "2"), RSQL.in("id", "3")), RSQL.split_in("id=in=(1,2,3)", 2, 100));
+        assertEquals(List.of(RSQL.in("id", "1", "2"), RSQL.in("id", "3")),
+                RSQL.split_in("id=in=(\"1\",'2',3)", 2, 100));
+
+        // Values fit in one chunk
+        assertNull(RSQL.split_in(RSQL.in("id", "1", "2"), 2, 100));
+
+        // Not a single =in= expression
+        assertNull(RSQL.split_in(RSQL.out("id", "1", "2", "3"), 2, 100));
+        assertNull(RSQL.split_in(RSQL.and(RSQL.in("id", "1", "2", "3"), RSQL.equals("a", "b")), 2, 100));
+        assertNull(RSQL.split_in(RSQL.in("id", "1", "2", "3") + ";" + RSQL.in("a", "1", "2", "3"), 2, 100));
+        assertNull(RSQL.split_in("id=in=('1','2','3'", 2, 100));
+        assertNull(RSQL.split_in("id=in=('1','2',)", 2, 100));
+        assertNull(RSQL.split_in("id=in=('1','2','3)", 2, 100));
+    }
+
+    @Test
+    public void testSplitOr() {
+        String a = RSQL.equals("a", "x,y");
+        String b = RSQL.equals("b", "(");
+        String c = RSQL.equals("c", "z\\'");
+        String d = RSQL.and(RSQL.equals("d", "1"), RSQL.equals("e", "2"));
+
+        assertEquals(List.of(RSQL.or(a, b), RSQL.or(c, d)), RSQL.split_in(RSQL.or(a, b, c, d), 2, 100));
+        assertEquals(List.of(a, b, c, d), RSQL.split_in(RSQL.or(a, b, c, d), 1, 100));
+        assertEquals(List.of(RSQL.or(a, b), c), RSQL.split_in(a + "," + b + "," + c, 2, 100));
+
+        // Branches count each =in= value and are split themselves
+        assertEquals(List.of(a, RSQL.in("id", "1", "2"), RSQL.in("id", "3")),
+                RSQL.split_in(RSQL.or(a, RSQL.in("id", "1", "2", "3")), 2, 100));
+
+        // Each branch takes up its length plus one character
+        assertEquals(List.of(RSQL.or(a, b), c), RSQL.split_in(RSQL.or(a, b, c), 10,
+                a.length() + b.length() + 2));
+
+        // Branches fit in one chunk
+        assertNull(RSQL.split_in(RSQL.or(a, b), 2, 100));
+
+        // Not a disjunction
+        assertNull(RSQL.split_in(d, 1, 100));
+        assertNull(RSQL.split_in(RSQL.equals("a", "x,y,z"), 1, 100));
+        assertNull(RSQL.split_in("(a==1,b==2", 1, 100));
+        assertNull(RSQL.split_in("a=='1,b==2", 1, 100));
+    }
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.eclipse.pass.support.client.model.Journal;
+import org.eclipse.pass.support.client.model.PassEntity;
+import org.eclipse.pass.support.client.model.Publisher;
+import org.junit.jupiter.api.Test;
+
+public class StubTableTest {
+    @Test
+    public void testStubsShared() {
+        StubTable stubs = new StubTable();
+        EntityMetadata journal = EntityMetadata.of(Journal.class);
+        EntityMetadata publisher = EntityMetadata.of(Publisher.class);
+
+        PassEntity stub = stubs.get(journal, "1");
+
+        assertEquals(new Journal("1"), stub);
+        assertSame(stub, stubs.get(journal, "1"));
+        assertNotSame(stub, stubs.get(journal, "2"));
+        assertEquals(new Publisher("1"), stubs.get(publisher, "1"));
+        assertEquals(3, stubs.size());
+
+        assertNotSame(stub, new StubTable().get(journal, "1"));
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2023 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.support.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+import org.eclipse.pass.support.client.model.AwardStatus;
+import org.eclipse.pass.support.client.model.Funder;
+import org.eclipse.pass.support.client.model.Grant;
+import org.eclipse.pass.support.client.model.Journal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class UpserterTest {
+    private List<List<PassClientOperation>> batches;
+    private InMemoryPassClient client;
+
+    // Update the name of the stored funder if it differs
+    private final BiFunction<Funder, Funder, Funder> mergeName = (funder, stored) -> {
+        if (Objects.equals(funder.getName(), stored.getName())) {
+            return null;
+        }
+
+        stored.setName(funder.getName());
+        return stored;
+    };
+
+    @BeforeEach
+    public void setup() throws IOException {
+        batches = new ArrayList<>();
+        client = new InMemoryPassClient() {
+            @Override
+            public List<String> executeBatch(List<PassClientOperation> operations) throws IOException {
+                batches.add(operations);
+                return super.executeBatch(operations);
+            }
+        };
+    }
+
+    private Funder funder(String localKey, String name) {
+        Funder funder = new Funder();
+        funder.setLocalKey(localKey);
+        funder.setName(name);
+        return funder;
+    }
+
+    @Test
+    public void testUpsertAll() throws IOException {
+        Funder stored1 = funder("k1", "One");
+        Funder stored2 = funder("k2", "Two");
+        client.createObject(stored1);
+        client.createObject(stored2);
+
+        Funder funder1 = funder("k1", "New one");
+        Funder funder2 = funder("k2", "Two");
+        Funder funder3 = funder("k3", "Three");
+
+        List<Funder> result = client.upsertAll(List.of(funder1, funder2, funder3), "localKey", mergeName);
+
+        assertEquals(1, client.getSelectCount());
+        assertEquals(3, result.size());
+        assertSame(stored1, result.get(0));
+        assertEquals("New one", stored1.getName());
+        assertSame(stored2, result.get(1));
+        assertSame(funder3, result.get(2));
+        assertNotNull(funder3.getId());
+
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals(PassClientOperation.Action.UPDATE, batches.get(0).get(0).getAction());
+        assertSame(stored1, batches.get(0).get(0).getEntity());
+        assertEquals(PassClientOperation.Action.CREATE, batches.get(0).get(1).getAction());
+        assertSame(funder3, batches.get(0).get(1).getEntity());
+    }
+
+    @Test
+    public void testUpsertNothingNeeded() throws IOException {
+        Funder stored = funder("k1", "One");
+        client.createObject(stored);
+
+        assertSame(stored, client.upsert(funder("k1", "One"), "localKey", mergeName));
+        assertEquals(0, batches.size());
+    }
+
+    @Test
+    public void testUpsertAllSameKey() throws IOException {
+        Funder funder1 = funder("k1", "One");
+        Funder funder2 = funder("k1", "Two");
+
+        List<Funder> result = client.upsertAll(List.of(funder1, funder2), "localKey", mergeName);
+
+        // Second funder is merged into the first which is then created once
+        assertSame(funder1, result.get(0));
+        assertSame(funder1, result.get(1));
+        assertEquals("Two", funder1.getName());
+        assertEquals(1, batches.get(0).size());
+        assertEquals(PassClientOperation.Action.CREATE, batches.get(0).get(0).getAction());
+        assertNotNull(funder1.getId());
+        assertEquals(1, client.selectObjects(new PassClientSelector<>(Funder.class)).getTotal());
+    }
+
+    // Merge into a new instance rather than changing the stored funder
+    private final BiFunction<Funder, Funder, Funder> mergeCopy = (funder, stored) -> {
+        Funder merged = funder(stored.getLocalKey(), funder.getName());
+        merged.setUrl(stored.getUrl());
+        return merged;
+    };
+
+    @Test
+    public void testUpsertAllSameKeyNewInstance() throws IOException {
+        Funder funder1 = funder("k1", "One");
+        Funder funder2 = funder("k1", "Two");
+
+        List<Funder> result = client.upsertAll(List.of(funder1, funder2), "localKey", mergeCopy);
+
+        // The merged instance replaces the pending create of the first funder in every result
+        assertSame(result.get(0), result.get(1));
+        assertNotSame(funder1, result.get(0));
+        assertNotNull(result.get(0).getId());
+        assertEquals("Two", result.get(0).getName());
+        assertEquals(1, batches.get(0).size());
+        assertEquals(PassClientOperation.Action.CREATE, batches.get(0).get(0).getAction());
+        assertEquals(1, client.selectObjects(new PassClientSelector<>(Funder.class)).getTotal());
+    }
+
+    @Test
+    public void testUpsertStoredNewInstance() throws IOException {
+        Funder stored = funder("k1", "One");
+        client.createObject(stored);
+
+        Funder funder1 = funder("k1", "Two");
+        Funder funder2 = funder("k1", "Three");
+
+        List<Funder> result = client.upsertAll(List.of(funder1, funder2), "localKey", mergeCopy);
+
+        // The merged instance takes the id of the stored funder and is updated once
+        assertSame(result.get(0), result.get(1));
+        assertEquals(stored.getId(), result.get(1).getId());
+        assertEquals(1, batches.get(0).size());
+        assertEquals(PassClientOperation.Action.UPDATE, batches.get(0).get(0).getAction());
+        assertEquals("Three", client.getObject(Funder.class, stored.getId()).getName());
+        assertEquals(1, client.selectObjects(new PassClientSelector<>(Funder.class)).getTotal());
+    }
+
+    @Test
+    public void testUpsertMergeDifferentId() throws IOException {
+        Funder stored = funder("k1", "One");
+        client.createObject(stored);
+
+        assertThrows(IllegalArgumentException.class, () -> client.upsert(funder("k1", "Two"), "localKey",
+                (funder, current) -> new Funder("other")));
+    }
+
+    @Test
+    public void testUpsertAllChunks() throws IOException {
+        List<Funder> funders = new ArrayList<>();
+
+        for (int i = 0; i < 250; i++) {
+            funders.add(funder("key" + i, "Funder " + i));
+        }
+
+        client.createObject(funder("key7", "Old name"));
+
+        List<Funder> result = client.upsertAll(funders, "localKey", mergeName);
+
+        assertEquals(3, client.getSelectCount());
+        assertEquals(250, result.size());
+        assertEquals("Funder 7", result.get(7).getName());
+        assertEquals(250, client.selectObjects(new PassClientSelector<>(Funder.class)).getTotal());
+        assertEquals(1, batches.size());
+        assertEquals(250, batches.get(0).size());
+    }
+
+    @Test
+    public void testUpsertCollectionKey() throws IOException {
+        Journal stored = new Journal();
+        stored.setJournalName("Journal");
+        stored.setIssns(new ArrayList<>(List.of("Print:1234-5678", "Online:8765-4321")));
+        client.createObject(stored);
+
+        Journal journal = new Journal();
+        journal.setIssns(List.of("Online:8765-4321", "Print:1111-2222"));
+
+        Journal result = client.upsert(journal, "issns", (j, s) -> {
+            j.getIssns().stream().filter(issn -> !s.getIssns().contains(issn)).forEach(s.getIssns()::add);
+            return s;
+        });
+
+        assertSame(stored, result);
+        assertEquals(List.of("Print:1234-5678", "Online:8765-4321", "Print:1111-2222"), stored.getIssns());
+        assertEquals(PassClientOperation.Action.UPDATE, batches.get(0).get(0).getAction());
+    }
+
+    @Test
+    public void testUpsertEnumKey() throws IOException {
+        Grant stored = new Grant();
+        stored.setAwardStatus(AwardStatus.PRE_AWARD);
+        client.createObject(stored);
+
+        Grant grant = new Grant();
+        grant.setAwardStatus(AwardStatus.PRE_AWARD);
+
+        // Enum keys are selected by their JSON value
+        assertSame(stored, client.upsert(grant, "awardStatus", (g, s) -> null));
+        assertEquals(0, batches.size());
+    }
+
+    @Test
+    public void testUpsertMultipleMatches() throws IOException {
+        client.createObject(funder("k1", "One"));
+        client.createObject(funder("k1", "Another one"));
+
+        assertThrows(IOException.class, () -> client.upsert(funder("k1", "One"), "localKey", mergeName));
+        assertEquals(0, batches.size());
+    }
+
+    @Test
+    public void testUpsertUnknownField() {
+        assertThrows(IllegalArgumentException.class, () -> client.upsert(funder("k1", "One"), "badField",
+                mergeName));
+        assertThrows(IllegalArgumentException.class, () -> client.upsert(funder("k1", "One"), "policy",
+                mergeName));
+    }
+
+    @Test
+    public void testUpsertAllEmpty() throws IOException {
+        assertEquals(0, client.upsertAll(new ArrayList<Funder>(), "localKey", mergeName).size());
+        assertEquals(0, client.getSelectCount());
+    }
+}
@@ -51,6 +51,8 @@ public class BatchJournalFinder implements JournalFinder {
         AtomicInteger count = new AtomicInteger(0);
 
         PassClientSelector<Journal> sel = new PassClientSelector<>(Journal.class);
+        sel.setPrefetch(2);
+        sel.setFields("issns", "nlmta", "journalName");
         client.streamObjects(sel).forEach(j -> {
 
             count.incrementAndGet();
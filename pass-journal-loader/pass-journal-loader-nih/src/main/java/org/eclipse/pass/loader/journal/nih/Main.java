@@ -21,7 +21,9 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import java.io.FileInputStream;
 import java.io.InputStream;
 
+import org.eclipse.pass.support.client.JsonApiPassClient;
 import org.eclipse.pass.support.client.PassClient;
+import org.eclipse.pass.support.client.PassClientMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,6 +50,12 @@ public class Main {
         LogUtil.adjustLogLevels();
 
         PassClient client = PassClient.newInstance();
+        PassClientMetrics metrics = null;
+
+        if (System.getProperty("metrics", null) != null && client instanceof JsonApiPassClient) {
+            metrics = PassClientMetrics.simple();
+            ((JsonApiPassClient) client).setMetrics(metrics);
+        }
 
         final JournalFinder finder = new BatchJournalFinder(client);
 
@@ -80,6 +88,11 @@ public class Main {
                 }
             }
         }
+
+        if (metrics != null) {
+            LOG.info("PASS client metrics:\n{}", metrics.dump());
+        }
+
         LOG.info("done!");
     }
 }
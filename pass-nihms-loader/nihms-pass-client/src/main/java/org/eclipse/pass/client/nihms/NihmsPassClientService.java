@@ -359,9 +359,7 @@ public class NihmsPassClientService {
             //merge the two sets of URIs to make sure we have all of them
             subIds.addAll(cachedIds);
             //add the cached ids to the list of submissions to be returned
-            for (String id : cachedIds) {
-                submissions.add(passClient.getObject(Submission.class, id));
-            }
+            submissions.addAll(passClient.getObjects(Submission.class, cachedIds));
         }
         //update the cache with all of the submission IDs
         userPubSubsCache.put(userIdPubIdKey, subIds);